@@ -0,0 +1,63 @@
+#!/bin/sh
+#Compares time to readiness of plain jar and fast-startup build (CDS archive + fast-startup profile, AOT if built with it).
+#Ready means /actuator/health/readiness on the management port reports UP, so warm-up and lazy beans are included.
+#Usage: scripts/startup-benchmark.sh <plain jar> <extracted fast-startup dir with app.jar and app.jsa> [runs]
+#DB_URL, DB_USERNAME and DB_PASSWORD must point to a migrated database. MANAGEMENT_PORT (8081) must be free.
+#AOT=true|false overrides detection of AOT classes in app.jar (present only in jar built with -Pfast-startup).
+set -e
+
+PLAIN_JAR=$1
+FAST_DIR=$2
+RUNS=${3:-10}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8081}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-180}
+export MANAGEMENT_PORT
+
+if [ -z "$PLAIN_JAR" ] || [ -z "$FAST_DIR" ]; then
+	echo "Usage: $0 <plain jar> <fast-startup dir> [runs]" >&2
+	exit 1
+fi
+
+if [ -z "$AOT" ]; then
+	if jar tf "$FAST_DIR/app.jar" | grep -q '__ApplicationContextInitializer'; then AOT=true; else AOT=false; fi
+fi
+
+#Milliseconds since start until readiness is UP, process is stopped afterwards
+ready_after() {
+	start=$(date +%s%N)
+	java "$@" > /dev/null 2>&1 &
+	pid=$!
+	deadline=$((start / 1000000000 + TIMEOUT_SECONDS))
+	until curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/health/readiness" 2>/dev/null | grep -q '"UP"'; do
+		if ! kill -0 "$pid" 2>/dev/null || [ "$(date +%s)" -gt "$deadline" ]; then
+			kill "$pid" 2>/dev/null || true
+			echo "Application did not become ready: java $*" >&2
+			exit 1
+		fi
+		sleep 0.05
+	done
+	end=$(date +%s%N)
+	kill "$pid"
+	wait "$pid" 2>/dev/null || true
+	echo $(((end - start) / 1000000))
+}
+
+#Prints average time to readiness of RUNS starts
+measure() {
+	total=0
+	i=0
+	while [ "$i" -lt "$RUNS" ]; do
+		elapsed=$(ready_after "$@")
+		total=$((total + elapsed))
+		i=$((i + 1))
+	done
+	echo $((total / RUNS))
+}
+
+plain=$(measure -jar "$PLAIN_JAR")
+fast=$(cd "$FAST_DIR" && measure -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled="$AOT" \
+	-Dspring.profiles.active=fast-startup -jar app.jar)
+
+echo "plain:        ${plain} ms"
+echo "fast-startup: ${fast} ms (AOT: ${AOT})"
+echo "improvement:  $(( (plain - fast) * 100 / plain ))%"
@@ -0,0 +1,75 @@
+package org.tech.technnicaltask.aop;
+
+import io.micrometer.core.instrument.Counter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.QueryTimeoutException;
+import org.tech.technnicaltask.deadline.RequestDeadline;
+import org.tech.technnicaltask.exceptions.DeadlineExceededException;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Cancels TaskService calls and TaskRepository calls of requests whose deadline has passed, and reports errors
+ * caused by the deadline (query cancelled by statement timeout, no pooled connection in time) as DeadlineExceededException.
+ * Other errors of an expired request (constraint violation, broken connection, not found) are thrown unchanged.
+ * Runs inside circuit breaker, so deadlines chosen by clients are not counted as storage failures,
+ * and outside transaction, so a commit that does not finish in time is reported the same way.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestDeadlineAspect {
+
+	//SQL state of PostgreSQL statement cancelled by query timeout
+	private static final String QUERY_CANCELED = "57014";
+
+	private final Counter exceeded;
+
+	public RequestDeadlineAspect(Counter exceeded) {
+		this.exceeded = exceeded;
+	}
+
+	@Around("execution(public * org.tech.technnicaltask.service.TaskService.*(..))")
+	public Object enforceDeadline(ProceedingJoinPoint jp) throws Throwable {
+		RequestDeadline deadline = RequestDeadline.current();
+		if (deadline == null) return jp.proceed();
+		if (deadline.isExpired()) {
+			exceeded.increment();
+			throw deadline.exceeded(null);
+		}
+		try {
+			return jp.proceed();
+		} catch (DeadlineExceededException e) {
+			exceeded.increment();
+			throw e;
+		} catch (Throwable e) {
+			if (!deadline.isExpired() || !isTimeout(e)) throw e;
+			exceeded.increment();
+			throw deadline.exceeded(e);
+		}
+	}
+
+	//Timeouts set from the deadline, anywhere in the cause chain: query timeout of JDBC, Spring, JPA or Hibernate,
+	//statement cancelled by PostgreSQL (57014) and connection not taken from Hikari pool in time
+	private static boolean isTimeout(Throwable error) {
+		for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+			if (e instanceof SQLTimeoutException || e instanceof SQLTransientConnectionException
+					|| e instanceof QueryTimeoutException || e instanceof jakarta.persistence.QueryTimeoutException
+					|| e instanceof org.hibernate.QueryTimeoutException) return true;
+			if (e instanceof SQLException sql && QUERY_CANCELED.equals(sql.getSQLState())) return true;
+		}
+		return false;
+	}
+
+	//Each repository call of an operation is a point where remaining work of expired request is dropped
+	@Before("execution(* org.tech.technnicaltask.repository.TaskRepository.*(..))")
+	public void checkDeadline() {
+		RequestDeadline.check();
+	}
+}
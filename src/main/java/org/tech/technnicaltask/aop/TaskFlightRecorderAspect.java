@@ -0,0 +1,168 @@
+package org.tech.technnicaltask.aop;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jdk.jfr.EventType;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.jfr.OperationTrace;
+import org.tech.technnicaltask.jfr.TaskOperationEvent;
+import org.tech.technnicaltask.jfr.TaskRequestEvent;
+import org.tech.technnicaltask.utils.Status;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Emits JFR events for task endpoints and TaskService calls: task id, status transition,
+ * database time vs. total time and rows touched. Events are enabled only while a flight recording is running,
+ * otherwise advices just proceed (TaskService calls are also traced when debug logging of this class is on).
+ * Runs inside circuit breaker and outside transaction, so commit time is included.
+ */
+@Component
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class TaskFlightRecorderAspect {
+
+	private static final EventType REQUEST = EventType.getEventType(TaskRequestEvent.class);
+
+	private static final EventType OPERATION = EventType.getEventType(TaskOperationEvent.class);
+
+	@Around("execution(public * org.tech.technnicaltask.controller.TaskRestControllerV1.*(..))")
+	public Object recordRequest(ProceedingJoinPoint jp) throws Throwable {
+		if (!REQUEST.isEnabled()) return jp.proceed();
+		TaskRequestEvent event = new TaskRequestEvent();
+		OperationTrace trace = OperationTrace.start();
+		event.begin();
+		Object result = null;
+		try {
+			result = jp.proceed();
+			return result;
+		} catch (Throwable e) {
+			event.error = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			event.end();
+			OperationTrace.end();
+			if (event.shouldCommit()) {
+				if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+					HttpServletRequest request = attributes.getRequest();
+					event.method = request.getMethod();
+					Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+					event.endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+				}
+				if (result instanceof ResponseEntity<?> response) {
+					event.responseStatus = response.getStatusCode().value();
+					result = response.getBody();
+				}
+				event.taskId = taskIdOf(jp.getArgs(), result);
+				fill(trace, result, (before, after) -> {
+					event.statusBefore = before;
+					event.statusAfter = after;
+				});
+				event.dbTime = trace.dbNanos();
+				event.rows = trace.rows();
+				event.commit();
+			}
+		}
+	}
+
+	//Replaces before/after logging of service methods: one event (and debug line) with the numbers of the call
+	@Around("execution(public * org.tech.technnicaltask.service.TaskService.*(..))")
+	public Object recordOperation(ProceedingJoinPoint jp) throws Throwable {
+		boolean logged = log.isDebugEnabled();
+		if (!OPERATION.isEnabled() && !logged) return jp.proceed();
+		TaskOperationEvent event = new TaskOperationEvent();
+		OperationTrace outer = OperationTrace.current();
+		OperationTrace trace = outer != null ? outer : OperationTrace.start();
+		long dbBefore = trace.dbNanos();
+		long rowsBefore = trace.rows();
+		long started = System.nanoTime();
+		event.begin();
+		Object result = null;
+		try {
+			result = jp.proceed();
+			return result;
+		} catch (Throwable e) {
+			event.error = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			event.end();
+			if (outer == null) OperationTrace.end();
+			event.operation = jp.getSignature().getName();
+			event.dbTime = trace.dbNanos() - dbBefore;
+			event.rows = trace.rows() - rowsBefore;
+			if (logged) {
+				log.debug("Method '{}' finished in {} us (db {} us, {} rows){}", event.operation,
+						(System.nanoTime() - started) / 1_000, event.dbTime / 1_000, event.rows,
+						event.error != null ? " with " + event.error : "");
+			}
+			if (event.shouldCommit()) {
+				event.taskId = taskIdOf(jp.getArgs(), result);
+				fill(trace, result, (before, after) -> {
+					event.statusBefore = before;
+					event.statusAfter = after;
+				});
+				event.commit();
+			}
+		}
+	}
+
+	//Database time and rows of repository calls made inside a traced operation
+	@Around("execution(* org.tech.technnicaltask.repository.TaskRepository.*(..))")
+	public Object measureRepository(ProceedingJoinPoint jp) throws Throwable {
+		if (OperationTrace.current() == null) return jp.proceed();
+		OperationTrace.dbStart();
+		try {
+			Object result = jp.proceed();
+			OperationTrace.addRows(rowsOf(result));
+			return result;
+		} finally {
+			OperationTrace.dbEnd();
+		}
+	}
+
+	@FunctionalInterface
+	private interface Transition {
+		void accept(String before, String after);
+	}
+
+	//Transition recorded by TaskService for changes, current status for reads
+	private static void fill(OperationTrace trace, Object result, Transition transition) {
+		if (trace.isStatusRecorded()) {
+			transition.accept(nameOf(trace.statusBefore()), nameOf(trace.statusAfter()));
+		} else if (result instanceof TaskDto task) {
+			transition.accept(nameOf(task.getStatus()), nameOf(task.getStatus()));
+		}
+	}
+
+	private static String taskIdOf(Object[] args, Object result) {
+		if (args.length > 0 && args[0] instanceof UUID id) return id.toString();
+		if (result instanceof TaskDto task && task.getId() != null) return task.getId().toString();
+		return null;
+	}
+
+	//delete() returns nothing and touches one row
+	private static long rowsOf(Object result) {
+		if (result == null) return 1;
+		if (result instanceof Collection<?> collection) return collection.size();
+		if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+		return result instanceof TaskEntity ? 1 : 0;
+	}
+
+	private static String nameOf(Status status) {
+		return status != null ? status.name() : null;
+	}
+}
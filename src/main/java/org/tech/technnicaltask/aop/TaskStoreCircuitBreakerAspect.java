@@ -0,0 +1,129 @@
+package org.tech.technnicaltask.aop;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.PersistenceException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.exceptions.ServiceUnavailableException;
+import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.resilience.CircuitBreaker;
+import org.tech.technnicaltask.resilience.LastKnownGoodTasks;
+
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Guards task storage with circuit breaker. Advice wraps TaskService methods and runs before transaction advice,
+ * because transaction takes DB connection before any TaskRepository call and stalls there first.
+ * Only storage errors are counted as failures, TaskNotFoundException and validation errors are normal outcomes.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class TaskStoreCircuitBreakerAspect {
+
+	public static final String STALE_HEADER = "X-Stale-Read";
+
+	private final CircuitBreaker breaker;
+
+	//null when stale reads are disabled
+	private final LastKnownGoodTasks lastKnownGood;
+
+	private final Counter staleReads;
+
+	public TaskStoreCircuitBreakerAspect(CircuitBreaker breaker, LastKnownGoodTasks lastKnownGood, MeterRegistry meterRegistry) {
+		this.breaker = breaker;
+		this.lastKnownGood = lastKnownGood;
+		this.staleReads = Counter.builder("tasks.circuitbreaker.stale.reads")
+				.description("Tasks served from last-known-good store while storage is unavailable")
+				.register(meterRegistry);
+	}
+
+	@Around("execution(public * org.tech.technnicaltask.service.TaskService.*(..))")
+	public Object guardTaskStore(ProceedingJoinPoint jp) throws Throwable {
+		String method = jp.getSignature().getName();
+		Object[] args = jp.getArgs();
+		long permission;
+		try {
+			permission = breaker.acquire();
+		} catch (ServiceUnavailableException e) {
+			return staleOrThrow(method, args, e);
+		}
+		long started = System.nanoTime();
+		boolean failed = false;
+		try {
+			Object result = jp.proceed();
+			remember(method, args, result);
+			return result;
+		} catch (Throwable e) {
+			if (!isStorageFailure(e)) {
+				if (e instanceof TaskNotFoundException) forget(args);
+				throw e;
+			}
+			failed = true;
+			return staleOrThrow(method, args, e);
+		} finally {
+			breaker.record(permission, System.nanoTime() - started, failed);
+		}
+	}
+
+	private void remember(String method, Object[] args, Object result) {
+		if (lastKnownGood == null || LastKnownGoodTasks.isSuspended()) return;
+		if (result instanceof TaskDto task) {
+			lastKnownGood.put(task);
+		} else if ("deleteById".equals(method)) {
+			forget(args);
+		}
+	}
+
+	private void forget(Object[] args) {
+		if (lastKnownGood != null && args.length > 0 && args[0] instanceof UUID id) {
+			lastKnownGood.remove(id);
+		}
+	}
+
+	//Only single task reads have a fallback, other calls fail with the original error
+	private Object staleOrThrow(String method, Object[] args, Throwable e) throws Throwable {
+		if (lastKnownGood != null && "getById".equals(method) && args[0] instanceof UUID id) {
+			LastKnownGoodTasks.Stale stale = lastKnownGood.get(id);
+			if (stale != null) {
+				log.warn("Task storage is unavailable ({}), serving Task {} from last-known-good store, age {} s",
+						e.getMessage(), id, stale.ageSeconds());
+				staleReads.increment();
+				markStale(stale.ageSeconds());
+				return stale.task();
+			}
+		}
+		throw e;
+	}
+
+	private static void markStale(long ageSeconds) {
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+			HttpServletResponse response = attributes.getResponse();
+			if (response != null) {
+				response.setHeader(STALE_HEADER, "true");
+				response.setHeader(HttpHeaders.AGE, String.valueOf(ageSeconds));
+			}
+		}
+	}
+
+	private static boolean isStorageFailure(Throwable e) {
+		return (e instanceof DataAccessException && !(e instanceof DataIntegrityViolationException))
+				|| e instanceof TransactionException
+				|| e instanceof PersistenceException
+				|| e instanceof UncheckedIOException;
+	}
+}
@@ -0,0 +1,121 @@
+package org.tech.technnicaltask.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Skips Liquibase when changelog files are the same as on last successful migration.
+ * Checksum of all changelog files is kept in schema_changelog_checksum table (created by changelog 007), so unchanged
+ * boot costs one query instead of taking Liquibase lock and parsing the whole changelog.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.liquibase", name = "skip-unchanged", havingValue = "true")
+public class ChangelogChecksumPostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+	private static final String CHANGELOG_PATTERN = "classpath*:db/**/*.yaml";
+
+	//Checksums of SpringLiquibase beans that run, by bean name, stored once the bean has migrated its database
+	private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+	//Liquibase disabled by spring.liquibase.enabled doesn't run, so there is nothing to check or to remember
+	private boolean liquibaseEnabled = true;
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		liquibaseEnabled = environment.getProperty("spring.liquibase.enabled", Boolean.class, true);
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+		if (bean instanceof SpringLiquibase liquibase && liquibaseEnabled) {
+			String checksum = computeChecksum();
+			if (checksum == null) return bean;
+			if (checksum.equals(readStoredChecksum(liquibase.getDataSource()))) {
+				log.info("Changelog checksum {} is already applied, skipping Liquibase {}", checksum, beanName);
+				liquibase.setShouldRun(false);
+			} else {
+				pending.put(beanName, checksum);
+			}
+		}
+		return bean;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		//Liquibase has run successfully (otherwise initialization would have failed), remembering its changelog
+		if (bean instanceof SpringLiquibase liquibase && liquibaseEnabled) {
+			String checksum = pending.remove(beanName);
+			if (checksum != null) storeChecksum(liquibase.getDataSource(), checksum);
+		}
+		return bean;
+	}
+
+	private String computeChecksum() {
+		try {
+			Resource[] resources = new PathMatchingResourcePatternResolver().getResources(CHANGELOG_PATTERN);
+			Arrays.sort(resources, Comparator.comparing(Resource::getFilename));
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (Resource resource : resources) {
+				digest.update(resource.getFilename().getBytes(StandardCharsets.UTF_8));
+				try (InputStream in = resource.getInputStream()) {
+					digest.update(in.readAllBytes());
+				}
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (IOException | NoSuchAlgorithmException e) {
+			log.warn("Failed to compute changelog checksum, Liquibase will run", e);
+			return null;
+		}
+	}
+
+	private String readStoredChecksum(DataSource dataSource) {
+		try (Connection connection = dataSource.getConnection();
+			 Statement statement = connection.createStatement();
+			 ResultSet rs = statement.executeQuery("SELECT checksum FROM schema_changelog_checksum WHERE id = 1")) {
+			return rs.next() ? rs.getString(1) : null;
+		} catch (SQLException e) {
+			log.debug("Stored changelog checksum is not available: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private void storeChecksum(DataSource dataSource, String checksum) {
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(true);
+			try (PreparedStatement upsert = connection.prepareStatement("INSERT INTO schema_changelog_checksum (id, checksum, updated_at) " +
+					"VALUES (1, ?, now()) ON CONFLICT (id) DO UPDATE SET checksum = EXCLUDED.checksum, updated_at = now()")) {
+				upsert.setString(1, checksum);
+				upsert.executeUpdate();
+			}
+			log.info("Stored changelog checksum {}", checksum);
+		} catch (SQLException e) {
+			log.warn("Failed to store changelog checksum, Liquibase will run on next start", e);
+		}
+	}
+}
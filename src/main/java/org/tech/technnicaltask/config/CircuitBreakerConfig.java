@@ -0,0 +1,27 @@
+package org.tech.technnicaltask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.tech.technnicaltask.aop.TaskStoreCircuitBreakerAspect;
+import org.tech.technnicaltask.resilience.CircuitBreaker;
+import org.tech.technnicaltask.resilience.CircuitBreakerProperties;
+import org.tech.technnicaltask.resilience.LastKnownGoodTasks;
+
+@Configuration
+@EnableConfigurationProperties(CircuitBreakerProperties.class)
+@ConditionalOnProperty(prefix = "app.circuit-breaker", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CircuitBreakerConfig {
+
+	@Bean
+	public TaskStoreCircuitBreakerAspect taskStoreCircuitBreakerAspect(CircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+		CircuitBreaker breaker = new CircuitBreaker("task-store", properties, meterRegistry, System::nanoTime);
+		CircuitBreakerProperties.StaleReads staleReads = properties.getStaleReads();
+		LastKnownGoodTasks lastKnownGood = staleReads.isEnabled()
+				? new LastKnownGoodTasks(staleReads.getCapacity(), staleReads.getMaxAge().toNanos(), System::nanoTime)
+				: null;
+		return new TaskStoreCircuitBreakerAspect(breaker, lastKnownGood, meterRegistry);
+	}
+}
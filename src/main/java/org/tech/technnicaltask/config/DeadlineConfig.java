@@ -0,0 +1,66 @@
+package org.tech.technnicaltask.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.tech.technnicaltask.aop.RequestDeadlineAspect;
+import org.tech.technnicaltask.deadline.DeadlineDataSource;
+import org.tech.technnicaltask.deadline.DeadlineFilter;
+import org.tech.technnicaltask.deadline.DeadlineProperties;
+
+import javax.sql.DataSource;
+
+/**
+ * Request deadlines of task API: DeadlineFilter sets the budget, RequestDeadlineAspect cancels expired work
+ * and application's DataSource turns the remaining budget into connection and statement timeouts.
+ * Pools of additional shards are wrapped by ShardingConfig, embedded store has no DataSource.
+ */
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+@ConditionalOnProperty(prefix = "app.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineConfig {
+
+	//Static, so post-processor is registered before DataSource is created
+	@Bean
+	public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource && !(bean instanceof DeadlineDataSource)) {
+					return new DeadlineDataSource(dataSource);
+				}
+				return bean;
+			}
+		};
+	}
+
+	//Runs after rate limiter, so rejected requests don't start a deadline, and before idempotency filter
+	@Bean
+	public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry,
+																 ObjectMapper objectMapper) {
+		FilterRegistrationBean<DeadlineFilter> registration =
+				new FilterRegistrationBean<>(new DeadlineFilter(properties, exceededCounter(meterRegistry), objectMapper));
+		registration.addUrlPatterns("/api/v1/tasks", "/api/v1/tasks/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+		return registration;
+	}
+
+	@Bean
+	public RequestDeadlineAspect requestDeadlineAspect(MeterRegistry meterRegistry) {
+		return new RequestDeadlineAspect(exceededCounter(meterRegistry));
+	}
+
+	//Shared by filter and aspect, registry returns the same meter
+	private static Counter exceededCounter(MeterRegistry meterRegistry) {
+		return Counter.builder("tasks.deadline.exceeded")
+				.description("Requests rejected or cancelled because their deadline has passed")
+				.register(meterRegistry);
+	}
+}
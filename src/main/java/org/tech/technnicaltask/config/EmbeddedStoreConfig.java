@@ -0,0 +1,32 @@
+package org.tech.technnicaltask.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.tech.technnicaltask.embedded.EmbeddedStoreProperties;
+import org.tech.technnicaltask.embedded.InMemoryTaskRepository;
+import org.tech.technnicaltask.importer.TaskChunkWriter;
+
+import java.io.IOException;
+
+/**
+ * "embedded" profile: tasks are kept in process memory with write-ahead log on local disk,
+ * DataSource, JPA and Liquibase auto-configurations are excluded in application-embedded.yml.
+ */
+@Configuration
+@Profile("embedded")
+@EnableConfigurationProperties(EmbeddedStoreProperties.class)
+public class EmbeddedStoreConfig {
+
+	@Bean
+	public InMemoryTaskRepository inMemoryTaskRepository(EmbeddedStoreProperties properties) throws IOException {
+		return new InMemoryTaskRepository(properties);
+	}
+
+	//Imported chunk is written to the log with one group commit
+	@Bean
+	public TaskChunkWriter embeddedTaskChunkWriter(InMemoryTaskRepository inMemoryTaskRepository) {
+		return inMemoryTaskRepository::saveAll;
+	}
+}
@@ -0,0 +1,49 @@
+package org.tech.technnicaltask.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Lazy initialization of fast-startup profile applies only where it is safe: beans of Spring Boot and libraries
+ * that nothing needs at startup (springdoc, unused message converters, actuator endpoints) are created on first use.
+ * Application beans and beans with @Scheduled methods are created during refresh, so scheduled jobs run without
+ * waiting for the first request and the CDS training run loads application classes.
+ */
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+	private static final String APPLICATION_PACKAGE = "org.tech.technnicaltask.";
+
+	//Static, so filter is available to the factory post-processor that marks beans lazy
+	@Bean
+	public static LazyInitializationExcludeFilter eagerApplicationBeans() {
+		return (beanName, definition, type) -> {
+			if (declaredByApplication(definition)) return true;
+			if (type == null) return false;
+			Class<?> userType = ClassUtils.getUserClass(type);
+			return userType.getName().startsWith(APPLICATION_PACKAGE) || hasScheduledMethods(userType);
+		};
+	}
+
+	//Beans of library types (JdbcTemplate, DataSource) created by @Bean methods of application configuration
+	private static boolean declaredByApplication(BeanDefinition definition) {
+		return definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null
+				&& annotated.getFactoryMethodMetadata().getDeclaringClassName().startsWith(APPLICATION_PACKAGE);
+	}
+
+	private static boolean hasScheduledMethods(Class<?> type) {
+		boolean[] scheduled = {false};
+		ReflectionUtils.doWithMethods(type, method -> scheduled[0] = true,
+				method -> !scheduled[0] && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+		return scheduled[0];
+	}
+}
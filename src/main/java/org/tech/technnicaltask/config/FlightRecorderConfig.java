@@ -0,0 +1,39 @@
+package org.tech.technnicaltask.config;
+
+import org.hibernate.cfg.SessionEventSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.tech.technnicaltask.jfr.FlightRecordingEndpoint;
+import org.tech.technnicaltask.jfr.FlightRecordingService;
+import org.tech.technnicaltask.jfr.JdbcTimeSessionListener;
+import org.tech.technnicaltask.jfr.ProfilingProperties;
+
+/**
+ * Task JFR events are recorded by any recording, including one started with jcmd JFR.start.
+ * The recordings actuator endpoint is enabled with app.profiling.enabled, it is served on the management port only.
+ */
+@Configuration
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class FlightRecorderConfig {
+
+	//Database time of events includes JDBC calls made by Hibernate outside repository methods (flush on commit)
+	@Bean
+	public HibernatePropertiesCustomizer jdbcTimeSessionListener() {
+		return properties -> properties.put(SessionEventSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimeSessionListener.class.getName());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "app.profiling", name = "enabled", havingValue = "true")
+	public FlightRecordingService flightRecordingService(ProfilingProperties properties) {
+		return new FlightRecordingService(properties);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "app.profiling", name = "enabled", havingValue = "true")
+	public FlightRecordingEndpoint flightRecordingEndpoint(FlightRecordingService recordingService) {
+		return new FlightRecordingEndpoint(recordingService);
+	}
+}
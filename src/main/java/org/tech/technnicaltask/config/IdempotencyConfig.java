@@ -0,0 +1,77 @@
+package org.tech.technnicaltask.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.deadline.DeadlineProperties;
+import org.tech.technnicaltask.idempotency.IdempotencyFilter;
+import org.tech.technnicaltask.idempotency.IdempotencyKeyRepository;
+import org.tech.technnicaltask.idempotency.IdempotencyKeyStore;
+import org.tech.technnicaltask.idempotency.IdempotencyProperties;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "app.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class IdempotencyConfig {
+
+	//Keys are kept only in memory when they are not shared or there is no DB (embedded profile)
+	@Bean
+	public IdempotencyKeyStore idempotencyKeyStore(IdempotencyProperties properties, ObjectProvider<JdbcTemplate> jdbcTemplate,
+												   ObjectProvider<DeadlineProperties> deadlineProperties) {
+		JdbcTemplate template = properties.isShared() ? jdbcTemplate.getIfAvailable() : null;
+		if (template == null) {
+			log.info("Idempotency keys are kept in memory of this node only");
+		} else {
+			coverLongestDeadline(properties, deadlineProperties.getIfAvailable());
+		}
+		return new IdempotencyKeyStore(properties, template != null ? new IdempotencyKeyRepository(template) : null, System::nanoTime);
+	}
+
+	//Runs after rate limiter, so retries are still counted by it, and after read-your-writes filter (+10),
+	//so a replayed write still sends following reads of the client to primary
+	@Bean
+	public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyKeyStore idempotencyKeyStore,
+																	   IdempotencyProperties properties,
+																	   ObjectMapper objectMapper,
+																	   MeterRegistry meterRegistry) {
+		FilterRegistrationBean<IdempotencyFilter> registration =
+				new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyKeyStore, properties, objectMapper, meterRegistry));
+		registration.addUrlPatterns("/api/v1/tasks", "/api/v1/tasks/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+		return registration;
+	}
+
+	//Lease shorter than a request would let another node execute the same key while the request is still running
+	private static void coverLongestDeadline(IdempotencyProperties properties, DeadlineProperties deadline) {
+		if (deadline == null) {
+			log.warn("Request deadlines are disabled, requests running longer than idempotency lease {} can be executed twice",
+					properties.getLease());
+			return;
+		}
+		Duration longest = deadline.getMaxTimeout().compareTo(deadline.getDefaultTimeout()) > 0 ? deadline.getMaxTimeout() : deadline.getDefaultTimeout();
+		boolean unbounded = deadline.getMaxTimeout().isZero() || deadline.getDefaultTimeout().isZero();
+		for (DeadlineProperties.Endpoint endpoint : deadline.getEndpoints()) {
+			if (endpoint.getTimeout().isZero()) unbounded = true;
+			if (endpoint.getTimeout().compareTo(longest) > 0) longest = endpoint.getTimeout();
+		}
+		if (unbounded) {
+			log.warn("Some requests have no deadline, those running longer than idempotency lease {} can be executed twice",
+					properties.getLease());
+		}
+		if (longest.compareTo(properties.getLease()) > 0) {
+			log.warn("Idempotency lease {} is shorter than request deadline {}, using the deadline", properties.getLease(), longest);
+			properties.setLease(longest);
+		}
+	}
+}
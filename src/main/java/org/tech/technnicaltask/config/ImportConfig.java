@@ -0,0 +1,10 @@
+package org.tech.technnicaltask.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.tech.technnicaltask.importer.ImportProperties;
+
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+}
@@ -0,0 +1,30 @@
+package org.tech.technnicaltask.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.tech.technnicaltask.ratelimit.RateLimitFilter;
+import org.tech.technnicaltask.ratelimit.RateLimitProperties;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+	//Filter is registered only for task API and runs before any other filter
+	@Bean
+	public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+																   MeterRegistry meterRegistry,
+																   ObjectMapper objectMapper) {
+		FilterRegistrationBean<RateLimitFilter> registration =
+				new FilterRegistrationBean<>(new RateLimitFilter(properties, meterRegistry, objectMapper));
+		registration.addUrlPatterns("/api/v1/tasks", "/api/v1/tasks/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+}
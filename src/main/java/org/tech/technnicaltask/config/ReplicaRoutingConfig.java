@@ -0,0 +1,102 @@
+package org.tech.technnicaltask.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.tech.technnicaltask.datasource.ReadYourWritesFilter;
+import org.tech.technnicaltask.datasource.ReplicaLoadBalancingDataSource;
+import org.tech.technnicaltask.datasource.ReplicaRoutingProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes connections of read-only transactions to replicas, all other connections go to primary.
+ * LazyConnectionDataSourceProxy defers getting real connection until transaction's read-only flag is known.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+	@Bean
+	@ConfigurationProperties(prefix = "spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	//Replica pools are closed by ReplicaLoadBalancingDataSource.close() on shutdown
+	@Bean
+	public ReplicaLoadBalancingDataSource replicaDataSource(HikariDataSource primaryDataSource, ReplicaRoutingProperties properties) {
+		List<ReplicaLoadBalancingDataSource.Replica> replicas = new ArrayList<>();
+		for (int i = 0; i < properties.getReplicas().size(); i++) {
+			ReplicaRoutingProperties.Replica config = properties.getReplicas().get(i);
+			HikariDataSource dataSource = new HikariDataSource();
+			dataSource.setPoolName("replica-" + i);
+			dataSource.setJdbcUrl(config.getUrl());
+			dataSource.setUsername(config.getUsername());
+			dataSource.setPassword(config.getPassword());
+			dataSource.setMaximumPoolSize(config.getMaximumPoolSize());
+			dataSource.setConnectionTimeout(config.getConnectionTimeout().toMillis());
+			dataSource.setReadOnly(true);
+			replicas.add(new ReplicaLoadBalancingDataSource.Replica(dataSource.getPoolName(), dataSource));
+		}
+		return new ReplicaLoadBalancingDataSource(primaryDataSource, replicas);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLoadBalancingDataSource replicaDataSource) {
+		LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+		proxy.setReadOnlyDataSource(replicaDataSource);
+		return proxy;
+	}
+
+	@Bean
+	public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaRoutingProperties properties) {
+		FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+				new ReadYourWritesFilter(properties.getReadYourWritesWindow(), properties.getClientSlots()));
+		registration.addUrlPatterns("/api/v1/tasks", "/api/v1/tasks/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+		return registration;
+	}
+
+	@Bean
+	public ReplicaHealthChecker replicaHealthChecker(ReplicaLoadBalancingDataSource replicaDataSource,
+													 ReplicaRoutingProperties properties,
+													 MeterRegistry meterRegistry) {
+		Gauge.builder("tasks.datasource.replicas.healthy", replicaDataSource, ReplicaLoadBalancingDataSource::healthyReplicaCount)
+				.description("Number of replicas that passed last health check")
+				.register(meterRegistry);
+		return new ReplicaHealthChecker(replicaDataSource, (int) Math.max(1, properties.getHealthCheckTimeout().toSeconds()));
+	}
+
+	public static class ReplicaHealthChecker {
+
+		private final ReplicaLoadBalancingDataSource replicaDataSource;
+
+		private final int timeoutSeconds;
+
+		public ReplicaHealthChecker(ReplicaLoadBalancingDataSource replicaDataSource, int timeoutSeconds) {
+			this.replicaDataSource = replicaDataSource;
+			this.timeoutSeconds = timeoutSeconds;
+		}
+
+		@Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval:5s}")
+		public void checkHealth() {
+			replicaDataSource.checkHealth(timeoutSeconds);
+		}
+	}
+}
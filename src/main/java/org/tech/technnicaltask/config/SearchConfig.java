@@ -0,0 +1,22 @@
+package org.tech.technnicaltask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.tech.technnicaltask.search.SearchProperties;
+import org.tech.technnicaltask.search.TaskSearchIndexer;
+import org.tech.technnicaltask.search.TaskSource;
+
+//Index is built from TaskSource: all shards when sharding is enabled, the in-memory store when there is no DataSource
+@Configuration
+@EnableConfigurationProperties(SearchProperties.class)
+@ConditionalOnProperty(prefix = "app.search", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SearchConfig {
+
+	@Bean
+	public TaskSearchIndexer taskSearchIndexer(SearchProperties properties, TaskSource taskSource, MeterRegistry meterRegistry) {
+		return new TaskSearchIndexer(properties, taskSource, meterRegistry);
+	}
+}
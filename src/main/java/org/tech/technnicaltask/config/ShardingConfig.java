@@ -0,0 +1,87 @@
+package org.tech.technnicaltask.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.deadline.DeadlineDataSource;
+import org.tech.technnicaltask.sharding.ShardAdminEndpoint;
+import org.tech.technnicaltask.sharding.ShardMap;
+import org.tech.technnicaltask.sharding.ShardRebalancer;
+import org.tech.technnicaltask.sharding.ShardRouter;
+import org.tech.technnicaltask.sharding.ShardedTaskRepository;
+import org.tech.technnicaltask.sharding.ShardingProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads tasks over spring.datasource (shard 0) and additional databases from app.sharding.shards.
+ * Schema of additional shards is migrated with the same changelog in "shard" context (without test data).
+ * ShardedTaskRepository replaces JPA repository in TaskService.
+ * Slot distribution and rebalancing are managed by the shards actuator endpoint on the management port only.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+	@Bean
+	@DependsOnDatabaseInitialization //slot map table is created by Liquibase
+	public ShardRouter shardRouter(DataSource dataSource, ShardingProperties properties, ResourceLoader resourceLoader,
+								   @Value("${spring.liquibase.change-log}") String changeLog,
+								   @Value("${spring.liquibase.enabled:true}") boolean migrate) throws LiquibaseException {
+		List<DataSource> shards = new ArrayList<>();
+		shards.add(dataSource);
+		for (int i = 0; i < properties.getShards().size(); i++) {
+			ShardingProperties.Shard config = properties.getShards().get(i);
+			HikariDataSource shard = new HikariDataSource();
+			shard.setPoolName("shard-" + (i + 1));
+			shard.setJdbcUrl(config.getUrl());
+			shard.setUsername(config.getUsername());
+			shard.setPassword(config.getPassword());
+			shard.setMaximumPoolSize(config.getMaximumPoolSize());
+			if (migrate) {
+				migrate(shard, changeLog, resourceLoader);
+			}
+			shards.add(new DeadlineDataSource(shard)); //request deadlines apply to all shards
+		}
+		ShardMap map = new ShardMap(new JdbcTemplate(dataSource), shards.size());
+		map.load();
+		return new ShardRouter(shards, map);
+	}
+
+	@Bean
+	@Primary
+	public ShardedTaskRepository shardedTaskRepository(ShardRouter shardRouter) {
+		return new ShardedTaskRepository(shardRouter);
+	}
+
+	@Bean
+	public ShardRebalancer shardRebalancer(ShardRouter shardRouter, ShardingProperties properties) {
+		return new ShardRebalancer(shardRouter, properties);
+	}
+
+	@Bean
+	public ShardAdminEndpoint shardAdminEndpoint(ShardRouter shardRouter, ShardRebalancer rebalancer) {
+		return new ShardAdminEndpoint(shardRouter, rebalancer);
+	}
+
+	private static void migrate(DataSource shard, String changeLog, ResourceLoader resourceLoader) throws LiquibaseException {
+		SpringLiquibase liquibase = new SpringLiquibase();
+		liquibase.setDataSource(shard);
+		liquibase.setChangeLog(changeLog);
+		liquibase.setContexts("shard");
+		liquibase.setResourceLoader(resourceLoader);
+		liquibase.afterPropertiesSet();
+	}
+}
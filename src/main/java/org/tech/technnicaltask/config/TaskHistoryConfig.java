@@ -0,0 +1,29 @@
+package org.tech.technnicaltask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.history.TaskHistoryBuffer;
+import org.tech.technnicaltask.history.TaskHistoryProperties;
+import org.tech.technnicaltask.history.TaskHistoryRepository;
+
+//History is written to the main database (shard 0 when sharding is enabled)
+@Configuration
+@EnableConfigurationProperties(TaskHistoryProperties.class)
+@ConditionalOnProperty(prefix = "app.history", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskHistoryConfig {
+
+	@Bean
+	public TaskHistoryRepository taskHistoryRepository(JdbcTemplate jdbcTemplate) {
+		return new TaskHistoryRepository(jdbcTemplate);
+	}
+
+	@Bean
+	public TaskHistoryBuffer taskHistoryBuffer(TaskHistoryRepository taskHistoryRepository,
+											   TaskHistoryProperties properties, MeterRegistry meterRegistry) {
+		return new TaskHistoryBuffer(taskHistoryRepository, properties, meterRegistry);
+	}
+}
@@ -0,0 +1,35 @@
+package org.tech.technnicaltask.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.tech.technnicaltask.repository.TaskRepository;
+import org.tech.technnicaltask.search.JdbcTaskSource;
+import org.tech.technnicaltask.search.RepositoryTaskSource;
+import org.tech.technnicaltask.search.TaskSource;
+import org.tech.technnicaltask.sharding.ShardRouter;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.IntStream;
+
+//Tasks are read from all shards when sharding is enabled, from the in-memory store when there is no DataSource
+@Configuration
+public class TaskSourceConfig {
+
+	@Bean
+	public TaskSource taskSource(ObjectProvider<ShardRouter> shardRouter, ObjectProvider<DataSource> dataSource,
+								 TaskRepository taskRepository, @Value("${app.search.scan-fetch-size:1000}") int fetchSize) {
+		ShardRouter router = shardRouter.getIfAvailable();
+		if (router != null) {
+			List<DataSource> shards = IntStream.range(0, router.shardCount()).mapToObj(router::dataSource).toList();
+			return new JdbcTaskSource(shards, router::shardOf, fetchSize);
+		}
+		DataSource database = dataSource.getIfAvailable();
+		if (database != null) {
+			return new JdbcTaskSource(List.of(database), null, fetchSize);
+		}
+		return new RepositoryTaskSource(taskRepository);
+	}
+}
@@ -0,0 +1,43 @@
+package org.tech.technnicaltask.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.tech.technnicaltask.search.TaskSearchIndexer;
+import org.tech.technnicaltask.search.TaskSource;
+import org.tech.technnicaltask.service.TaskSearchService;
+import org.tech.technnicaltask.service.TaskService;
+import org.tech.technnicaltask.sharding.ShardRouter;
+import org.tech.technnicaltask.warmup.TaskWarmUp;
+import org.tech.technnicaltask.warmup.WarmUpProperties;
+import org.tech.technnicaltask.writebehind.TaskWriteBehindBuffer;
+
+import javax.sql.DataSource;
+
+//Readiness probe (/actuator/health/readiness) reports ready only after warm-up
+@Configuration
+@EnableConfigurationProperties(WarmUpProperties.class)
+@ConditionalOnProperty(prefix = "app.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpConfig {
+
+	//Optional collaborators depend on enabled modules, warm-up skips what is absent
+	@Bean
+	public TaskWarmUp taskWarmUp(WarmUpProperties properties, TaskService taskService, TaskSource taskSource,
+								 ObjectMapper objectMapper, Validator validator, MeterRegistry meterRegistry,
+								 ObjectProvider<PlatformTransactionManager> transactionManager,
+								 ObjectProvider<EntityManagerFactory> entityManagerFactory, ObjectProvider<ShardRouter> shardRouter,
+								 ObjectProvider<TaskWriteBehindBuffer> writeBehindBuffer, ObjectProvider<DataSource> dataSource,
+								 ObjectProvider<TaskSearchIndexer> searchIndexer, ObjectProvider<TaskSearchService> searchService) {
+		return new TaskWarmUp(properties, taskService, taskSource, objectMapper, validator, meterRegistry,
+				transactionManager.getIfAvailable(), entityManagerFactory.getIfAvailable(), shardRouter.getIfAvailable(),
+				writeBehindBuffer.getIfAvailable(), dataSource.getIfAvailable(), searchIndexer.getIfAvailable(),
+				searchService.getIfAvailable());
+	}
+}
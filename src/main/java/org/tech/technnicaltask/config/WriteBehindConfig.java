@@ -0,0 +1,25 @@
+package org.tech.technnicaltask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.sharding.ShardRouter;
+import org.tech.technnicaltask.writebehind.TaskWriteBehindBuffer;
+import org.tech.technnicaltask.writebehind.WriteBehindProperties;
+
+//Opt-in: when enabled, TaskService.updateTask acknowledges updates into the buffer instead of writing them in its transaction
+@Configuration
+@EnableConfigurationProperties(WriteBehindProperties.class)
+@ConditionalOnProperty(prefix = "app.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+	@Bean
+	public TaskWriteBehindBuffer taskWriteBehindBuffer(JdbcTemplate jdbcTemplate, ObjectProvider<ShardRouter> shardRouter,
+													   WriteBehindProperties properties, MeterRegistry meterRegistry) {
+		return new TaskWriteBehindBuffer(jdbcTemplate, shardRouter.getIfAvailable(), properties, meterRegistry);
+	}
+}
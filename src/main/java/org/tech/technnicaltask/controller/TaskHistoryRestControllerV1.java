@@ -0,0 +1,32 @@
+package org.tech.technnicaltask.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.tech.technnicaltask.dto.TaskHistoryPageDto;
+import org.tech.technnicaltask.service.TaskHistoryService;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/tasks")
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.history", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskHistoryRestControllerV1 {
+
+	private final TaskHistoryService historyService;
+
+	//History of deleted tasks is kept too, unknown task has empty history. Next page is requested with nextCursor of the previous one
+	@GetMapping("/{id}/history")
+	public ResponseEntity<TaskHistoryPageDto> getHistory(@PathVariable UUID id,
+														 @RequestParam(required = false) String cursor,
+														 @RequestParam(defaultValue = "20") int size) {
+		return ResponseEntity
+				.status(HttpStatus.OK)
+				.body(historyService.getHistory(id, cursor, size));
+	}
+}
@@ -0,0 +1,55 @@
+package org.tech.technnicaltask.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.tech.technnicaltask.dto.ImportJobDto;
+import org.tech.technnicaltask.importer.ImportJob;
+import org.tech.technnicaltask.importer.TaskImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/tasks/import")
+@Slf4j
+@RequiredArgsConstructor
+public class TaskImportRestControllerV1 {
+
+	private final TaskImportService importService;
+
+	//Body is read as stream, so uploads of any size are not buffered in memory
+	@PostMapping()
+	public ResponseEntity<ImportJobDto> startImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+													InputStream body) throws IOException {
+		ImportJob job = importService.submit(contentType, body);
+		return ResponseEntity
+				.status(HttpStatus.ACCEPTED)
+				.header(HttpHeaders.LOCATION, "/api/v1/tasks/import/" + job.getId())
+				.body(ImportJobDto.from(job));
+	}
+
+	@GetMapping("/{jobId}")
+	public ResponseEntity<ImportJobDto> getImport(@PathVariable UUID jobId) {
+		return ResponseEntity
+				.status(HttpStatus.OK)
+				.body(ImportJobDto.from(importService.getJob(jobId)));
+	}
+
+	@GetMapping("/{jobId}/rejected")
+	public ResponseEntity<Resource> getRejectedRows(@PathVariable UUID jobId) {
+		return ResponseEntity
+				.status(HttpStatus.OK)
+				.contentType(new MediaType("text", "csv"))
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename("import-" + jobId + "-rejected.csv").build().toString())
+				.body(importService.getRejectedReport(jobId));
+	}
+}
@@ -0,0 +1,30 @@
+package org.tech.technnicaltask.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.tech.technnicaltask.dto.TaskSearchResultDto;
+import org.tech.technnicaltask.service.TaskSearchService;
+
+@RestController
+@RequestMapping("/api/v1/tasks")
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.search", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskSearchRestControllerV1 {
+
+	private final TaskSearchService searchService;
+
+	//Words of q are matched against title and description, words of 2+ characters also as prefixes
+	@GetMapping("/search")
+	public ResponseEntity<TaskSearchResultDto> search(@RequestParam String q,
+													  @RequestParam(required = false) String status,
+													  @RequestParam(defaultValue = "20") int limit) {
+		return ResponseEntity
+				.status(HttpStatus.OK)
+				.body(searchService.search(q, status, limit));
+	}
+}
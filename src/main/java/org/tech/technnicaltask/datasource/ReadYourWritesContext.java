@@ -0,0 +1,22 @@
+package org.tech.technnicaltask.datasource;
+
+//Holds flag for current thread, that tells routing to read from primary (client has recently written data)
+public final class ReadYourWritesContext {
+
+	private static final ThreadLocal<Boolean> STICK_TO_PRIMARY = new ThreadLocal<>();
+
+	private ReadYourWritesContext() {
+	}
+
+	public static void stickToPrimary() {
+		STICK_TO_PRIMARY.set(Boolean.TRUE);
+	}
+
+	public static boolean isStickToPrimary() {
+		return STICK_TO_PRIMARY.get() != null;
+	}
+
+	public static void clear() {
+		STICK_TO_PRIMARY.remove();
+	}
+}
@@ -0,0 +1,51 @@
+package org.tech.technnicaltask.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.tech.technnicaltask.utils.ClientKeys;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers when every client wrote last time and makes its reads go to primary during configured window.
+ * Clients are hashed onto fixed number of slots, collisions only send some extra reads to primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+	private final AtomicLongArray lastWriteNanos;
+
+	private final long windowNanos;
+
+	public ReadYourWritesFilter(Duration window, int clientSlots) {
+		this.lastWriteNanos = new AtomicLongArray(Math.max(1, clientSlots));
+		this.windowNanos = window.toNanos();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		int slot = Math.floorMod(ClientKeys.resolve(request).hashCode(), lastWriteNanos.length());
+		boolean write = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+		long lastWrite = lastWriteNanos.get(slot);
+		if (write || (lastWrite != 0 && System.nanoTime() - lastWrite < windowNanos)) {
+			ReadYourWritesContext.stickToPrimary();
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ReadYourWritesContext.clear();
+			if (write) {
+				lastWriteNanos.set(slot, System.nanoTime());
+			}
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return windowNanos <= 0;
+	}
+}
@@ -0,0 +1,116 @@
+package org.tech.technnicaltask.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource for read-only connections. Connections are taken from healthy replicas in round-robin order.
+ * Falls back to primary when no replica is healthy or when current thread must read its own writes.
+ */
+@Slf4j
+public class ReplicaLoadBalancingDataSource extends AbstractDataSource implements AutoCloseable {
+
+	private final DataSource primary;
+
+	private final List<Replica> replicas;
+
+	private final AtomicInteger next = new AtomicInteger();
+
+	public ReplicaLoadBalancingDataSource(DataSource primary, List<Replica> replicas) {
+		this.primary = primary;
+		this.replicas = List.copyOf(replicas);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return getConnection(DataSource::getConnection);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getConnection(dataSource -> dataSource.getConnection(username, password));
+	}
+
+	@FunctionalInterface
+	private interface ConnectionSupplier {
+		Connection get(DataSource dataSource) throws SQLException;
+	}
+
+	private Connection getConnection(ConnectionSupplier supplier) throws SQLException {
+		if (ReadYourWritesContext.isStickToPrimary()) {
+			return supplier.get(primary);
+		}
+		int size = replicas.size();
+		int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+		for (int i = 0; i < size; i++) {
+			Replica replica = replicas.get((start + i) % size);
+			if (!replica.healthy) continue;
+			try {
+				return supplier.get(replica.dataSource);
+			} catch (SQLException e) {
+				replica.markHealthy(false);
+				log.warn("Failed to get connection from replica '{}', trying next one: {}", replica.name, e.getMessage());
+			}
+		}
+		log.debug("No healthy replica available, reading from primary");
+		return supplier.get(primary);
+	}
+
+	//Validates connection to every replica and updates its health flag
+	public void checkHealth(int timeoutSeconds) {
+		for (Replica replica : replicas) {
+			boolean valid;
+			try (Connection connection = replica.dataSource.getConnection()) {
+				valid = connection.isValid(timeoutSeconds);
+			} catch (SQLException e) {
+				valid = false;
+			}
+			replica.markHealthy(valid);
+		}
+	}
+
+	//Closes replica pools, primary is closed as a bean of its own
+	@Override
+	public void close() {
+		for (Replica replica : replicas) {
+			if (replica.dataSource instanceof AutoCloseable pool) {
+				try {
+					pool.close();
+				} catch (Exception e) {
+					log.warn("Failed to close pool of replica '{}': {}", replica.name, e.getMessage());
+				}
+			}
+		}
+	}
+
+	public int healthyReplicaCount() {
+		return (int) replicas.stream().filter(replica -> replica.healthy).count();
+	}
+
+	public static class Replica {
+
+		private final String name;
+
+		private final DataSource dataSource;
+
+		private volatile boolean healthy = true;
+
+		public Replica(String name, DataSource dataSource) {
+			this.name = name;
+			this.dataSource = dataSource;
+		}
+
+		private void markHealthy(boolean healthy) {
+			if (this.healthy != healthy) {
+				log.info("Replica '{}' is now {}", name, healthy ? "healthy" : "unhealthy");
+			}
+			this.healthy = healthy;
+		}
+	}
+}
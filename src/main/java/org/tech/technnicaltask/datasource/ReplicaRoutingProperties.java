@@ -0,0 +1,37 @@
+package org.tech.technnicaltask.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+	private boolean enabled = false;
+
+	private List<Replica> replicas = new ArrayList<>();
+
+	private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+	private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+	//After client's write, its reads go to primary during this window. Zero disables read-your-writes
+	private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+	//Number of slots for tracking client's last write time (client keys are hashed onto these slots)
+	private int clientSlots = 4096;
+
+	@Data
+	public static class Replica {
+		private String url;
+		private String username;
+		private String password;
+		private int maximumPoolSize = 10;
+		//Short, so a read fails over from a dead replica quickly instead of waiting Hikari's default 30s
+		private Duration connectionTimeout = Duration.ofSeconds(1);
+	}
+}
@@ -0,0 +1,85 @@
+package org.tech.technnicaltask.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.postgresql.jdbc.PgStatement;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+/**
+ * Applies remaining budget of RequestDeadline to connections taken by the request: connection is taken from Hikari pool
+ * with the remaining time as timeout and every statement created on it gets the remaining time as query timeout
+ * (in milliseconds with PostgreSQL driver, rounded up to seconds with others), so a slow query or lock wait
+ * is cancelled by the database when the client stops waiting. Without deadline connections are returned as they are.
+ */
+public class DeadlineDataSource extends DelegatingDataSource implements Closeable {
+
+	public DeadlineDataSource(DataSource target) {
+		super(target);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		RequestDeadline deadline = RequestDeadline.current();
+		if (deadline == null) return obtainTargetDataSource().getConnection();
+		if (deadline.isExpired()) throw timeout(deadline);
+		Connection connection = acquire(deadline);
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "equals":
+							return proxy == args[0];
+						case "hashCode":
+							return System.identityHashCode(proxy);
+					}
+					Object result;
+					try {
+						result = method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+					if (result instanceof Statement statement) applyTimeout(statement, deadline);
+					return result;
+				});
+	}
+
+	//Pool of LazyConnectionDataSourceProxy (replica routing) is chosen later, it waits up to pool's own connection timeout
+	private Connection acquire(RequestDeadline deadline) throws SQLException {
+		if (obtainTargetDataSource() instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() instanceof HikariPool pool) {
+			return pool.getConnection(Math.min(deadline.remainingMillis(), hikari.getConnectionTimeout()));
+		}
+		return obtainTargetDataSource().getConnection();
+	}
+
+	private static void applyTimeout(Statement statement, RequestDeadline deadline) throws SQLException {
+		long millis = deadline.remainingMillis();
+		if (millis <= 0) {
+			statement.close();
+			throw timeout(deadline);
+		}
+		if (statement.isWrapperFor(PgStatement.class)) {
+			statement.unwrap(PgStatement.class).setQueryTimeoutMs(millis);
+		} else {
+			statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, (millis + 999) / 1000));
+		}
+	}
+
+	private static SQLTimeoutException timeout(RequestDeadline deadline) {
+		return new SQLTimeoutException(ErrorCode.DEADLINE_EXCEEDED.getFormattedMessage(deadline.getBudgetMillis()));
+	}
+
+	//Bean's destroy method closes the pool behind this wrapper
+	@Override
+	public void close() {
+		if (obtainTargetDataSource() instanceof HikariDataSource hikari) hikari.close();
+	}
+}
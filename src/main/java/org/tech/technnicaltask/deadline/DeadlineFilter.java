@@ -0,0 +1,122 @@
+package org.tech.technnicaltask.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.tech.technnicaltask.dto.ExceptionResponseDto;
+import org.tech.technnicaltask.exceptions.DeadlineExceededException;
+import org.tech.technnicaltask.utils.ClientKeys;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Starts RequestDeadline of the request: budget from the client's header (capped by max-timeout)
+ * or the default of matching endpoint. Requests that arrive with no budget left are rejected with 504
+ * before they reach controller or DB.
+ */
+@Slf4j
+public class DeadlineFilter extends OncePerRequestFilter {
+
+	private final String header;
+
+	private final long defaultNanos;
+
+	private final long maxNanos;
+
+	private final List<EndpointTimeout> endpoints;
+
+	private final Counter exceeded;
+
+	private final ObjectMapper objectMapper;
+
+	public DeadlineFilter(DeadlineProperties properties, Counter exceeded, ObjectMapper objectMapper) {
+		this.header = properties.getHeader();
+		this.defaultNanos = properties.getDefaultTimeout().toNanos();
+		this.maxNanos = properties.getMaxTimeout().toNanos();
+		this.endpoints = properties.getEndpoints().stream()
+				.map(endpoint -> new EndpointTimeout(endpoint.getMethod() == null || endpoint.getMethod().isBlank() ? null : endpoint.getMethod(),
+						PathPatternParser.defaultInstance.parse(endpoint.getPath()), endpoint.getTimeout().toNanos()))
+				.toList();
+		this.exceeded = exceeded;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		String requested = request.getHeader(header);
+		long budgetNanos;
+		if (requested != null) {
+			Duration timeout = parse(requested);
+			if (timeout == null) {
+				reject(request, response, HttpStatus.BAD_REQUEST, "BadRequestException",
+						ErrorCode.INVALID_REQUEST_TIMEOUT.getFormattedMessage(header, requested));
+				return;
+			}
+			budgetNanos = maxNanos > 0 ? Math.min(timeout.toNanos(), maxNanos) : timeout.toNanos();
+			if (budgetNanos <= 0) {
+				exceeded.increment();
+				reject(request, response, HttpStatus.GATEWAY_TIMEOUT, DeadlineExceededException.class.getSimpleName(),
+						ErrorCode.DEADLINE_EXCEEDED.getFormattedMessage(0));
+				return;
+			}
+		} else {
+			budgetNanos = defaultFor(request);
+			if (budgetNanos <= 0) {
+				filterChain.doFilter(request, response);
+				return;
+			}
+		}
+		RequestDeadline.start(budgetNanos);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			RequestDeadline.clear();
+		}
+	}
+
+	private long defaultFor(HttpServletRequest request) {
+		if (endpoints.isEmpty()) return defaultNanos;
+		PathContainer path = PathContainer.parsePath(request.getRequestURI());
+		for (EndpointTimeout endpoint : endpoints) {
+			if ((endpoint.method == null || endpoint.method.equalsIgnoreCase(request.getMethod())) && endpoint.path.matches(path)) {
+				return endpoint.timeoutNanos;
+			}
+		}
+		return defaultNanos;
+	}
+
+	//Negative budget is treated as already expired, like zero
+	private static Duration parse(String value) {
+		try {
+			return DurationStyle.detectAndParse(value.trim());
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String error, String message) throws IOException {
+		log.warn("{} (client={}, uri={})", message, ClientKeys.resolve(request), request.getRequestURI());
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), new ExceptionResponseDto(
+				status.value(), error, message, LocalDateTime.now(), request.getRequestURI()));
+	}
+
+	private record EndpointTimeout(String method, PathPattern path, long timeoutNanos) {
+	}
+}
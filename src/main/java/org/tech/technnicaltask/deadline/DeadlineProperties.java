@@ -0,0 +1,36 @@
+package org.tech.technnicaltask.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.deadline")
+public class DeadlineProperties {
+
+	private boolean enabled = true;
+
+	//Header with time budget of the client: 500ms, 2s, PT2S or number of milliseconds
+	private String header = "X-Request-Timeout";
+
+	//Budget of requests without header that match no endpoint below, 0: no deadline
+	private Duration defaultTimeout = Duration.ofSeconds(30);
+
+	//Budget sent in header is capped by this value, 0: not capped
+	private Duration maxTimeout = Duration.ofSeconds(60);
+
+	//Budgets of requests without header, first matching endpoint is used
+	private List<Endpoint> endpoints = new ArrayList<>();
+
+	@Data
+	public static class Endpoint {
+		//HTTP method, empty: any method
+		private String method;
+		//Path pattern, e.g. /api/v1/tasks/{id}
+		private String path;
+		private Duration timeout;
+	}
+}
@@ -0,0 +1,64 @@
+package org.tech.technnicaltask.deadline;
+
+import org.tech.technnicaltask.exceptions.DeadlineExceededException;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+/**
+ * Time budget of the request running on current thread, set by DeadlineFilter.
+ * Without a deadline every static method is a single ThreadLocal read.
+ */
+public final class RequestDeadline {
+
+	private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+	private final long expiresAtNanos;
+
+	private final long budgetMillis;
+
+	private RequestDeadline(long budgetNanos) {
+		this.expiresAtNanos = System.nanoTime() + budgetNanos;
+		this.budgetMillis = budgetNanos / 1_000_000;
+	}
+
+	public static RequestDeadline current() {
+		return CURRENT.get();
+	}
+
+	//Must be closed by the same caller with clear()
+	public static RequestDeadline start(long budgetNanos) {
+		RequestDeadline deadline = new RequestDeadline(budgetNanos);
+		CURRENT.set(deadline);
+		return deadline;
+	}
+
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	//Throws DeadlineExceededException when the request has no time left
+	public static void check() {
+		RequestDeadline deadline = CURRENT.get();
+		if (deadline != null && deadline.isExpired()) throw deadline.exceeded(null);
+	}
+
+	public long remainingNanos() {
+		return expiresAtNanos - System.nanoTime();
+	}
+
+	//Rounded up, so the last fraction of millisecond is still a usable timeout
+	public long remainingMillis() {
+		return (remainingNanos() + 999_999) / 1_000_000;
+	}
+
+	public boolean isExpired() {
+		return remainingNanos() <= 0;
+	}
+
+	public long getBudgetMillis() {
+		return budgetMillis;
+	}
+
+	public DeadlineExceededException exceeded(Throwable cause) {
+		return new DeadlineExceededException(ErrorCode.DEADLINE_EXCEEDED.getFormattedMessage(budgetMillis), cause);
+	}
+}
@@ -0,0 +1,19 @@
+package org.tech.technnicaltask.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.tech.technnicaltask.importer.ImportFormat;
+import org.tech.technnicaltask.importer.ImportJob;
+import org.tech.technnicaltask.importer.ImportStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportJobDto(UUID id, ImportFormat format, ImportStatus status, long rowsRead, long rowsImported,
+						   long rowsRejected, LocalDateTime createdAt, LocalDateTime finishedAt, String error) {
+
+	public static ImportJobDto from(ImportJob job) {
+		return new ImportJobDto(job.getId(), job.getFormat(), job.getStatus(), job.getRowsRead().get(),
+				job.getRowsImported().get(), job.getRowsRejected().get(), job.getCreatedAt(), job.getFinishedAt(), job.getError());
+	}
+}
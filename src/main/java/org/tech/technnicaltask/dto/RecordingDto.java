@@ -0,0 +1,24 @@
+package org.tech.technnicaltask.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jdk.jfr.Recording;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+//Recording file can be downloaded when state is STOPPED. For running recording stoppedAt is the planned stop time
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecordingDto(long id, String name, String state, LocalDateTime startedAt, LocalDateTime stoppedAt,
+						   long durationSeconds, long maxSizeBytes) {
+
+	public static RecordingDto from(Recording recording) {
+		return new RecordingDto(recording.getId(), recording.getName(), recording.getState().name(),
+				toLocalDateTime(recording.getStartTime()), toLocalDateTime(recording.getStopTime()),
+				recording.getDuration() != null ? recording.getDuration().toSeconds() : 0, recording.getMaxSize());
+	}
+
+	private static LocalDateTime toLocalDateTime(Instant instant) {
+		return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+	}
+}
@@ -0,0 +1,16 @@
+package org.tech.technnicaltask.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.tech.technnicaltask.sharding.ShardRebalancer;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ShardStatusDto(int shards, int[] slotsPerShard, boolean rebalancing, String lastRebalance,
+							 List<ShardRebalancer.Move> pendingMoves) {
+
+	public static ShardStatusDto from(ShardRebalancer rebalancer, int[] distribution) {
+		return new ShardStatusDto(distribution.length, distribution, rebalancer.isRunning(), rebalancer.getLastResult(),
+				rebalancer.plan());
+	}
+}
@@ -1,18 +1,25 @@
 package org.tech.technnicaltask.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import jakarta.validation.constraints.*;
 import lombok.NoArgsConstructor;
+import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.utils.UuidDeserializer;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class TaskDto {
 
 	//This field can be null
+	@JsonDeserialize(using = UuidDeserializer.class)
 	private UUID id;
 
 	@NotBlank(message = "title can't be null or empty")
@@ -22,8 +29,9 @@ public class TaskDto {
 	//This field can be null
 	private String description;
 
+	//Parsed once (case-insensitively) by StatusDeserializer
 	@NotNull(message = "status is required")
-	private String status;
+	private Status status;
 
 	//This field can be null
 	private LocalDateTime createdAt;
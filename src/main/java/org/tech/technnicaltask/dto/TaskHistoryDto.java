@@ -0,0 +1,50 @@
+package org.tech.technnicaltask.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.tech.technnicaltask.history.TaskChange;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class TaskHistoryDto {
+
+	private UUID taskId;
+
+	//CREATE, UPDATE or DELETE
+	private String changeType;
+
+	//Old values are null for CREATE
+	private String oldTitle;
+
+	private String oldDescription;
+
+	private String oldStatus;
+
+	//New values are null for DELETE
+	private String newTitle;
+
+	private String newDescription;
+
+	private String newStatus;
+
+	private LocalDateTime changedAt;
+
+	public static TaskHistoryDto from(TaskChange change) {
+		TaskChange.Values before = change.before();
+		TaskChange.Values after = change.after();
+		return TaskHistoryDto.builder()
+				.taskId(change.taskId())
+				.changeType(change.type().name())
+				.oldTitle(before != null ? before.title() : null)
+				.oldDescription(before != null ? before.description() : null)
+				.oldStatus(before != null && before.status() != null ? before.status().name() : null)
+				.newTitle(after != null ? after.title() : null)
+				.newDescription(after != null ? after.description() : null)
+				.newStatus(after != null && after.status() != null ? after.status().name() : null)
+				.changedAt(change.changedAt())
+				.build();
+	}
+}
@@ -0,0 +1,7 @@
+package org.tech.technnicaltask.dto;
+
+import java.util.List;
+
+//One page of task history, newest changes first. nextCursor is null on the last page
+public record TaskHistoryPageDto(List<TaskHistoryDto> items, int size, String nextCursor) {
+}
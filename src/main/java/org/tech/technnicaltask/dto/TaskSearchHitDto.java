@@ -0,0 +1,9 @@
+package org.tech.technnicaltask.dto;
+
+import org.tech.technnicaltask.utils.Status;
+
+import java.util.UUID;
+
+//Found task, higher score means better match
+public record TaskSearchHitDto(UUID id, String title, Status status, double score) {
+}
@@ -0,0 +1,7 @@
+package org.tech.technnicaltask.dto;
+
+import java.util.List;
+
+//Best matches first, at most limit hits
+public record TaskSearchResultDto(String query, List<TaskSearchHitDto> hits) {
+}
@@ -1,18 +1,18 @@
 package org.tech.technnicaltask.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.validation.NullOrNotBlank;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record TaskUpdateDto(
-		@Pattern(regexp = "^(?!\\s*$).+$", message = "title can't empty")
+		@NullOrNotBlank(message = "title can't empty")
 		@Size(max = 100)
 		String title,
 		String description,
-		String status) {
+		//Parsed case-insensitively by StatusDeserializer
+		Status status) {
 	@Override
 	public String title() {
 		return title;
@@ -24,7 +24,7 @@ public record TaskUpdateDto(
 	}
 
 	@Override
-	public String status() {
+	public Status status() {
 		return status;
 	}
 }
@@ -0,0 +1,29 @@
+package org.tech.technnicaltask.embedded;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.embedded")
+public class EmbeddedStoreProperties {
+
+	//Directory for log segments and snapshots
+	private Path directory = Path.of("data", "embedded");
+
+	private DataSize walSegmentSize = DataSize.ofMegabytes(64);
+
+	//false: writes are acknowledged before they are forced to disk (survive process crash, but not power loss)
+	private boolean fsync = true;
+
+	//Extra wait before forcing the log, lets more concurrent writes share one fsync
+	private Duration groupCommitDelay = Duration.ZERO;
+
+	//Snapshot is written when log has new records, older segments are deleted after it
+	private Duration snapshotInterval = Duration.ofMinutes(5);
+
+	private int initialCapacity = 1024;
+}
@@ -0,0 +1,224 @@
+package org.tech.technnicaltask.embedded;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.repository.TaskRepository;
+import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.utils.UuidV7Generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * TaskRepository for single-node deployments without PostgreSQL. Tasks are kept in TaskTable,
+ * every change is appended to write-ahead log before it is acknowledged.
+ * On start the newest snapshot is loaded and log segments written after it are replayed.
+ */
+@Slf4j
+public class InMemoryTaskRepository implements TaskRepository, AutoCloseable {
+
+	private final EmbeddedStoreProperties properties;
+
+	private final Path directory;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final TaskTable table;
+
+	private final WriteAheadLog wal;
+
+	private final ScheduledExecutorService snapshotter = Executors.newSingleThreadScheduledExecutor(
+			runnable -> new Thread(runnable, "task-store-snapshot"));
+
+	//Log position at the last snapshot, snapshot is skipped when nothing was written since
+	private long snapshotPosition;
+
+	private long position;
+
+	public InMemoryTaskRepository(EmbeddedStoreProperties properties) throws IOException {
+		this.properties = properties;
+		this.directory = properties.getDirectory();
+		Files.createDirectories(directory);
+		long started = System.nanoTime();
+		SnapshotFile.Loaded snapshot = SnapshotFile.loadLatest(directory, properties.getInitialCapacity());
+		long firstSegment = snapshot != null ? snapshot.segmentSeq() : 0;
+		this.table = snapshot != null ? snapshot.table() : new TaskTable(properties.getInitialCapacity());
+		long nextSegment = firstSegment;
+		int replayed = 0;
+		WalCodec.Visitor visitor = WalCodec.applyTo(table);
+		for (long seq : WriteAheadLog.segments(directory)) {
+			if (seq < firstSegment) continue;
+			replayed += WriteAheadLog.replay(directory, seq, record -> WalCodec.decode(record, visitor));
+			nextSegment = seq + 1;
+		}
+		//new segment after recovery, so torn tail of the last one is never appended to
+		this.wal = new WriteAheadLog(directory, nextSegment, (int) properties.getWalSegmentSize().toBytes(),
+				properties.isFsync(), properties.getGroupCommitDelay());
+		if (replayed > 0) snapshotPosition = -1; //compacting replayed log with the first snapshot
+		log.info("Embedded task store recovered in {} ms: {} tasks, snapshot {}, {} log records replayed",
+				(System.nanoTime() - started) / 1_000_000, table.size(), snapshot != null ? snapshot.segmentSeq() : "none", replayed);
+		long interval = Math.max(1, properties.getSnapshotInterval().toMillis());
+		snapshotter.scheduleWithFixedDelay(this::snapshotSafely, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	//Unknown and null ids are not found, so TaskService answers both with TaskNotFoundException
+	@Override
+	public Optional<TaskEntity> findById(UUID id) {
+		if (id == null) return Optional.empty();
+		lock.readLock().lock();
+		try {
+			return Optional.ofNullable(table.get(id));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<TaskEntity> findAll() {
+		lock.readLock().lock();
+		try {
+			return table.findAll();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public List<TaskEntity> findAllByStatus(Status status) {
+		lock.readLock().lock();
+		try {
+			return table.findByStatus(status);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public List<TaskEntity> findAllUpdatedSince(LocalDateTime since) {
+		lock.readLock().lock();
+		try {
+			return table.findUpdatedSince(since);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	//Timestamps are set the same way as Hibernate does with @CreationTimestamp and @UpdateTimestamp
+	//(with microsecond precision, which is kept in the log like in PostgreSQL)
+	@Override
+	public TaskEntity save(TaskEntity entity) {
+		saveAll(List.of(entity));
+		return entity;
+	}
+
+	//All tasks are written with one group commit. Returns number of saved tasks
+	public long saveAll(List<TaskEntity> entities) {
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+		long end;
+		lock.writeLock().lock();
+		try {
+			for (TaskEntity entity : entities) {
+				if (entity.getId() == null) {
+					entity.setId(UuidV7Generator.generate());
+				}
+				if (entity.getCreatedAt() == null) {
+					entity.setCreatedAt(now);
+				}
+				entity.setUpdatedAt(now);
+				position = wal.append(WalCodec.encodePut(entity));
+				table.put(entity);
+			}
+			end = position;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		awaitDurable(end);
+		return entities.size();
+	}
+
+	@Override
+	public void delete(TaskEntity entity) {
+		long end;
+		lock.writeLock().lock();
+		try {
+			if (!table.remove(entity.getId())) return;
+			end = position = wal.append(WalCodec.encodeDelete(entity.getId()));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		awaitDurable(end);
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return table.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	//Rows are copied under lock together with log rotation, file is written without blocking writers
+	public synchronized void snapshot() throws IOException {
+		long segment;
+		long snapshotAt;
+		TaskTable.Rows rows;
+		lock.writeLock().lock();
+		try {
+			if (position == snapshotPosition) return;
+			snapshotAt = position;
+			segment = wal.rotate();
+			rows = table.copyRows();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		SnapshotFile.write(directory, segment, rows);
+		WriteAheadLog.deleteSegmentsBefore(directory, segment);
+		SnapshotFile.deleteOlderThan(directory, segment);
+		snapshotPosition = snapshotAt;
+	}
+
+	@PreDestroy
+	@Override
+	public void close() throws IOException {
+		snapshotter.shutdown();
+		try {
+			snapshotter.awaitTermination(properties.getSnapshotInterval().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		snapshot();
+		wal.close();
+		log.info("Embedded task store closed with {} tasks", table.size());
+	}
+
+	private void awaitDurable(long end) {
+		try {
+			wal.awaitDurable(end);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void snapshotSafely() {
+		try {
+			snapshot();
+		} catch (IOException | RuntimeException e) {
+			log.error("Failed to write snapshot of embedded task store, log is kept", e);
+		}
+	}
+}
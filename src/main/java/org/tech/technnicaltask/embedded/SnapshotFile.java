@@ -0,0 +1,127 @@
+package org.tech.technnicaltask.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+import org.tech.technnicaltask.entity.TaskEntity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot of all tasks. snapshot-N.snap contains state made by log segments before N,
+ * so recovery loads the newest valid snapshot and replays segments from N.
+ * Format: magic, row count, rows (length + put record), CRC32C of everything before it.
+ */
+@Slf4j
+final class SnapshotFile {
+
+	private static final int MAGIC = 0x54534E31; //"TSN1"
+
+	private static final Pattern NAME = Pattern.compile("snapshot-(\\d{16})\\.snap");
+
+	private SnapshotFile() {
+	}
+
+	static void write(Path directory, long segmentSeq, TaskTable.Rows rows) throws IOException {
+		Path temp = directory.resolve("snapshot.tmp");
+		int count = 0;
+		for (int row = 0; row < rows.count(); row++) {
+			if (rows.statuses()[row] >= 0) count++;
+		}
+		CRC32C crc = new CRC32C();
+		try (OutputStream file = Files.newOutputStream(temp);
+			 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(count);
+			for (int row = 0; row < rows.count(); row++) {
+				TaskEntity task = rows.toEntity(row);
+				if (task == null) continue;
+				byte[] record = WalCodec.encodePut(task);
+				out.writeInt(record.length);
+				out.write(record);
+			}
+			out.flush();
+			out.writeInt((int) crc.getValue());
+		}
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+		Files.move(temp, path(directory, segmentSeq), StandardCopyOption.ATOMIC_MOVE);
+		log.info("Snapshot of {} tasks written, log segments before {} are not needed anymore", count, segmentSeq);
+	}
+
+	record Loaded(long segmentSeq, TaskTable table) {
+	}
+
+	//Loads the newest valid snapshot into new table, returns null if there is no valid snapshot
+	static Loaded loadLatest(Path directory, int initialCapacity) throws IOException {
+		List<Long> snapshots = snapshots(directory);
+		for (int i = snapshots.size() - 1; i >= 0; i--) {
+			long seq = snapshots.get(i);
+			try {
+				return new Loaded(seq, load(path(directory, seq), initialCapacity));
+			} catch (IOException | RuntimeException e) {
+				log.warn("Snapshot {} is not valid, trying older one: {}", seq, e.getMessage());
+			}
+		}
+		return null;
+	}
+
+	static void deleteOlderThan(Path directory, long seq) throws IOException {
+		for (long old : snapshots(directory)) {
+			if (old < seq) Files.deleteIfExists(path(directory, old));
+		}
+	}
+
+	//Table is returned only if checksum of the whole file is valid
+	private static TaskTable load(Path file, int initialCapacity) throws IOException {
+		CRC32C crc = new CRC32C();
+		try (InputStream stream = Files.newInputStream(file);
+			 DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(stream, 1 << 16), crc))) {
+			if (in.readInt() != MAGIC) throw new IOException("Not a task snapshot");
+			int count = in.readInt();
+			TaskTable table = new TaskTable(Math.max(initialCapacity, count));
+			WalCodec.Visitor visitor = WalCodec.applyTo(table);
+			for (int i = 0; i < count; i++) {
+				byte[] record = new byte[in.readInt()];
+				in.readFully(record);
+				WalCodec.decode(ByteBuffer.wrap(record), visitor);
+			}
+			int expected = (int) crc.getValue();
+			if (in.readInt() != expected) throw new IOException("Snapshot checksum mismatch");
+			return table;
+		}
+	}
+
+	private static List<Long> snapshots(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> NAME.matcher(file.getFileName().toString()))
+					.filter(Matcher::matches)
+					.map(matcher -> Long.parseLong(matcher.group(1)))
+					.sorted(Comparator.naturalOrder())
+					.toList();
+		}
+	}
+
+	private static Path path(Path directory, long seq) {
+		return directory.resolve(String.format("snapshot-%016d.snap", seq));
+	}
+}
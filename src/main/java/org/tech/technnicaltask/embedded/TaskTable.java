@@ -0,0 +1,269 @@
+package org.tech.technnicaltask.embedded;
+
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.utils.Status;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Compact task storage: columns in parallel arrays indexed by row, rows of deleted tasks are reused.
+ * Primary index is open-addressing hash table over (msb, lsb) longs, so ids are never boxed.
+ * Secondary indexes: bitset of rows per status and ordered set of (updated second, row) keys.
+ * Not thread-safe, guarded by InMemoryTaskRepository lock.
+ */
+public class TaskTable {
+
+	//Keys of updatedAt index are (seconds since 2020 << 32 | row), precise time is checked on lookup
+	private static final long UPDATED_EPOCH_SECOND = 1577836800L;
+
+	private static final long NULL_TIME = Long.MIN_VALUE;
+
+	private static final Status[] STATUSES = Status.values();
+
+	//hash index: slot -> row + 1, 0 means empty slot
+	private long[] slotMsb;
+	private long[] slotLsb;
+	private int[] slotRow;
+	private int slotMask;
+
+	//rows
+	private long[] idMsb;
+	private long[] idLsb;
+	private String[] titles;
+	private String[] descriptions;
+	private byte[] statuses; //ordinal, -1 for free row
+	private long[] createdAt; //epoch micros
+	private long[] updatedAt;
+	private int rowCount; //rows ever used
+	private int[] freeRows = new int[16];
+	private int freeCount;
+	private int size;
+
+	private final BitSet[] statusIndex = new BitSet[STATUSES.length];
+
+	private final TreeSet<Long> updatedIndex = new TreeSet<>();
+
+	public TaskTable(int initialCapacity) {
+		int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity) - 1) << 1);
+		idMsb = new long[capacity];
+		idLsb = new long[capacity];
+		titles = new String[capacity];
+		descriptions = new String[capacity];
+		statuses = new byte[capacity];
+		createdAt = new long[capacity];
+		updatedAt = new long[capacity];
+		allocateSlots(capacity * 2);
+		for (int i = 0; i < statusIndex.length; i++) {
+			statusIndex[i] = new BitSet();
+		}
+	}
+
+	//Copy of rows for snapshot, taken under lock and written without it
+	public record Rows(int count, long[] idMsb, long[] idLsb, String[] titles, String[] descriptions,
+					   byte[] statuses, long[] createdAt, long[] updatedAt) {
+
+		public TaskEntity toEntity(int row) {
+			return statuses[row] < 0 ? null : new TaskEntity(new UUID(idMsb[row], idLsb[row]), titles[row], descriptions[row],
+					STATUSES[statuses[row]], toTime(createdAt[row]), toTime(updatedAt[row]));
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public TaskEntity get(UUID id) {
+		int row = findRow(id.getMostSignificantBits(), id.getLeastSignificantBits());
+		return row < 0 ? null : toEntity(row);
+	}
+
+	public void put(TaskEntity task) {
+		long msb = task.getId().getMostSignificantBits();
+		long lsb = task.getId().getLeastSignificantBits();
+		int row = findRow(msb, lsb);
+		if (row < 0) {
+			row = allocateRow();
+			idMsb[row] = msb;
+			idLsb[row] = lsb;
+			insertSlot(msb, lsb, row);
+			size++;
+		} else {
+			unindex(row);
+		}
+		titles[row] = task.getTitle();
+		descriptions[row] = task.getDescription();
+		statuses[row] = (byte) task.getStatus().ordinal();
+		createdAt[row] = toMicros(task.getCreatedAt());
+		updatedAt[row] = toMicros(task.getUpdatedAt());
+		index(row);
+	}
+
+	public boolean remove(UUID id) {
+		long msb = id.getMostSignificantBits();
+		long lsb = id.getLeastSignificantBits();
+		int slot = findSlot(msb, lsb);
+		if (slotRow[slot] == 0) {
+			return false;
+		}
+		int row = slotRow[slot] - 1;
+		deleteSlot(slot);
+		unindex(row);
+		titles[row] = null;
+		descriptions[row] = null;
+		statuses[row] = -1;
+		if (freeCount == freeRows.length) freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+		freeRows[freeCount++] = row;
+		size--;
+		return true;
+	}
+
+	public List<TaskEntity> findAll() {
+		List<TaskEntity> tasks = new ArrayList<>(size);
+		for (int row = 0; row < rowCount; row++) {
+			if (statuses[row] >= 0) tasks.add(toEntity(row));
+		}
+		return tasks;
+	}
+
+	public List<TaskEntity> findByStatus(Status status) {
+		List<TaskEntity> tasks = new ArrayList<>();
+		BitSet rows = statusIndex[status.ordinal()];
+		for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+			tasks.add(toEntity(row));
+		}
+		return tasks;
+	}
+
+	//Tasks updated at or after given time, oldest first
+	public List<TaskEntity> findUpdatedSince(LocalDateTime since) {
+		long sinceMicros = toMicros(since);
+		List<TaskEntity> tasks = new ArrayList<>();
+		forEachUpdatedSince(Math.floorDiv(sinceMicros, 1_000_000L), row -> {
+			if (updatedAt[row] >= sinceMicros) tasks.add(toEntity(row));
+		});
+		return tasks;
+	}
+
+	public Rows copyRows() {
+		return new Rows(rowCount, Arrays.copyOf(idMsb, rowCount), Arrays.copyOf(idLsb, rowCount),
+				Arrays.copyOf(titles, rowCount), Arrays.copyOf(descriptions, rowCount), Arrays.copyOf(statuses, rowCount),
+				Arrays.copyOf(createdAt, rowCount), Arrays.copyOf(updatedAt, rowCount));
+	}
+
+	static long toMicros(LocalDateTime time) {
+		if (time == null) return NULL_TIME;
+		return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000L), time.getNano() / 1000);
+	}
+
+	static LocalDateTime toTime(long micros) {
+		if (micros == NULL_TIME) return null;
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+	}
+
+	private TaskEntity toEntity(int row) {
+		return new TaskEntity(new UUID(idMsb[row], idLsb[row]), titles[row], descriptions[row],
+				STATUSES[statuses[row]], toTime(createdAt[row]), toTime(updatedAt[row]));
+	}
+
+	private void index(int row) {
+		statusIndex[statuses[row]].set(row);
+		if (updatedAt[row] != NULL_TIME) updatedIndex.add(updatedKey(Math.floorDiv(updatedAt[row], 1_000_000L), row));
+	}
+
+	private void unindex(int row) {
+		statusIndex[statuses[row]].clear(row);
+		if (updatedAt[row] != NULL_TIME) updatedIndex.remove(updatedKey(Math.floorDiv(updatedAt[row], 1_000_000L), row));
+	}
+
+	private void forEachUpdatedSince(long epochSecond, IntConsumer action) {
+		for (long key : updatedIndex.tailSet(updatedKey(epochSecond, 0))) {
+			action.accept((int) key);
+		}
+	}
+
+	private static long updatedKey(long epochSecond, int row) {
+		return ((epochSecond - UPDATED_EPOCH_SECOND) << 32) | (row & 0xFFFFFFFFL);
+	}
+
+	private int allocateRow() {
+		if (freeCount > 0) {
+			return freeRows[--freeCount];
+		}
+		if (rowCount == idMsb.length) {
+			int capacity = idMsb.length * 2;
+			idMsb = Arrays.copyOf(idMsb, capacity);
+			idLsb = Arrays.copyOf(idLsb, capacity);
+			titles = Arrays.copyOf(titles, capacity);
+			descriptions = Arrays.copyOf(descriptions, capacity);
+			statuses = Arrays.copyOf(statuses, capacity);
+			createdAt = Arrays.copyOf(createdAt, capacity);
+			updatedAt = Arrays.copyOf(updatedAt, capacity);
+			rehash(capacity * 2);
+		}
+		return rowCount++;
+	}
+
+	private int findRow(long msb, long lsb) {
+		return slotRow[findSlot(msb, lsb)] - 1;
+	}
+
+	//Slot holding the key or empty slot where it would be inserted (linear probing)
+	private int findSlot(long msb, long lsb) {
+		int slot = hash(msb, lsb) & slotMask;
+		while (slotRow[slot] != 0 && (slotMsb[slot] != msb || slotLsb[slot] != lsb)) {
+			slot = (slot + 1) & slotMask;
+		}
+		return slot;
+	}
+
+	private void insertSlot(long msb, long lsb, int row) {
+		int slot = findSlot(msb, lsb);
+		slotMsb[slot] = msb;
+		slotLsb[slot] = lsb;
+		slotRow[slot] = row + 1;
+	}
+
+	//Backward shift deletion: entries after the removed one are moved back, so probing needs no tombstones
+	private void deleteSlot(int slot) {
+		int hole = slot;
+		int next = (hole + 1) & slotMask;
+		while (slotRow[next] != 0) {
+			int home = hash(slotMsb[next], slotLsb[next]) & slotMask;
+			if (((next - home) & slotMask) >= ((next - hole) & slotMask)) {
+				slotMsb[hole] = slotMsb[next];
+				slotLsb[hole] = slotLsb[next];
+				slotRow[hole] = slotRow[next];
+				hole = next;
+			}
+			next = (next + 1) & slotMask;
+		}
+		slotRow[hole] = 0;
+	}
+
+	private void allocateSlots(int capacity) {
+		slotMsb = new long[capacity];
+		slotLsb = new long[capacity];
+		slotRow = new int[capacity];
+		slotMask = capacity - 1;
+	}
+
+	private void rehash(int capacity) {
+		allocateSlots(capacity);
+		for (int row = 0; row < rowCount; row++) {
+			if (statuses[row] >= 0) insertSlot(idMsb[row], idLsb[row], row);
+		}
+	}
+
+	private static int hash(long msb, long lsb) {
+		long h = (msb ^ Long.rotateLeft(lsb, 32)) * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
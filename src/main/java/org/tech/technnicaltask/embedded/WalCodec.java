@@ -0,0 +1,99 @@
+package org.tech.technnicaltask.embedded;
+
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.utils.Status;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Binary format of log records and snapshot rows.
+ * Put: type, id (2 longs), status ordinal, created and updated epoch micros, title, description (length -1 for null).
+ * Delete: type, id.
+ */
+final class WalCodec {
+
+	static final byte PUT = 1;
+
+	static final byte DELETE = 2;
+
+	private static final Status[] STATUSES = Status.values();
+
+	private WalCodec() {
+	}
+
+	interface Visitor {
+		void put(TaskEntity task);
+
+		void delete(UUID id);
+	}
+
+	static Visitor applyTo(TaskTable table) {
+		return new Visitor() {
+			@Override
+			public void put(TaskEntity task) {
+				table.put(task);
+			}
+
+			@Override
+			public void delete(UUID id) {
+				table.remove(id);
+			}
+		};
+	}
+
+	static byte[] encodePut(TaskEntity task) {
+		byte[] title = task.getTitle().getBytes(StandardCharsets.UTF_8);
+		byte[] description = task.getDescription() != null ? task.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+		ByteBuffer buffer = ByteBuffer.allocate(1 + 16 + 1 + 16 + 4 + title.length + 4 + (description != null ? description.length : 0));
+		buffer.put(PUT)
+				.putLong(task.getId().getMostSignificantBits())
+				.putLong(task.getId().getLeastSignificantBits())
+				.put((byte) task.getStatus().ordinal())
+				.putLong(TaskTable.toMicros(task.getCreatedAt()))
+				.putLong(TaskTable.toMicros(task.getUpdatedAt()))
+				.putInt(title.length)
+				.put(title);
+		if (description != null) {
+			buffer.putInt(description.length).put(description);
+		} else {
+			buffer.putInt(-1);
+		}
+		return buffer.array();
+	}
+
+	static byte[] encodeDelete(UUID id) {
+		return ByteBuffer.allocate(17)
+				.put(DELETE)
+				.putLong(id.getMostSignificantBits())
+				.putLong(id.getLeastSignificantBits())
+				.array();
+	}
+
+	static void decode(ByteBuffer record, Visitor visitor) {
+		byte type = record.get();
+		UUID id = new UUID(record.getLong(), record.getLong());
+		if (type == DELETE) {
+			visitor.delete(id);
+			return;
+		}
+		if (type != PUT) {
+			throw new IllegalStateException("Unknown log record type " + type);
+		}
+		Status status = STATUSES[record.get()];
+		long createdAt = record.getLong();
+		long updatedAt = record.getLong();
+		String title = readString(record);
+		String description = readString(record);
+		visitor.put(new TaskEntity(id, title, description, status, TaskTable.toTime(createdAt), TaskTable.toTime(updatedAt)));
+	}
+
+	private static String readString(ByteBuffer record) {
+		int length = record.getInt();
+		if (length < 0) return null;
+		byte[] bytes = new byte[length];
+		record.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
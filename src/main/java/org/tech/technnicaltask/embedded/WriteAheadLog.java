@@ -0,0 +1,248 @@
+package org.tech.technnicaltask.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log in memory-mapped segment files. Frame: payload length, CRC32C of payload, payload.
+ * Segments are preallocated (zero filled), so zero length marks the end of written data.
+ * Group commit: appends only copy bytes into the mapping, one committer thread forces everything appended so far
+ * and wakes all writers waiting for it, so concurrent writers share one fsync.
+ */
+@Slf4j
+class WriteAheadLog implements AutoCloseable {
+
+	private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{16})\\.log");
+
+	private static final int FRAME_HEADER = 8;
+
+	private final Path directory;
+
+	private final int segmentSize;
+
+	private final boolean fsync;
+
+	private final Duration groupCommitDelay;
+
+	private long segmentSeq;
+
+	private MappedByteBuffer segment;
+
+	//Offset in current segment up to which data is forced
+	private int forcedOffset;
+
+	//Log positions: bytes appended and bytes forced since the log was opened
+	private long written;
+
+	private volatile long durable;
+
+	private final Object durableMonitor = new Object();
+
+	private final Thread committer;
+
+	private volatile boolean closed;
+
+	private volatile IOException commitFailure;
+
+	WriteAheadLog(Path directory, long firstSegmentSeq, int segmentSize, boolean fsync, Duration groupCommitDelay) throws IOException {
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.fsync = fsync;
+		this.groupCommitDelay = groupCommitDelay;
+		openSegment(firstSegmentSeq, segmentSize);
+		this.committer = new Thread(this::commitLoop, "task-wal-committer");
+		this.committer.setDaemon(true);
+		if (fsync) committer.start();
+	}
+
+	//Sequence numbers of segments in the directory, ascending
+	static List<Long> segments(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+					.filter(Matcher::matches)
+					.map(matcher -> Long.parseLong(matcher.group(1)))
+					.sorted()
+					.toList();
+		}
+	}
+
+	//Reads valid records of the segment. Reading stops at the end of data or at torn (partially written) record
+	static int replay(Path directory, long seq, Consumer<ByteBuffer> consumer) throws IOException {
+		int records = 0;
+		try (FileChannel channel = FileChannel.open(segmentPath(directory, seq), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			CRC32C crc = new CRC32C();
+			while (buffer.remaining() >= FRAME_HEADER) {
+				int length = buffer.getInt();
+				int checksum = buffer.getInt();
+				if (length <= 0 || length > buffer.remaining()) break;
+				ByteBuffer payload = buffer.slice(buffer.position(), length);
+				crc.reset();
+				crc.update(payload.duplicate());
+				if ((int) crc.getValue() != checksum) {
+					log.warn("Torn record at offset {} of log segment {}, ignoring the rest of segment", buffer.position() - FRAME_HEADER, seq);
+					break;
+				}
+				consumer.accept(payload);
+				buffer.position(buffer.position() + length);
+				records++;
+			}
+		}
+		return records;
+	}
+
+	static void deleteSegmentsBefore(Path directory, long seq) throws IOException {
+		for (long old : segments(directory)) {
+			if (old < seq) Files.deleteIfExists(segmentPath(directory, old));
+		}
+	}
+
+	//Returns log position after the record, pass it to awaitDurable()
+	synchronized long append(byte[] payload) throws IOException {
+		if (closed) throw new IOException("Write-ahead log is closed");
+		if (segment.remaining() < FRAME_HEADER + payload.length + FRAME_HEADER) {
+			rotate(FRAME_HEADER + payload.length + FRAME_HEADER);
+		}
+		CRC32C crc = new CRC32C();
+		crc.update(payload);
+		int start = segment.position();
+		segment.position(start + FRAME_HEADER);
+		segment.put(payload);
+		//length is written last, so a torn frame is never seen as complete one
+		segment.putInt(start + 4, (int) crc.getValue());
+		segment.putInt(start, payload.length);
+		written += FRAME_HEADER + payload.length;
+		if (fsync) notifyAll();
+		return written;
+	}
+
+	//Blocks until everything up to the position is forced to disk
+	void awaitDurable(long position) throws IOException {
+		if (!fsync) return;
+		synchronized (durableMonitor) {
+			while (durable < position) {
+				if (commitFailure != null) throw new IOException("Write-ahead log commit failed", commitFailure);
+				if (closed) throw new IOException("Write-ahead log is closed");
+				try {
+					durableMonitor.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while waiting for log commit", e);
+				}
+			}
+		}
+	}
+
+	//Starts new segment and returns its sequence number. Everything before it is in older segments
+	synchronized long rotate() throws IOException {
+		rotate(segmentSize);
+		return segmentSeq;
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (closed) return;
+			forceCurrent();
+			closed = true;
+			notifyAll();
+		}
+		synchronized (durableMonitor) {
+			durableMonitor.notifyAll();
+		}
+	}
+
+	private void rotate(int minSize) throws IOException {
+		forceCurrent();
+		openSegment(segmentSeq + 1, Math.max(segmentSize, minSize));
+	}
+
+	private void openSegment(long seq, int size) throws IOException {
+		try (FileChannel channel = FileChannel.open(segmentPath(directory, seq),
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+		segmentSeq = seq;
+		forcedOffset = 0;
+	}
+
+	//Called with monitor held: forces the rest of current segment and marks everything durable
+	private void forceCurrent() {
+		if (segment.position() > forcedOffset) {
+			segment.force(forcedOffset, segment.position() - forcedOffset);
+			forcedOffset = segment.position();
+		}
+		publishDurable(written);
+	}
+
+	private void commitLoop() {
+		while (true) {
+			MappedByteBuffer buffer;
+			int from;
+			int to;
+			long position;
+			synchronized (this) {
+				while (written == durable && !closed) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (closed) return;
+			}
+			if (!groupCommitDelay.isZero()) {
+				try {
+					Thread.sleep(groupCommitDelay.toMillis(), groupCommitDelay.toNanosPart() % 1_000_000);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+			synchronized (this) {
+				buffer = segment;
+				from = forcedOffset;
+				to = segment.position();
+				position = written;
+			}
+			try {
+				//forcing outside of monitor, appends go on meanwhile
+				if (to > from) buffer.force(from, to - from);
+			} catch (UncheckedIOException e) {
+				commitFailure = e.getCause();
+				publishDurable(durable);
+				log.error("Failed to force write-ahead log, writes are failing", e);
+				return;
+			}
+			synchronized (this) {
+				if (buffer == segment && to > forcedOffset) forcedOffset = to;
+			}
+			publishDurable(position);
+		}
+	}
+
+	private void publishDurable(long position) {
+		synchronized (durableMonitor) {
+			if (position > durable) durable = position;
+			durableMonitor.notifyAll();
+		}
+	}
+
+	private static Path segmentPath(Path directory, long seq) {
+		return directory.resolve(String.format("wal-%016d.log", seq));
+	}
+}
@@ -7,7 +7,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.utils.UuidV7Generator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -20,8 +22,10 @@ import java.util.UUID;
 @NoArgsConstructor
 public class TaskEntity {
 
+	//Time-ordered ids keep inserts at the right edge of primary key index
 	@Id
-	@GeneratedValue(strategy = GenerationType.UUID)
+	@GeneratedValue
+	@UuidGenerator(algorithm = UuidV7Generator.class)
 	private UUID id;
 
 	@Column(length = 100, nullable = false)
@@ -0,0 +1,9 @@
+package org.tech.technnicaltask.exceptions;
+
+//Time budget of the request is spent, its remaining work is cancelled
+public class DeadlineExceededException extends RuntimeException {
+
+	public DeadlineExceededException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
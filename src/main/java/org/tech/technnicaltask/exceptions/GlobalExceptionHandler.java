@@ -1,19 +1,26 @@
 package org.tech.technnicaltask.exceptions;
 
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.tech.technnicaltask.dto.ExceptionResponseDto;
+import org.tech.technnicaltask.utils.ErrorCode;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @RestControllerAdvice
 @Slf4j
@@ -26,6 +33,13 @@ public class GlobalExceptionHandler {
 		return new ExceptionResponseDto(HttpStatus.NOT_FOUND.value(), e.getClass().getSimpleName(), e.getMessage(), LocalDateTime.now(), req.getRequestURI());
 	}
 
+	@ResponseStatus(HttpStatus.NOT_FOUND)
+	@ExceptionHandler(ImportJobNotFoundException.class)
+	public ExceptionResponseDto handleImportJobNotFoundException(ImportJobNotFoundException e, HttpServletRequest req) {
+		log.error(e.getMessage());
+		return new ExceptionResponseDto(HttpStatus.NOT_FOUND.value(), e.getClass().getSimpleName(), e.getMessage(), LocalDateTime.now(), req.getRequestURI());
+	}
+
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	@ExceptionHandler(BadRequestException.class)
 	public ExceptionResponseDto handleBadRequestException(BadRequestException e, HttpServletRequest req) {
@@ -33,6 +47,45 @@ public class GlobalExceptionHandler {
 		return new ExceptionResponseDto(HttpStatus.BAD_REQUEST.value(), e.getClass().getSimpleName(), e.getMessage(), LocalDateTime.now(), req.getRequestURI());
 	}
 
+	//Circuit breaker is open: failing fast instead of waiting for database timeout
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ExceptionResponseDto handleServiceUnavailableException(ServiceUnavailableException e, HttpServletRequest req, HttpServletResponse resp) {
+		log.error(e.getMessage());
+		resp.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+		return new ExceptionResponseDto(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getClass().getSimpleName(), e.getMessage(), LocalDateTime.now(), req.getRequestURI());
+	}
+
+	//Time budget of the request was spent before the work was done, remaining database work was cancelled
+	@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+	@ExceptionHandler(DeadlineExceededException.class)
+	public ExceptionResponseDto handleDeadlineExceededException(DeadlineExceededException e, HttpServletRequest req) {
+		log.error(e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : e.getMessage());
+		return new ExceptionResponseDto(HttpStatus.GATEWAY_TIMEOUT.value(), e.getClass().getSimpleName(), e.getMessage(), LocalDateTime.now(), req.getRequestURI());
+	}
+
+	//Unreadable body: broken JSON or invalid value of status or id (message of StatusDeserializer or UuidDeserializer)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	@ExceptionHandler(HttpMessageNotReadableException.class)
+	public ExceptionResponseDto handleHttpMessageNotReadableException(HttpMessageNotReadableException e, HttpServletRequest req) {
+		String message = e.getCause() instanceof InvalidFormatException invalidFormat
+				? invalidFormat.getOriginalMessage()
+				: ErrorCode.MALFORMED_REQUEST_BODY.getMessage();
+		log.error(message);
+		return new ExceptionResponseDto(HttpStatus.BAD_REQUEST.value(), e.getClass().getSimpleName(), message, LocalDateTime.now(), req.getRequestURI());
+	}
+
+	//Invalid path variable, e.g. id rejected by StringToUUIDConverter
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	@ExceptionHandler(MethodArgumentTypeMismatchException.class)
+	public ExceptionResponseDto handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException e, HttpServletRequest req) {
+		String message = e.getRequiredType() == UUID.class
+				? ErrorCode.INVALID_UUID.getFormattedMessage(e.getValue())
+				: ErrorCode.INVALID_PARAMETER.getFormattedMessage(e.getValue(), e.getName());
+		log.error(message);
+		return new ExceptionResponseDto(HttpStatus.BAD_REQUEST.value(), BadRequestException.class.getSimpleName(), message, LocalDateTime.now(), req.getRequestURI());
+	}
+
 	//Handling errors from jakarta.constraints (@NotNull, @NotEmpty)
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	@ExceptionHandler(MethodArgumentNotValidException.class)
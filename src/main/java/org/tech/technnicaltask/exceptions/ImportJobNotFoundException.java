@@ -0,0 +1,15 @@
+package org.tech.technnicaltask.exceptions;
+
+public class ImportJobNotFoundException extends RuntimeException {
+	public ImportJobNotFoundException() {
+		super();
+	}
+
+	public ImportJobNotFoundException(String message) {
+		super(message);
+	}
+
+	public ImportJobNotFoundException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,15 @@
+package org.tech.technnicaltask.exceptions;
+
+public class RecordingNotFoundException extends RuntimeException {
+	public RecordingNotFoundException() {
+		super();
+	}
+
+	public RecordingNotFoundException(String message) {
+		super(message);
+	}
+
+	public RecordingNotFoundException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
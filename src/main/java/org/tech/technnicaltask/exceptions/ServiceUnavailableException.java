@@ -0,0 +1,15 @@
+package org.tech.technnicaltask.exceptions;
+
+import lombok.Getter;
+
+//Task storage can't be used right now, client should retry after retryAfterSeconds
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+	private final long retryAfterSeconds;
+
+	public ServiceUnavailableException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+}
@@ -0,0 +1,5 @@
+package org.tech.technnicaltask.history;
+
+public enum ChangeType {
+	CREATE, UPDATE, DELETE
+}
@@ -0,0 +1,65 @@
+package org.tech.technnicaltask.history;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer.
+ * Producer claims a sequence with CAS on tail and publishes element into its slot,
+ * consumer takes published elements in order and frees slots by moving head.
+ */
+final class MpscRingBuffer<E> {
+
+	private final AtomicReferenceArray<E> slots;
+
+	private final int mask;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	//Written only by consumer
+	private volatile long head;
+
+	MpscRingBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+	}
+
+	//Returns false when buffer is full
+	boolean offer(E element) {
+		while (true) {
+			long sequence = tail.get();
+			if (sequence - head >= slots.length()) return false;
+			if (tail.compareAndSet(sequence, sequence + 1)) {
+				slots.lazySet((int) sequence & mask, element);
+				return true;
+			}
+		}
+	}
+
+	//Consumer only. Stops at the first claimed slot whose element is not published yet
+	int drainTo(List<E> target, int max) {
+		long sequence = head;
+		int drained = 0;
+		while (drained < max) {
+			int index = (int) sequence & mask;
+			E element = slots.get(index);
+			if (element == null) break;
+			slots.lazySet(index, null);
+			target.add(element);
+			sequence++;
+			drained++;
+		}
+		head = sequence;
+		return drained;
+	}
+
+	int size() {
+		return (int) Math.max(0, tail.get() - head);
+	}
+
+	int capacity() {
+		return slots.length();
+	}
+}
@@ -0,0 +1,34 @@
+package org.tech.technnicaltask.history;
+
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.utils.Status;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+//One row of task_history. Old values are null for CREATE, new values are null for DELETE
+public record TaskChange(UUID taskId, ChangeType type, Values before, Values after, LocalDateTime changedAt) {
+
+	//Tracked fields of a task at one moment
+	public record Values(String title, String description, Status status) {
+
+		public static Values of(TaskEntity entity) {
+			return new Values(entity.getTitle(), entity.getDescription(), entity.getStatus());
+		}
+	}
+
+	public static TaskChange created(UUID taskId, Values after) {
+		return new TaskChange(taskId, ChangeType.CREATE, null, after, LocalDateTime.now());
+	}
+
+	//Returns null when nothing has changed
+	public static TaskChange updated(UUID taskId, Values before, Values after) {
+		if (Objects.equals(before, after)) return null;
+		return new TaskChange(taskId, ChangeType.UPDATE, before, after, LocalDateTime.now());
+	}
+
+	public static TaskChange deleted(UUID taskId, Values before) {
+		return new TaskChange(taskId, ChangeType.DELETE, before, null, LocalDateTime.now());
+	}
+}
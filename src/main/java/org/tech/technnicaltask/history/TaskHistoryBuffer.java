@@ -0,0 +1,196 @@
+package org.tech.technnicaltask.history;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous task history. Changes are put into bounded lock-free buffer by writing requests
+ * and written by a single writer thread with multi-row INSERT statements,
+ * every flush interval or as soon as batch size is reached.
+ * When writes fail, the batch is retried with growing delay and buffer fills up, then overflow policy applies to new changes.
+ * Batch that failed max attempts is written row by row once more, rows that still fail are dropped and counted as dead-lettered,
+ * so one bad batch doesn't block history forever.
+ */
+@Slf4j
+public class TaskHistoryBuffer {
+
+	private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final TaskHistoryRepository repository;
+
+	private final TaskHistoryProperties properties;
+
+	private final MpscRingBuffer<TaskChange> buffer;
+
+	//Batch taken from buffer and not written yet, and its failed writes. Used by writer thread only
+	private final List<TaskChange> unwritten = new ArrayList<>();
+
+	private int failedAttempts;
+
+	//Backoff after failed flush. Used by writer thread only
+	private int consecutiveFailures;
+
+	private long retryAfterNanos;
+
+	private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(
+			runnable -> new Thread(runnable, "task-history-writer"));
+
+	private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+
+	private final Counter writtenRows;
+
+	private final Counter droppedChanges;
+
+	private final Counter blockedChanges;
+
+	private final Counter failedWrites;
+
+	private final Counter deadLettered;
+
+	public TaskHistoryBuffer(TaskHistoryRepository repository, TaskHistoryProperties properties, MeterRegistry meterRegistry) {
+		this.repository = repository;
+		this.properties = properties;
+		this.buffer = new MpscRingBuffer<>(properties.getBufferCapacity());
+		this.writtenRows = Counter.builder("tasks.history.written").description("Task history rows written").register(meterRegistry);
+		this.droppedChanges = Counter.builder("tasks.history.dropped").description("Task changes dropped because history buffer was full").register(meterRegistry);
+		this.blockedChanges = Counter.builder("tasks.history.blocked").description("Task changes which waited for free space in history buffer").register(meterRegistry);
+		this.failedWrites = Counter.builder("tasks.history.failures").description("Failed task history writes").register(meterRegistry);
+		this.deadLettered = Counter.builder("tasks.history.dead-lettered").description("Task changes dropped after max write attempts").register(meterRegistry);
+		Gauge.builder("tasks.history.pending", buffer, MpscRingBuffer::size).description("Task changes waiting to be written").register(meterRegistry);
+		long intervalMillis = Math.max(1, properties.getFlushInterval().toMillis());
+		writer.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	//Inside transaction the change is buffered after commit, so rolled back changes are not recorded
+	public void record(TaskChange change) {
+		if (change == null) return;
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					enqueue(change);
+				}
+			});
+		} else {
+			enqueue(change);
+		}
+	}
+
+	public int size() {
+		return buffer.size();
+	}
+
+	void enqueue(TaskChange change) {
+		if (!buffer.offer(change) && !waitForSpace(change)) {
+			droppedChanges.increment();
+			log.debug("History buffer is full, dropped {} of Task {}", change.type(), change.taskId());
+			return;
+		}
+		if (buffer.size() >= properties.getBatchSize() && earlyFlushRequested.compareAndSet(false, true)) {
+			writer.execute(this::flushSafely);
+		}
+	}
+
+	//BLOCK policy: retries until writer frees space or block timeout expires
+	private boolean waitForSpace(TaskChange change) {
+		if (properties.getOverflowPolicy() != TaskHistoryProperties.OverflowPolicy.BLOCK) return false;
+		blockedChanges.increment();
+		if (earlyFlushRequested.compareAndSet(false, true)) {
+			writer.execute(this::flushSafely);
+		}
+		long deadline = System.nanoTime() + properties.getBlockTimeout().toNanos();
+		do {
+			LockSupport.parkNanos(BLOCK_PARK_NANOS);
+			if (buffer.offer(change)) return true;
+		} while (System.nanoTime() < deadline);
+		return false;
+	}
+
+	//Writes everything that is buffered now. Called by writer thread only (and on shutdown after it is stopped)
+	void flush() {
+		earlyFlushRequested.set(false);
+		while (true) {
+			if (unwritten.isEmpty() && buffer.drainTo(unwritten, properties.getBatchSize()) == 0) return;
+			try {
+				writtenRows.increment(repository.insertAll(unwritten));
+			} catch (RuntimeException e) {
+				failedWrites.increment();
+				if (++failedAttempts < properties.getMaxAttempts()) throw e; //batch is kept and written first on the next flush
+				if (writeAloneOrDeadLetter() == 0) throw e; //nothing could be written, storage is still failing
+				continue;
+			}
+			log.debug("Written {} task history rows", unwritten.size());
+			unwritten.clear();
+			failedAttempts = 0;
+		}
+	}
+
+	//Last attempt for a batch: rows are written one by one, so one bad row doesn't take the others with it
+	private int writeAloneOrDeadLetter() {
+		int written = 0;
+		for (TaskChange change : unwritten) {
+			try {
+				written += repository.insertAll(List.of(change));
+			} catch (RuntimeException e) {
+				deadLettered.increment();
+				log.error("{} of Task {} is dropped from history after {} failed attempts: {}",
+						change.type(), change.taskId(), properties.getMaxAttempts(), change, e);
+			}
+		}
+		writtenRows.increment(written);
+		unwritten.clear();
+		failedAttempts = 0;
+		return written;
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		writer.shutdown();
+		if (!writer.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+			log.warn("Task history writer did not stop in time");
+		}
+		long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+		while (true) {
+			try {
+				flush();
+				log.info("Task history buffer is empty, all changes are written");
+				return;
+			} catch (RuntimeException e) {
+				if (System.nanoTime() > deadline) {
+					log.error("Failed to write {} buffered task changes on shutdown", unwritten.size() + buffer.size(), e);
+					return;
+				}
+				log.warn("Final task history flush failed, retrying: {}", e.getMessage());
+				Thread.sleep(200);
+			}
+		}
+	}
+
+	private void flushSafely() {
+		if (consecutiveFailures > 0 && System.nanoTime() - retryAfterNanos < 0) return;
+		try {
+			flush();
+			consecutiveFailures = 0;
+		} catch (RuntimeException e) {
+			consecutiveFailures++;
+			long backoffNanos = Math.min(properties.getMaxRetryBackoff().toNanos(),
+					properties.getFlushInterval().toNanos() << Math.min(consecutiveFailures, 20));
+			retryAfterNanos = System.nanoTime() + backoffNanos;
+			log.error("Task history write failed, {} changes will be retried in {} ms",
+					unwritten.size(), TimeUnit.NANOSECONDS.toMillis(backoffNanos), e);
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package org.tech.technnicaltask.history;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+//Position of the last returned history row. Next page starts after it, so pages don't shift when new changes are written
+public record TaskHistoryCursor(LocalDateTime changedAt, long id) {
+
+	private static final char SEPARATOR = '_';
+
+	//Opaque value for clients, URL-safe
+	public String encode() {
+		String value = changedAt.toString() + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	//Throws IllegalArgumentException when the value was not made by encode()
+	public static TaskHistoryCursor decode(String cursor) {
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = value.lastIndexOf(SEPARATOR);
+			if (separator < 0) throw new IllegalArgumentException("No separator in history cursor");
+			return new TaskHistoryCursor(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+}
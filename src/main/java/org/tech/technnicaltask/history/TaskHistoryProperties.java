@@ -0,0 +1,44 @@
+package org.tech.technnicaltask.history;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.history")
+public class TaskHistoryProperties {
+
+	private boolean enabled = true;
+
+	//Max number of changes waiting to be written (rounded up to power of two)
+	private int bufferCapacity = 65_536;
+
+	//What happens with a change when buffer is full
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+	//BLOCK policy: how long writing request waits for free space before the change is dropped
+	private Duration blockTimeout = Duration.ofMillis(100);
+
+	//Buffered changes are written at least this often
+	private Duration flushInterval = Duration.ofMillis(50);
+
+	//Max number of rows in one INSERT, write starts earlier when this number of changes is buffered
+	private int batchSize = 500;
+
+	//Failed writes are retried with doubling delay up to this one
+	private Duration maxRetryBackoff = Duration.ofSeconds(5);
+
+	//Batch that failed this many writes is written row by row once more, failing rows are dropped and counted as dead-lettered
+	private int maxAttempts = 30;
+
+	//How long shutdown waits for buffered changes to be written
+	private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+	public enum OverflowPolicy {
+		//Change is dropped immediately, write path never waits
+		DROP,
+		//Writing request waits up to block timeout, then the change is dropped
+		BLOCK
+	}
+}
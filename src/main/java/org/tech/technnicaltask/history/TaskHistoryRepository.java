@@ -0,0 +1,87 @@
+package org.tech.technnicaltask.history;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.tech.technnicaltask.utils.Status;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+//task_history table. Rows are inserted by TaskHistoryBuffer only
+public class TaskHistoryRepository {
+
+	private static final String INSERT = "INSERT INTO task_history (task_id, change_type, old_title, new_title, " +
+			"old_description, new_description, old_status, new_status, changed_at) VALUES ";
+
+	private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String SELECT = "SELECT id, task_id, change_type, old_title, new_title, old_description, " +
+			"new_description, old_status, new_status, changed_at FROM task_history WHERE task_id = ? ";
+
+	private static final String ORDER = " ORDER BY changed_at DESC, id DESC LIMIT ?";
+
+	//Newest first, served by index on (task_id, changed_at, id) without reading skipped rows
+	private static final String SELECT_FIRST_PAGE = SELECT + ORDER;
+
+	private static final String SELECT_NEXT_PAGE = SELECT + "AND (changed_at, id) < (?, ?)" + ORDER;
+
+	private static final RowMapper<Entry> ROW_MAPPER = (rs, rowNum) -> new Entry(
+			new TaskHistoryCursor(rs.getTimestamp("changed_at").toLocalDateTime(), rs.getLong("id")),
+			new TaskChange(
+					rs.getObject("task_id", UUID.class),
+					ChangeType.valueOf(rs.getString("change_type")),
+					values(rs, "old_"),
+					values(rs, "new_"),
+					rs.getTimestamp("changed_at").toLocalDateTime()));
+
+	//Stored change with its position for the next page cursor
+	public record Entry(TaskHistoryCursor position, TaskChange change) {
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public TaskHistoryRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	//One multi-row INSERT for the whole batch
+	public int insertAll(List<TaskChange> changes) {
+		if (changes.isEmpty()) return 0;
+		StringBuilder sql = new StringBuilder(INSERT.length() + changes.size() * (ROW.length() + 2)).append(INSERT);
+		Object[] args = new Object[changes.size() * 9];
+		int arg = 0;
+		for (int i = 0; i < changes.size(); i++) {
+			TaskChange change = changes.get(i);
+			TaskChange.Values before = change.before();
+			TaskChange.Values after = change.after();
+			sql.append(i == 0 ? "" : ", ").append(ROW);
+			args[arg++] = change.taskId();
+			args[arg++] = change.type().name();
+			args[arg++] = before != null ? before.title() : null;
+			args[arg++] = after != null ? after.title() : null;
+			args[arg++] = before != null ? before.description() : null;
+			args[arg++] = after != null ? after.description() : null;
+			args[arg++] = before != null && before.status() != null ? before.status().name() : null;
+			args[arg++] = after != null && after.status() != null ? after.status().name() : null;
+			args[arg++] = Timestamp.valueOf(change.changedAt());
+		}
+		return jdbcTemplate.update(sql.toString(), args);
+	}
+
+	//after is null for the first page
+	public List<Entry> findByTaskId(UUID taskId, TaskHistoryCursor after, int limit) {
+		if (after == null) return jdbcTemplate.query(SELECT_FIRST_PAGE, ROW_MAPPER, taskId, limit);
+		return jdbcTemplate.query(SELECT_NEXT_PAGE, ROW_MAPPER, taskId, Timestamp.valueOf(after.changedAt()), after.id(), limit);
+	}
+
+	//null when the task did not exist at this side of the change (before CREATE, after DELETE)
+	private static TaskChange.Values values(ResultSet rs, String prefix) throws SQLException {
+		String title = rs.getString(prefix + "title");
+		String status = rs.getString(prefix + "status");
+		if (title == null && status == null) return null;
+		return new TaskChange.Values(title, rs.getString(prefix + "description"), status != null ? Status.valueOf(status) : null);
+	}
+}
@@ -0,0 +1,244 @@
+package org.tech.technnicaltask.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.tech.technnicaltask.dto.ExceptionResponseDto;
+import org.tech.technnicaltask.exceptions.ServiceUnavailableException;
+import org.tech.technnicaltask.utils.ClientKeys;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Idempotency-Key support for task creation (POST /api/v1/tasks) and update (PUT /api/v1/tasks/{id}).
+ * Successful response of the first request is stored, requests with the same key and client are answered with it
+ * without reaching TaskService. Key reused with different method, path or body is rejected with 422,
+ * body over max-body with 413. When keys can't be checked in DB the request is answered with 503.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private static final String TASKS_PATH = "/api/v1/tasks";
+
+	//Retry-After of 503 when keys can't be checked in DB
+	private static final long UNAVAILABLE_RETRY_AFTER_SECONDS = 1;
+
+	private final IdempotencyKeyStore store;
+
+	private final ObjectMapper objectMapper;
+
+	//Body is buffered in memory for fingerprint, so it's limited
+	private final long maxBodyBytes;
+
+	private final Counter replays;
+
+	private final boolean trustClientId;
+
+	public IdempotencyFilter(IdempotencyKeyStore store, IdempotencyProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		this.store = store;
+		this.trustClientId = properties.isTrustClientId();
+		this.objectMapper = objectMapper;
+		this.maxBodyBytes = Math.min(properties.getMaxBody().toBytes(), Integer.MAX_VALUE - 16);
+		this.replays = Counter.builder("tasks.idempotency.replayed")
+				.description("Requests answered with stored response of the first request with the same idempotency key")
+				.register(meterRegistry);
+	}
+
+	//Only create and update, import uploads are streamed and never buffered
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		if (request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) return true;
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		if ("POST".equals(request.getMethod())) {
+			return !TASKS_PATH.equals(path) && !(TASKS_PATH + "/").equals(path);
+		}
+		if ("PUT".equals(request.getMethod())) {
+			return !path.startsWith(TASKS_PATH + "/") || path.indexOf('/', TASKS_PATH.length() + 1) >= 0;
+		}
+		return true;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+			reject(request, response, HttpStatus.BAD_REQUEST, ErrorCode.INVALID_IDEMPOTENCY_KEY.getFormattedMessage(MAX_KEY_LENGTH));
+			return;
+		}
+		byte[] body = request.getContentLengthLong() > maxBodyBytes ? null : request.getInputStream().readNBytes((int) maxBodyBytes + 1);
+		if (body == null || body.length > maxBodyBytes) {
+			reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE, ErrorCode.REQUEST_BODY_TOO_LARGE.getFormattedMessage(maxBodyBytes));
+			return;
+		}
+		CachedBodyRequest cachedRequest = new CachedBodyRequest(request, body);
+		String key = clientKey(request) + ":" + idempotencyKey;
+		IdempotencyKeyStore.Claim claim;
+		try {
+			claim = store.claim(key, fingerprint(request, body));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServletException(e);
+		} catch (DataAccessException e) {
+			//same answer as circuit breaker gives when task storage is down
+			log.error("Idempotency key {} can't be claimed: {}", key, e.getMessage());
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(UNAVAILABLE_RETRY_AFTER_SECONDS));
+			reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, ServiceUnavailableException.class.getSimpleName(),
+					ErrorCode.STORAGE_UNAVAILABLE.getFormattedMessage(UNAVAILABLE_RETRY_AFTER_SECONDS));
+			return;
+		}
+		switch (claim.outcome()) {
+			case REPLAY -> replay(response, claim.response());
+			case FINGERPRINT_MISMATCH -> reject(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+					ErrorCode.IDEMPOTENCY_KEY_REUSED.getFormattedMessage(idempotencyKey));
+			case IN_PROGRESS -> {
+				response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+				reject(request, response, HttpStatus.CONFLICT, ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS.getFormattedMessage(idempotencyKey));
+			}
+			case OWNER -> execute(cachedRequest, response, filterChain, key);
+		}
+	}
+
+	//Only successful responses are stored, after errors the request can be executed again
+	private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain, String key) throws ServletException, IOException {
+		ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+		boolean completed = false;
+		try {
+			filterChain.doFilter(request, cachingResponse);
+			if (HttpStatus.valueOf(cachingResponse.getStatus()).is2xxSuccessful()) {
+				store.complete(key, new StoredResponse(cachingResponse.getStatus(), cachingResponse.getContentType(),
+						cachingResponse.getHeader(HttpHeaders.LOCATION), cachingResponse.getContentAsByteArray()));
+				completed = true;
+			}
+		} finally {
+			if (!completed) store.release(key);
+			cachingResponse.copyBodyToResponse();
+		}
+	}
+
+	private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+		replays.increment();
+		response.setStatus(stored.status());
+		response.setHeader(REPLAYED_HEADER, "true");
+		if (stored.contentType() != null) response.setContentType(stored.contentType());
+		if (stored.location() != null) response.setHeader(HttpHeaders.LOCATION, stored.location());
+		if (stored.body() != null) {
+			response.setContentLength(stored.body().length);
+			response.getOutputStream().write(stored.body());
+		}
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message) throws IOException {
+		reject(request, response, status, "IdempotencyKey", message);
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String error, String message) throws IOException {
+		log.warn("{} (client={}, uri={})", message, clientKey(request), request.getRequestURI());
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), new ExceptionResponseDto(
+				status.value(), error, message, LocalDateTime.now(), request.getRequestURI()));
+	}
+
+	//X-Client-Id is chosen by the client, so keys are scoped by it only when a trusted gateway sets it.
+	//Otherwise a client could send another client's id and key and get its stored response
+	private String clientKey(HttpServletRequest request) {
+		return trustClientId ? ClientKeys.resolve(request) : request.getRemoteAddr();
+	}
+
+	//Same key must be sent only with the same request
+	private static String fingerprint(HttpServletRequest request, byte[] body) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+			digest.update(body);
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	//Body is read once for fingerprint and then given to controller
+	private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream input = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+				@Override
+				public boolean isFinished() {
+					return input.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				//Whole body is in memory, so it is available at once
+				@Override
+				public void setReadListener(ReadListener readListener) {
+					try {
+						if (!isFinished()) readListener.onDataAvailable();
+						if (isFinished()) readListener.onAllDataRead();
+					} catch (IOException e) {
+						readListener.onError(e);
+					}
+				}
+
+				@Override
+				public int read() {
+					return input.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					return input.read(b, off, len);
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			String encoding = getCharacterEncoding();
+			return new BufferedReader(new InputStreamReader(getInputStream(),
+					encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+		}
+	}
+}
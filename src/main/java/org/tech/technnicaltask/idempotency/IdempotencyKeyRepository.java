@@ -0,0 +1,78 @@
+package org.tech.technnicaltask.idempotency;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.util.List;
+
+//idempotency_keys table, shared by all nodes. Lease and expiry are compared with DB clock
+public class IdempotencyKeyRepository {
+
+	//Inserts in-progress claim, or replaces expired row with it. Returns 1 when key is claimed
+	private static final String CLAIM = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, owner, locked_until, expires_at) " +
+			"VALUES (?, ?, ?, now() + ? * interval '1 millisecond', now() + ? * interval '1 millisecond') " +
+			"ON CONFLICT (idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, owner = EXCLUDED.owner, status = NULL, " +
+			"content_type = NULL, location = NULL, body = NULL, " +
+			"locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at " +
+			"WHERE idempotency_keys.expires_at < now()";
+
+	//Claim of a node which did not finish the request in time
+	private static final String TAKE_OVER = "UPDATE idempotency_keys SET owner = ?, locked_until = now() + ? * interval '1 millisecond' " +
+			"WHERE idempotency_key = ? AND fingerprint = ? AND status IS NULL AND locked_until < now()";
+
+	private static final String SELECT = "SELECT fingerprint, status, content_type, location, body FROM idempotency_keys " +
+			"WHERE idempotency_key = ? AND expires_at >= now()";
+
+	//Complete and release apply only to the current owner, a request whose claim was taken over changes nothing
+	private static final String COMPLETE = "UPDATE idempotency_keys SET status = ?, content_type = ?, location = ?, body = ?, " +
+			"locked_until = NULL WHERE idempotency_key = ? AND owner = ? AND status IS NULL";
+
+	private static final String RELEASE = "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND owner = ? AND status IS NULL";
+
+	private static final String DELETE_EXPIRED = "DELETE FROM idempotency_keys WHERE expires_at < now()";
+
+	private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> {
+		int status = rs.getInt("status");
+		StoredResponse response = rs.wasNull() ? null
+				: new StoredResponse(status, rs.getString("content_type"), rs.getString("location"), rs.getBytes("body"));
+		return new Row(rs.getString("fingerprint"), response);
+	};
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	//response is null while the first request is in progress
+	public record Row(String fingerprint, StoredResponse response) {
+	}
+
+	//owner is a token unique for every claim
+	public boolean claim(String key, String fingerprint, String owner, Duration lease, Duration ttl) {
+		return jdbcTemplate.update(CLAIM, key, fingerprint, owner, lease.toMillis(), ttl.toMillis()) > 0;
+	}
+
+	public boolean takeOver(String key, String fingerprint, String owner, Duration lease) {
+		return jdbcTemplate.update(TAKE_OVER, owner, lease.toMillis(), key, fingerprint) > 0;
+	}
+
+	public Row find(String key) {
+		List<Row> rows = jdbcTemplate.query(SELECT, ROW_MAPPER, key);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	//false when the key is owned by another claim now
+	public boolean complete(String key, String owner, StoredResponse response) {
+		return jdbcTemplate.update(COMPLETE, response.status(), response.contentType(), response.location(), response.body(), key, owner) > 0;
+	}
+
+	public boolean release(String key, String owner) {
+		return jdbcTemplate.update(RELEASE, key, owner) > 0;
+	}
+
+	public int deleteExpired() {
+		return jdbcTemplate.update(DELETE_EXPIRED);
+	}
+}
@@ -0,0 +1,270 @@
+package org.tech.technnicaltask.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Responses of requests with idempotency keys. Keys live in memory, in a map split into independently locked stripes,
+ * and (when repository is present) in DB table shared by all nodes.
+ * The first request with a key becomes its owner, duplicates wait for owner's response and replay it.
+ */
+@Slf4j
+public class IdempotencyKeyStore {
+
+	public enum Outcome {
+		//Caller executes the request and must call complete() or release()
+		OWNER,
+		//Response of the first request is returned
+		REPLAY,
+		//Key was used with another request
+		FINGERPRINT_MISMATCH,
+		//First request is still running after in-flight timeout
+		IN_PROGRESS
+	}
+
+	public record Claim(Outcome outcome, StoredResponse response) {
+
+		private static final Claim OWNER = new Claim(Outcome.OWNER, null);
+
+		private static final Claim MISMATCH = new Claim(Outcome.FINGERPRINT_MISMATCH, null);
+
+		private static final Claim IN_PROGRESS = new Claim(Outcome.IN_PROGRESS, null);
+
+		private static Claim replay(StoredResponse response) {
+			return new Claim(Outcome.REPLAY, response);
+		}
+	}
+
+	private final IdempotencyProperties properties;
+
+	//null when keys are not shared between nodes
+	private final IdempotencyKeyRepository repository;
+
+	private final LongSupplier nanoClock;
+
+	private final Stripe[] stripes;
+
+	public IdempotencyKeyStore(IdempotencyProperties properties, IdempotencyKeyRepository repository, LongSupplier nanoClock) {
+		this.properties = properties;
+		this.repository = repository;
+		this.nanoClock = nanoClock;
+		int count = Math.max(1, properties.getStripes());
+		int maxEntriesPerStripe = Math.max(1, properties.getMaxEntries() / count);
+		this.stripes = new Stripe[count];
+		for (int i = 0; i < count; i++) {
+			stripes[i] = new Stripe(maxEntriesPerStripe);
+		}
+	}
+
+	//Blocks while another request with the same key is running, up to in-flight timeout
+	public Claim claim(String key, String fingerprint) throws InterruptedException {
+		long deadline = nanoClock.getAsLong() + properties.getInFlightTimeout().toNanos();
+		while (true) {
+			Stripe stripe = stripeOf(key);
+			Entry entry;
+			boolean owner = false;
+			synchronized (stripe) {
+				entry = stripe.entries.get(key);
+				if (entry != null && entry.isExpired(nanoClock.getAsLong())) {
+					stripe.entries.remove(key);
+					entry = null;
+				}
+				if (entry == null) {
+					entry = new Entry(fingerprint);
+					stripe.entries.put(key, entry);
+					owner = true;
+				}
+			}
+			if (!entry.fingerprint.equals(fingerprint)) return Claim.MISMATCH;
+			if (owner) return claimShared(key, fingerprint, entry, deadline);
+
+			StoredResponse response;
+			try {
+				response = entry.result.get(Math.max(0, deadline - nanoClock.getAsLong()), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				return Claim.IN_PROGRESS;
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+			if (response != null) return Claim.replay(response);
+			//first request failed and released the key, trying to become owner
+		}
+	}
+
+	//DB errors are not thrown, response of the executed request must reach the client.
+	//Then other nodes see the key in progress until its lease expires
+	public void complete(String key, StoredResponse response) {
+		Entry entry = entryOf(key);
+		if (entry == null) return;
+		completeLocal(key, entry, response);
+		if (repository == null || entry.owner == null) return;
+		try {
+			if (!repository.complete(key, entry.owner, response)) {
+				log.warn("Lease of idempotency key {} expired and the key was taken over, response is not stored in DB", key);
+			}
+		} catch (RuntimeException e) {
+			log.warn("Failed to store response of idempotency key {} in DB: {}", key, e.getMessage());
+		}
+	}
+
+	//Request failed, key can be used again
+	public void release(String key) {
+		Entry entry = entryOf(key);
+		if (entry == null) return;
+		releaseLocal(key, entry);
+		if (repository == null || entry.owner == null) return;
+		try {
+			repository.release(key, entry.owner);
+		} catch (RuntimeException e) {
+			log.warn("Failed to release idempotency key {} in DB: {}", key, e.getMessage());
+		}
+	}
+
+	//Expired keys are removed from memory and from DB
+	@Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:1m}")
+	public void removeExpired() {
+		long now = nanoClock.getAsLong();
+		int removed = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				Iterator<Entry> entries = stripe.entries.values().iterator();
+				while (entries.hasNext()) {
+					if (entries.next().isExpired(now)) {
+						entries.remove();
+						removed++;
+					}
+				}
+			}
+		}
+		if (repository != null) {
+			removed += repository.deleteExpired();
+		}
+		if (removed > 0) log.debug("Removed {} expired idempotency keys", removed);
+	}
+
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.entries.size();
+			}
+		}
+		return size;
+	}
+
+	//Local owner claims the key in DB, so the same key is executed once on all nodes
+	private Claim claimShared(String key, String fingerprint, Entry entry, long deadline) throws InterruptedException {
+		if (repository == null) return Claim.OWNER;
+		Duration lease = properties.getLease();
+		String owner = UUID.randomUUID().toString();
+		try {
+			while (true) {
+				if (repository.claim(key, fingerprint, owner, lease, properties.getTtl())) {
+					entry.owner = owner;
+					return Claim.OWNER;
+				}
+				IdempotencyKeyRepository.Row row = repository.find(key);
+				if (row == null) continue; //released or expired meanwhile
+				if (!row.fingerprint().equals(fingerprint)) {
+					releaseLocal(key, entry);
+					return Claim.MISMATCH;
+				}
+				if (row.response() != null) {
+					completeLocal(key, entry, row.response());
+					return Claim.replay(row.response());
+				}
+				if (repository.takeOver(key, fingerprint, owner, lease)) {
+					log.warn("Idempotency key {} was not completed by another node in time, taking it over", key);
+					entry.owner = owner;
+					return Claim.OWNER;
+				}
+				if (nanoClock.getAsLong() > deadline) {
+					releaseLocal(key, entry);
+					return Claim.IN_PROGRESS;
+				}
+				Thread.sleep(properties.getPollInterval().toMillis());
+			}
+		} catch (RuntimeException | InterruptedException e) {
+			releaseLocal(key, entry);
+			throw e;
+		}
+	}
+
+	private void completeLocal(String key, Entry entry, StoredResponse response) {
+		Stripe stripe = stripeOf(key);
+		synchronized (stripe) {
+			entry.expiresAt = nanoClock.getAsLong() + properties.getTtl().toNanos();
+		}
+		entry.result.complete(response);
+	}
+
+	//Waiting duplicates get null and try to claim the key again
+	private void releaseLocal(String key, Entry entry) {
+		Stripe stripe = stripeOf(key);
+		synchronized (stripe) {
+			stripe.entries.remove(key, entry);
+		}
+		entry.result.complete(null);
+	}
+
+	private Entry entryOf(String key) {
+		Stripe stripe = stripeOf(key);
+		synchronized (stripe) {
+			return stripe.entries.get(key);
+		}
+	}
+
+	private Stripe stripeOf(String key) {
+		int hash = key.hashCode();
+		return stripes[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % stripes.length];
+	}
+
+	private static final class Entry {
+
+		private final String fingerprint;
+
+		//Completed with owner's response, or with null when owner released the key
+		private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+		//Set when response is stored, in-flight entries don't expire. Guarded by stripe lock
+		private long expiresAt = Long.MAX_VALUE;
+
+		//Token of the claim in DB, null when keys are not shared. Set and read by the request thread of the owner
+		private String owner;
+
+		private Entry(String fingerprint) {
+			this.fingerprint = fingerprint;
+		}
+
+		private boolean isExpired(long now) {
+			return expiresAt != Long.MAX_VALUE && now - expiresAt > 0;
+		}
+	}
+
+	//Insertion ordered map, so the oldest keys are evicted when stripe is full.
+	//In-flight keys are not evicted, their duplicates are waiting for them
+	private static final class Stripe {
+
+		private final Map<String, Entry> entries;
+
+		private Stripe(int maxEntries) {
+			this.entries = new LinkedHashMap<>() {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+					return size() > maxEntries && eldest.getValue().expiresAt != Long.MAX_VALUE;
+				}
+			};
+		}
+	}
+}
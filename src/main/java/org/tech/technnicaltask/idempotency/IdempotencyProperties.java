@@ -0,0 +1,44 @@
+package org.tech.technnicaltask.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+	private boolean enabled = true;
+
+	//How long response of the first request is replayed for the same key
+	private Duration ttl = Duration.ofHours(24);
+
+	//Number of independently locked parts of in-memory store
+	private int stripes = 64;
+
+	//Max number of keys kept in memory, the oldest keys are evicted first (they are still in DB)
+	private int maxEntries = 100_000;
+
+	//How long a duplicate waits for the first request
+	private Duration inFlightTimeout = Duration.ofSeconds(30);
+
+	//Lease of in-progress key in DB, another node takes the key over after it. Raised to the longest request deadline
+	//on start, so a running request is not executed twice. Response of a request whose key was taken over is not stored
+	private Duration lease = Duration.ofSeconds(90);
+
+	//How often duplicate checks DB for response of the first request running on another node
+	private Duration pollInterval = Duration.ofMillis(25);
+
+	//Max body of request with Idempotency-Key, it is buffered in memory. Larger requests are rejected with 413
+	private DataSize maxBody = DataSize.ofMegabytes(1);
+
+	//Keys are scoped by remote address. X-Client-Id is used instead only if a gateway in front of the service
+	//sets it from verified identity, like app.rate-limit.trust-client-id
+	private boolean trustClientId = false;
+
+	//Keys are shared through DB table, so retries to another node are deduplicated too
+	private boolean shared = true;
+}
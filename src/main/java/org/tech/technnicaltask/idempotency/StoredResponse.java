@@ -0,0 +1,5 @@
+package org.tech.technnicaltask.idempotency;
+
+//Response of the first request with an idempotency key, replayed to its duplicates
+public record StoredResponse(int status, String contentType, String location, byte[] body) {
+}
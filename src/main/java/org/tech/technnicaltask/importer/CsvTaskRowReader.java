@@ -0,0 +1,152 @@
+package org.tech.technnicaltask.importer;
+
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.utils.ErrorCode;
+import org.tech.technnicaltask.utils.Status;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming RFC 4180 CSV reader. First record is a header with column names (title, description, status in any order).
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class CsvTaskRowReader implements TaskRowReader {
+
+	private final Reader reader;
+
+	private long line = 1;
+
+	private int titleColumn = -1;
+
+	private int descriptionColumn = -1;
+
+	private int statusColumn = -1;
+
+	private int columnCount;
+
+	private final StringBuilder raw = new StringBuilder();
+
+	private final StringBuilder field = new StringBuilder();
+
+	public CsvTaskRowReader(Reader reader) throws IOException {
+		this.reader = reader.markSupported() ? reader : new BufferedReader(reader);
+		readHeader();
+	}
+
+	@Override
+	public ImportRow next() throws IOException {
+		while (true) {
+			long recordLine = line;
+			List<String> fields = readRecord();
+			if (fields == null) {
+				return null;
+			}
+			if (fields.size() == 1 && fields.get(0).isEmpty()) {
+				continue; //skipping empty lines
+			}
+			String rawRecord = raw.toString();
+			if (fields.size() != columnCount) {
+				return ImportRow.rejected(recordLine, rawRecord,
+						"expected " + columnCount + " columns but found " + fields.size());
+			}
+			Status status = Status.parse(fields.get(statusColumn));
+			if (status == null) {
+				return ImportRow.rejected(recordLine, rawRecord,
+						ErrorCode.INVALID_STATUS.getFormattedMessage(fields.get(statusColumn), Arrays.toString(Status.values())));
+			}
+			TaskDto dto = TaskDto.builder()
+					.title(fields.get(titleColumn))
+					.description(descriptionColumn < 0 || fields.get(descriptionColumn).isEmpty() ? null : fields.get(descriptionColumn))
+					.status(status)
+					.build();
+			return ImportRow.parsed(recordLine, rawRecord, dto);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private void readHeader() throws IOException {
+		List<String> header = readRecord();
+		if (header == null) {
+			throw new IOException("CSV upload is empty, header row is required");
+		}
+		columnCount = header.size();
+		for (int i = 0; i < header.size(); i++) {
+			switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+				case "title" -> titleColumn = i;
+				case "description" -> descriptionColumn = i;
+				case "status" -> statusColumn = i;
+				default -> { } //unknown columns are ignored
+			}
+		}
+		if (titleColumn < 0 || statusColumn < 0) {
+			throw new IOException("CSV header must contain 'title' and 'status' columns, found: " + header);
+		}
+	}
+
+	//Reads one record, returns null on end of input
+	private List<String> readRecord() throws IOException {
+		raw.setLength(0);
+		field.setLength(0);
+		List<String> fields = new ArrayList<>(Math.max(columnCount, 4));
+		boolean quoted = false;
+		boolean fieldStarted = false;
+		int c;
+		while ((c = reader.read()) != -1) {
+			char ch = (char) c;
+			if (quoted) {
+				if (ch == '"') {
+					reader.mark(1);
+					int nextChar = reader.read();
+					if (nextChar == '"') {
+						field.append('"');
+						raw.append("\"\"");
+						continue;
+					}
+					quoted = false;
+					raw.append('"');
+					if (nextChar != -1) reader.reset();
+					continue;
+				}
+				if (ch == '\n') line++;
+				field.append(ch);
+				raw.append(ch);
+				continue;
+			}
+			if (ch == '\r') {
+				continue;
+			}
+			if (ch == '\n') {
+				line++;
+				fields.add(field.toString());
+				return fields;
+			}
+			raw.append(ch);
+			if (ch == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+				fieldStarted = false;
+			} else if (ch == '"' && !fieldStarted) {
+				quoted = true;
+				fieldStarted = true;
+			} else {
+				field.append(ch);
+				fieldStarted = true;
+			}
+		}
+		if (raw.isEmpty() && field.isEmpty() && fields.isEmpty()) {
+			return null;
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
@@ -0,0 +1,24 @@
+package org.tech.technnicaltask.importer;
+
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+	CSV,
+
+	NDJSON;
+
+	//Format is chosen by Content-Type of upload (text/csv or application/x-ndjson)
+	public static ImportFormat fromContentType(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		MediaType mediaType = MediaType.parseMediaType(contentType);
+		if ("csv".equalsIgnoreCase(mediaType.getSubtype())) {
+			return CSV;
+		}
+		if ("x-ndjson".equalsIgnoreCase(mediaType.getSubtype()) || "ndjson".equalsIgnoreCase(mediaType.getSubtype())) {
+			return NDJSON;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,61 @@
+package org.tech.technnicaltask.importer;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+//State and progress of one import. Counters are updated by import thread and read by status endpoint
+@Getter
+public class ImportJob {
+
+	private final UUID id;
+
+	private final ImportFormat format;
+
+	private final Path uploadFile;
+
+	private final Path rejectedFile;
+
+	private final LocalDateTime createdAt = LocalDateTime.now();
+
+	private volatile ImportStatus status = ImportStatus.QUEUED;
+
+	private volatile LocalDateTime finishedAt;
+
+	private volatile String error;
+
+	private final AtomicLong rowsRead = new AtomicLong();
+
+	private final AtomicLong rowsImported = new AtomicLong();
+
+	private final AtomicLong rowsRejected = new AtomicLong();
+
+	public ImportJob(UUID id, ImportFormat format, Path uploadFile, Path rejectedFile) {
+		this.id = id;
+		this.format = format;
+		this.uploadFile = uploadFile;
+		this.rejectedFile = rejectedFile;
+	}
+
+	void start() {
+		status = ImportStatus.RUNNING;
+	}
+
+	void complete() {
+		finishedAt = LocalDateTime.now();
+		status = ImportStatus.COMPLETED;
+	}
+
+	void fail(String error) {
+		this.error = error;
+		finishedAt = LocalDateTime.now();
+		status = ImportStatus.FAILED;
+	}
+
+	public boolean isFinished() {
+		return status == ImportStatus.COMPLETED || status == ImportStatus.FAILED;
+	}
+}
@@ -0,0 +1,31 @@
+package org.tech.technnicaltask.importer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+	//Directory for uploaded files and rejected-rows reports
+	private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "task-import");
+
+	//Larger uploads are not spooled further, their job fails, so one request can't fill the disk
+	private DataSize maxUploadSize = DataSize.ofGigabytes(1);
+
+	//Number of rows sent to database in one COPY
+	private int chunkSize = 5000;
+
+	//Number of import jobs processed at the same time
+	private int concurrency = 2;
+
+	//Finished jobs and their files are removed after this time
+	private Duration retention = Duration.ofHours(6);
+
+	//How often expired jobs are looked for
+	private Duration cleanupInterval = Duration.ofMinutes(10);
+}
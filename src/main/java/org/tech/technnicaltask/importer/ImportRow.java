@@ -0,0 +1,15 @@
+package org.tech.technnicaltask.importer;
+
+import org.tech.technnicaltask.dto.TaskDto;
+
+//One parsed row of upload. If row can't be parsed, dto is null and error is filled
+public record ImportRow(long line, String raw, TaskDto dto, String error) {
+
+	public static ImportRow parsed(long line, String raw, TaskDto dto) {
+		return new ImportRow(line, raw, dto, null);
+	}
+
+	public static ImportRow rejected(long line, String raw, String error) {
+		return new ImportRow(line, raw, null, error);
+	}
+}
@@ -0,0 +1,11 @@
+package org.tech.technnicaltask.importer;
+
+public enum ImportStatus {
+	QUEUED,
+
+	RUNNING,
+
+	COMPLETED,
+
+	FAILED
+}
@@ -0,0 +1,49 @@
+package org.tech.technnicaltask.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.tech.technnicaltask.dto.TaskDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+//Reads one JSON object per line. Broken line is rejected and reading continues from next line
+public class NdjsonTaskRowReader implements TaskRowReader {
+
+	private final BufferedReader reader;
+
+	private final ObjectMapper objectMapper;
+
+	private long line;
+
+	public NdjsonTaskRowReader(Reader reader, ObjectMapper objectMapper) {
+		this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public ImportRow next() throws IOException {
+		String raw;
+		while ((raw = reader.readLine()) != null) {
+			line++;
+			if (raw.isBlank()) continue;
+			try {
+				TaskDto dto = objectMapper.readValue(raw, TaskDto.class);
+				if (dto == null) {
+					return ImportRow.rejected(line, raw, "row must be JSON object");
+				}
+				dto.setId(null); //ids are always generated for imported tasks
+				return ImportRow.parsed(line, raw, dto);
+			} catch (JsonProcessingException e) {
+				return ImportRow.rejected(line, raw, "invalid JSON: " + e.getOriginalMessage());
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
@@ -0,0 +1,11 @@
+package org.tech.technnicaltask.importer;
+
+import org.tech.technnicaltask.entity.TaskEntity;
+
+import java.util.List;
+
+//Stores chunk of imported tasks, returns number of stored rows
+public interface TaskChunkWriter {
+
+	long write(List<TaskEntity> tasks) throws Exception;
+}
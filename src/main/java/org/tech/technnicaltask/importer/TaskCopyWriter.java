@@ -0,0 +1,75 @@
+package org.tech.technnicaltask.importer;
+
+import org.postgresql.PGConnection;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.sharding.ShardRouter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+//Loads chunk of tasks with PostgreSQL COPY protocol, each chunk is committed separately
+@Component
+@Profile("!embedded")
+public class TaskCopyWriter implements TaskChunkWriter {
+
+	private static final String COPY_SQL =
+			"COPY tasks (id, title, description, status, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+
+	private final DataSource dataSource;
+
+	//Present only when sharding is enabled, then every chunk is split by shard
+	private final ShardRouter shardRouter;
+
+	public TaskCopyWriter(DataSource dataSource, Optional<ShardRouter> shardRouter) {
+		this.dataSource = dataSource;
+		this.shardRouter = shardRouter.orElse(null);
+	}
+
+	@Override
+	public long write(List<TaskEntity> tasks) throws Exception {
+		if (tasks.isEmpty()) {
+			return 0;
+		}
+		if (shardRouter == null) {
+			return copy(dataSource, tasks);
+		}
+		long[] copied = new long[1];
+		shardRouter.forEachShard(tasks, TaskEntity::getId,
+				(shard, part) -> copied[0] += copy(shardRouter.dataSource(shard), part));
+		return copied[0];
+	}
+
+	private static long copy(DataSource dataSource, List<TaskEntity> tasks) throws SQLException, IOException {
+		StringBuilder csv = new StringBuilder(tasks.size() * 128);
+		for (TaskEntity task : tasks) {
+			csv.append(task.getId()).append(',');
+			appendQuoted(csv, task.getTitle()).append(',');
+			if (task.getDescription() != null) appendQuoted(csv, task.getDescription()); //unquoted empty value is NULL
+			csv.append(',').append(task.getStatus().name())
+					.append(',').append(task.getCreatedAt())
+					.append(',').append(task.getUpdatedAt())
+					.append('\n');
+		}
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(true);
+			return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString()));
+		}
+	}
+
+	private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+		csv.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char ch = value.charAt(i);
+			if (ch == '"') csv.append('"');
+			csv.append(ch);
+		}
+		return csv.append('"');
+	}
+}
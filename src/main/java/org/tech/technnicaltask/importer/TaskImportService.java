@@ -0,0 +1,252 @@
+package org.tech.technnicaltask.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.exceptions.ImportJobNotFoundException;
+import org.tech.technnicaltask.history.TaskChange;
+import org.tech.technnicaltask.history.TaskHistoryBuffer;
+import org.tech.technnicaltask.search.TaskSearchIndexer;
+import org.tech.technnicaltask.utils.ErrorCode;
+import org.tech.technnicaltask.utils.UuidV7Generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of tasks. Upload is streamed to a file (up to max upload size) and processed asynchronously:
+ * rows are parsed one by one, validated with TaskDto constraints and stored in chunks (COPY for PostgreSQL).
+ * Invalid rows are written to rejected-rows report instead of failing the whole import.
+ * Stored rows are recorded as CREATE changes in task history and indexed for search, like tasks created through API.
+ */
+@Service
+@Slf4j
+public class TaskImportService {
+
+	private final TaskChunkWriter chunkWriter;
+
+	private final Validator validator;
+
+	private final ObjectMapper objectMapper;
+
+	private final ImportProperties properties;
+
+	private final ExecutorService executor;
+
+	private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+	//Present only when search is enabled. Imported rows bypass TaskService, so they are indexed here
+	private final TaskSearchIndexer searchIndexer;
+
+	//Present only when task history is enabled, for the same reason
+	private final TaskHistoryBuffer history;
+
+	//Search indexer and history are empty when their module is disabled
+	public TaskImportService(TaskChunkWriter chunkWriter, Validator validator, ObjectMapper objectMapper, ImportProperties properties,
+							 Optional<TaskSearchIndexer> searchIndexer, Optional<TaskHistoryBuffer> history) {
+		this.chunkWriter = chunkWriter;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+		this.searchIndexer = searchIndexer.orElse(null);
+		this.history = history.orElse(null);
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(properties.getConcurrency(),
+				runnable -> new Thread(runnable, "task-import-" + threadNumber.incrementAndGet()));
+	}
+
+	//Saves upload to disk and queues import. Returns immediately, progress is available by job id
+	public ImportJob submit(String contentType, InputStream body) throws IOException {
+		ImportFormat format = ImportFormat.fromContentType(contentType);
+		if (format == null) {
+			throw new BadRequestException(ErrorCode.UNSUPPORTED_IMPORT_FORMAT.getFormattedMessage(contentType));
+		}
+		Files.createDirectories(properties.getDirectory());
+		UUID id = UuidV7Generator.generate();
+		ImportJob job = new ImportJob(id, format,
+				properties.getDirectory().resolve(id + ".upload"),
+				properties.getDirectory().resolve(id + "-rejected.csv"));
+		jobs.put(id, job);
+		long bytes;
+		try {
+			bytes = spool(body, job.getUploadFile(), properties.getMaxUploadSize().toBytes());
+		} catch (IOException e) {
+			jobs.remove(id);
+			Files.deleteIfExists(job.getUploadFile());
+			throw e;
+		}
+		if (bytes < 0) {
+			Files.deleteIfExists(job.getUploadFile());
+			job.fail(ErrorCode.IMPORT_UPLOAD_TOO_LARGE.getFormattedMessage(properties.getMaxUploadSize().toMegabytes()));
+			log.warn("Import job {} failed: {}", id, job.getError());
+			return job;
+		}
+		log.info("Import job {} queued: format={}, size={} bytes", id, format, bytes);
+		executor.execute(() -> run(job));
+		return job;
+	}
+
+	//Copies body to file, returns number of bytes or -1 as soon as the limit is exceeded
+	private static long spool(InputStream body, Path file, long maxBytes) throws IOException {
+		byte[] buffer = new byte[8192];
+		long bytes = 0;
+		try (OutputStream out = Files.newOutputStream(file)) {
+			int read;
+			while ((read = body.read(buffer)) != -1) {
+				bytes += read;
+				if (bytes > maxBytes) return -1;
+				out.write(buffer, 0, read);
+			}
+		}
+		return bytes;
+	}
+
+	public ImportJob getJob(UUID id) {
+		ImportJob job = jobs.get(id);
+		if (job == null) {
+			throw new ImportJobNotFoundException(ErrorCode.IMPORT_JOB_NOT_FOUND.getFormattedMessage(id));
+		}
+		return job;
+	}
+
+	public Resource getRejectedReport(UUID id) {
+		ImportJob job = getJob(id);
+		if (!job.isFinished()) {
+			throw new BadRequestException(ErrorCode.IMPORT_REPORT_NOT_READY.getFormattedMessage(id));
+		}
+		return new FileSystemResource(job.getRejectedFile());
+	}
+
+	void run(ImportJob job) {
+		job.start();
+		log.info("Import job {} started", job.getId());
+		try (Reader upload = Files.newBufferedReader(job.getUploadFile(), StandardCharsets.UTF_8);
+			 BufferedWriter rejected = Files.newBufferedWriter(job.getRejectedFile(), StandardCharsets.UTF_8)) {
+			rejected.write("line,error,row\n");
+			TaskRowReader reader = job.getFormat() == ImportFormat.CSV
+					? new CsvTaskRowReader(upload)
+					: new NdjsonTaskRowReader(upload, objectMapper);
+			List<TaskEntity> chunk = new ArrayList<>(properties.getChunkSize());
+			ImportRow row;
+			while ((row = reader.next()) != null) {
+				job.getRowsRead().incrementAndGet();
+				String error = row.error() != null ? row.error() : validate(row.dto());
+				if (error != null) {
+					writeRejected(rejected, row, error);
+					job.getRowsRejected().incrementAndGet();
+					continue;
+				}
+				chunk.add(toEntity(row.dto()));
+				if (chunk.size() >= properties.getChunkSize()) {
+					flush(job, chunk);
+				}
+			}
+			flush(job, chunk);
+			job.complete();
+			log.info("Import job {} completed: read={}, imported={}, rejected={}", job.getId(),
+					job.getRowsRead().get(), job.getRowsImported().get(), job.getRowsRejected().get());
+		} catch (Exception e) {
+			log.error("Import job {} failed after {} imported rows", job.getId(), job.getRowsImported().get(), e);
+			job.fail(e.getMessage());
+		} finally {
+			try {
+				Files.deleteIfExists(job.getUploadFile());
+			} catch (IOException e) {
+				log.warn("Failed to delete upload of import job {}", job.getId(), e);
+			}
+		}
+	}
+
+	//Removes finished jobs and their reports after retention time
+	@Scheduled(fixedDelayString = "${app.import.cleanup-interval:10m}")
+	public void removeExpiredJobs() {
+		LocalDateTime threshold = LocalDateTime.now().minus(properties.getRetention());
+		jobs.values().removeIf(job -> {
+			if (!job.isFinished() || job.getFinishedAt().isAfter(threshold)) return false;
+			try {
+				Files.deleteIfExists(job.getRejectedFile());
+			} catch (IOException e) {
+				log.warn("Failed to delete rejected rows report of import job {}", job.getId(), e);
+			}
+			return true;
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	//Same constraints as for POST /api/v1/tasks, status is already checked by reader. Returns null if row is valid
+	private String validate(TaskDto dto) {
+		Set<ConstraintViolation<TaskDto>> violations = validator.validate(dto);
+		if (violations.isEmpty()) return null;
+		return violations.stream()
+				.map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+				.sorted()
+				.collect(Collectors.joining("; "));
+	}
+
+	private void flush(ImportJob job, List<TaskEntity> chunk) throws Exception {
+		if (chunk.isEmpty()) return;
+		long copied = chunkWriter.write(chunk);
+		if (history != null) chunk.forEach(task -> history.record(TaskChange.created(task.getId(), TaskChange.Values.of(task))));
+		if (searchIndexer != null) searchIndexer.indexAll(chunk);
+		job.getRowsImported().addAndGet(copied);
+		chunk.clear();
+	}
+
+	private static TaskEntity toEntity(TaskDto dto) {
+		LocalDateTime now = LocalDateTime.now();
+		return TaskEntity.builder()
+				.id(UuidV7Generator.generate())
+				.title(dto.getTitle())
+				.description(dto.getDescription())
+				.status(dto.getStatus())
+				.createdAt(now)
+				.updatedAt(now)
+				.build();
+	}
+
+	private static void writeRejected(BufferedWriter rejected, ImportRow row, String error) throws IOException {
+		rejected.write(Long.toString(row.line()));
+		rejected.write(',');
+		writeQuoted(rejected, error);
+		rejected.write(',');
+		writeQuoted(rejected, row.raw());
+		rejected.write('\n');
+	}
+
+	private static void writeQuoted(BufferedWriter writer, String value) throws IOException {
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
@@ -0,0 +1,11 @@
+package org.tech.technnicaltask.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+//Reads upload row by row, without loading whole file into memory
+public interface TaskRowReader extends Closeable {
+
+	//Returns next row or null when upload is fully read
+	ImportRow next() throws IOException;
+}
@@ -0,0 +1,91 @@
+package org.tech.technnicaltask.jfr;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.tech.technnicaltask.dto.ExceptionResponseDto;
+import org.tech.technnicaltask.dto.RecordingDto;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.exceptions.RecordingNotFoundException;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Actuator endpoint /actuator/recordings, served on the management port (app.profiling.enabled and exposure are required):
+ * POST starts recording ({"duration": "30s", "settings": "profile"}), GET /{id} returns its state,
+ * DELETE /{id} stops it and GET /{id}/file downloads the file of a stopped recording.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@WebEndpoint(id = "recordings")
+public class FlightRecordingEndpoint {
+
+	private static final String PATH = "/actuator/recordings";
+
+	private static final String FILE = "file";
+
+	private final FlightRecordingService recordingService;
+
+	@WriteOperation
+	public WebEndpointResponse<Object> start(@Nullable String duration, @Nullable String settings) {
+		return respond(HttpStatus.CREATED, () -> RecordingDto.from(recordingService.start(duration, settings)));
+	}
+
+	@ReadOperation
+	public WebEndpointResponse<Object> get(@Selector long id) {
+		return respond(HttpStatus.OK, () -> RecordingDto.from(recordingService.get(id)));
+	}
+
+	//Stops recording early, its file is written and can be downloaded
+	@DeleteOperation
+	public WebEndpointResponse<Object> stop(@Selector long id) {
+		return respond(HttpStatus.OK, () -> {
+			recordingService.stop(id);
+			return RecordingDto.from(recordingService.get(id));
+		});
+	}
+
+	//File of recording stopped by request or by its duration, open it with JDK Mission Control or 'jfr print'.
+	//Errors have no body here, like in heapdump endpoint: it can only be written as octet-stream
+	@ReadOperation(produces = "application/octet-stream")
+	public WebEndpointResponse<Resource> file(@Selector long id, @Selector String file) {
+		try {
+			if (!FILE.equals(file)) throw new RecordingNotFoundException(ErrorCode.RECORDING_NOT_FOUND.getFormattedMessage(id));
+			return new WebEndpointResponse<>(new FileSystemResource(recordingService.file(id)));
+		} catch (RecordingNotFoundException e) {
+			log.error(e.getMessage());
+			return new WebEndpointResponse<>(HttpStatus.NOT_FOUND.value());
+		} catch (BadRequestException e) {
+			log.error(e.getMessage());
+			return new WebEndpointResponse<>(HttpStatus.BAD_REQUEST.value());
+		}
+	}
+
+	//Exception handlers of the API don't apply to the management port, so errors are mapped here
+	private static WebEndpointResponse<Object> respond(HttpStatus status, Supplier<Object> operation) {
+		try {
+			return new WebEndpointResponse<>(operation.get(), status.value());
+		} catch (RecordingNotFoundException e) {
+			return error(HttpStatus.NOT_FOUND, e);
+		} catch (BadRequestException e) {
+			return error(HttpStatus.BAD_REQUEST, e);
+		}
+	}
+
+	private static WebEndpointResponse<Object> error(HttpStatus status, RuntimeException e) {
+		log.error(e.getMessage());
+		return new WebEndpointResponse<>(new ExceptionResponseDto(status.value(), e.getClass().getSimpleName(), e.getMessage(),
+				LocalDateTime.now(), PATH), status.value());
+	}
+}
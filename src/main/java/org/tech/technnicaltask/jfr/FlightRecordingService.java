@@ -0,0 +1,152 @@
+package org.tech.technnicaltask.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.exceptions.RecordingNotFoundException;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * On-demand JDK Flight Recorder recordings of this process, bounded by duration and size.
+ * One recording runs at a time. It is written to a file when stopped by request or when its duration expires,
+ * only the latest recording and its file are kept.
+ */
+@Slf4j
+public class FlightRecordingService {
+
+	private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	private final ProfilingProperties properties;
+
+	//Latest recording, guarded by this
+	private Recording recording;
+
+	private Path file;
+
+	public FlightRecordingService(ProfilingProperties properties) {
+		this.properties = properties;
+	}
+
+	//Duration like 30s, 5m or PT5M
+	public synchronized Recording start(String duration, String settings) {
+		Duration length = duration != null ? parseDuration(duration) : properties.getDefaultDuration();
+		if (length.toSeconds() < 1 || length.compareTo(properties.getMaxDuration()) > 0) {
+			throw new BadRequestException(ErrorCode.INVALID_RECORDING_DURATION.getFormattedMessage(
+					length, properties.getMaxDuration().toSeconds()));
+		}
+		if (recording != null && isRunning(recording)) {
+			throw new BadRequestException(ErrorCode.RECORDING_IN_PROGRESS.getFormattedMessage(recording.getId()));
+		}
+		Configuration configuration = configuration(settings != null ? settings : properties.getSettings());
+		discard();
+		try {
+			Path directory = Path.of(properties.getDirectory());
+			Files.createDirectories(directory);
+			Recording started = new Recording(configuration);
+			started.setName("tasks-" + LocalDateTime.now().format(NAME_FORMAT) + "-" + started.getId());
+			started.setDuration(length);
+			started.setMaxSize(properties.getMaxSize().toBytes());
+			started.setToDisk(true);
+			started.enable(TaskRequestEvent.class).withThreshold(properties.getEventThreshold());
+			started.enable(TaskOperationEvent.class).withThreshold(properties.getEventThreshold());
+			//Environment variables, system properties and JVM arguments (JAVA_OPTS) hold credentials like DB_PASSWORD,
+			//they must not end up in the file
+			started.disable("jdk.InitialEnvironmentVariable");
+			started.disable("jdk.InitialSystemProperty");
+			started.disable("jdk.JVMInformation");
+			file = directory.resolve(started.getName() + ".jfr").toAbsolutePath();
+			started.setDestination(file);
+			started.start();
+			recording = started;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		log.info("Flight recording {} started: {} settings, duration {}, max size {}", recording.getId(),
+				configuration.getName(), length, properties.getMaxSize());
+		return recording;
+	}
+
+	public synchronized Recording get(long id) {
+		if (recording == null || recording.getId() != id) {
+			throw new RecordingNotFoundException(ErrorCode.RECORDING_NOT_FOUND.getFormattedMessage(id));
+		}
+		return recording;
+	}
+
+	//Stops running recording (its file is written) and returns the file
+	public synchronized Path stop(long id) {
+		Recording current = get(id);
+		if (isRunning(current)) {
+			current.stop();
+			log.info("Flight recording {} stopped, written to {}", id, file);
+		}
+		return file(id);
+	}
+
+	public synchronized Path file(long id) {
+		Recording current = get(id);
+		if (isRunning(current)) {
+			throw new BadRequestException(ErrorCode.RECORDING_NOT_FINISHED.getFormattedMessage(id));
+		}
+		if (!Files.exists(file)) {
+			throw new RecordingNotFoundException(ErrorCode.RECORDING_NOT_FOUND.getFormattedMessage(id));
+		}
+		return file;
+	}
+
+	//Running recording is dropped without writing it
+	@PreDestroy
+	public synchronized void close() {
+		if (recording != null) recording.close();
+	}
+
+	private void discard() {
+		if (recording == null) return;
+		recording.close();
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("Failed to delete previous flight recording {}: {}", file, e.getMessage());
+		}
+		recording = null;
+	}
+
+	private Duration parseDuration(String duration) {
+		try {
+			return DurationStyle.detectAndParse(duration);
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException(ErrorCode.INVALID_RECORDING_DURATION.getFormattedMessage(
+					duration, properties.getMaxDuration().toSeconds()));
+		}
+	}
+
+	private static boolean isRunning(Recording recording) {
+		RecordingState state = recording.getState();
+		return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+	}
+
+	//Only settings shipped with JDK are accepted
+	private static Configuration configuration(String name) {
+		if (!"default".equals(name) && !"profile".equals(name)) {
+			throw new BadRequestException(ErrorCode.INVALID_RECORDING_SETTINGS.getFormattedMessage(name));
+		}
+		try {
+			return Configuration.getConfiguration(name);
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException("JFR settings '" + name + "' are not available", e);
+		}
+	}
+}
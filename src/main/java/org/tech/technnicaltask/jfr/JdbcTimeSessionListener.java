@@ -0,0 +1,37 @@
+package org.tech.technnicaltask.jfr;
+
+import org.hibernate.SessionEventListener;
+
+//JDBC time of Hibernate sessions: connection acquisition, statements and batches, including flush on commit
+public class JdbcTimeSessionListener implements SessionEventListener {
+
+	@Override
+	public void jdbcConnectionAcquisitionStart() {
+		OperationTrace.dbStart();
+	}
+
+	@Override
+	public void jdbcConnectionAcquisitionEnd() {
+		OperationTrace.dbEnd();
+	}
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		OperationTrace.dbStart();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		OperationTrace.dbEnd();
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		OperationTrace.dbStart();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		OperationTrace.dbEnd();
+	}
+}
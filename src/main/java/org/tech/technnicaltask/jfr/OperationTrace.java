@@ -0,0 +1,89 @@
+package org.tech.technnicaltask.jfr;
+
+import org.tech.technnicaltask.history.TaskChange;
+import org.tech.technnicaltask.utils.Status;
+
+/**
+ * Database time, rows touched and status transition of the task request or operation running on current thread.
+ * A trace exists only while its events are recorded, otherwise every static method is a single ThreadLocal read.
+ * Nested database measurements (statements inside repository call) are counted once, by the outermost one.
+ */
+public final class OperationTrace {
+
+	private static final ThreadLocal<OperationTrace> CURRENT = new ThreadLocal<>();
+
+	private long dbNanos;
+
+	private int dbDepth;
+
+	private long dbStarted;
+
+	private long rows;
+
+	private Status statusBefore;
+
+	private Status statusAfter;
+
+	private boolean statusRecorded;
+
+	private OperationTrace() {
+	}
+
+	public static OperationTrace current() {
+		return CURRENT.get();
+	}
+
+	//Must be closed by the same caller with end()
+	public static OperationTrace start() {
+		OperationTrace trace = new OperationTrace();
+		CURRENT.set(trace);
+		return trace;
+	}
+
+	public static void end() {
+		CURRENT.remove();
+	}
+
+	public static void dbStart() {
+		OperationTrace trace = CURRENT.get();
+		if (trace != null && trace.dbDepth++ == 0) trace.dbStarted = System.nanoTime();
+	}
+
+	public static void dbEnd() {
+		OperationTrace trace = CURRENT.get();
+		if (trace != null && trace.dbDepth > 0 && --trace.dbDepth == 0) trace.dbNanos += System.nanoTime() - trace.dbStarted;
+	}
+
+	public static void addRows(long rows) {
+		OperationTrace trace = CURRENT.get();
+		if (trace != null) trace.rows += rows;
+	}
+
+	public static void recordChange(TaskChange change) {
+		OperationTrace trace = CURRENT.get();
+		if (trace == null || change == null) return;
+		trace.statusBefore = change.before() != null ? change.before().status() : null;
+		trace.statusAfter = change.after() != null ? change.after().status() : null;
+		trace.statusRecorded = true;
+	}
+
+	public long dbNanos() {
+		return dbNanos;
+	}
+
+	public long rows() {
+		return rows;
+	}
+
+	public boolean isStatusRecorded() {
+		return statusRecorded;
+	}
+
+	public Status statusBefore() {
+		return statusBefore;
+	}
+
+	public Status statusAfter() {
+		return statusAfter;
+	}
+}
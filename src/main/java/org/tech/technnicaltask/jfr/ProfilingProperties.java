@@ -0,0 +1,33 @@
+package org.tech.technnicaltask.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.profiling")
+public class ProfilingProperties {
+
+	//Recordings endpoint on the management port, off by default
+	private boolean enabled = false;
+
+	//Recording files are written here, only the latest one is kept
+	private String directory = "data/recordings";
+
+	//Used when duration is not given in request
+	private Duration defaultDuration = Duration.ofMinutes(1);
+
+	//Longer recordings are rejected
+	private Duration maxDuration = Duration.ofMinutes(10);
+
+	//Oldest data is dropped when recording grows bigger
+	private DataSize maxSize = DataSize.ofMegabytes(100);
+
+	//JDK settings used when they are not given in request: "default" (about 1% overhead) or "profile" (about 2%, more detail)
+	private String settings = "profile";
+
+	//Task requests and operations faster than this are not recorded
+	private Duration eventThreshold = Duration.ZERO;
+}
@@ -0,0 +1,40 @@
+package org.tech.technnicaltask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+//One TaskService call. Event duration is total time of the call, including commit
+@Name("org.tech.technnicaltask.TaskOperation")
+@Label("Task Operation")
+@Category({"Tasks", "Service"})
+@Description("TaskService call with its database time, rows touched and status transition")
+@StackTrace(false)
+public class TaskOperationEvent extends Event {
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Task Id")
+	public String taskId;
+
+	@Label("Status Before")
+	public String statusBefore;
+
+	@Label("Status After")
+	public String statusAfter;
+
+	@Label("Database Time")
+	@Timespan(Timespan.NANOSECONDS)
+	public long dbTime;
+
+	@Label("Rows Touched")
+	public long rows;
+
+	@Label("Error")
+	public String error;
+}
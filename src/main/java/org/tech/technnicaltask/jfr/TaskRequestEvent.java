@@ -0,0 +1,47 @@
+package org.tech.technnicaltask.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+//One call of TaskRestControllerV1 endpoint. Event duration is time in the controller (without body serialization)
+@Name("org.tech.technnicaltask.TaskRequest")
+@Label("Task Request")
+@Category({"Tasks", "HTTP"})
+@Description("Task endpoint call with its database time, rows touched and status transition")
+@StackTrace(false)
+public class TaskRequestEvent extends Event {
+
+	@Label("Method")
+	public String method;
+
+	@Label("Endpoint")
+	public String endpoint;
+
+	@Label("Task Id")
+	public String taskId;
+
+	//0 when endpoint failed with exception, see error
+	@Label("Response Status")
+	public int responseStatus;
+
+	@Label("Status Before")
+	public String statusBefore;
+
+	@Label("Status After")
+	public String statusAfter;
+
+	@Label("Database Time")
+	@Timespan(Timespan.NANOSECONDS)
+	public long dbTime;
+
+	@Label("Rows Touched")
+	public long rows;
+
+	@Label("Error")
+	public String error;
+}
@@ -4,6 +4,7 @@ import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 import org.tech.technnicaltask.exceptions.BadRequestException;
 import org.tech.technnicaltask.utils.ErrorCode;
+import org.tech.technnicaltask.utils.UuidParser;
 
 import java.util.UUID;
 
@@ -11,10 +12,10 @@ import java.util.UUID;
 public class StringToUUIDConverter implements Converter<String, UUID> {
 	@Override
 	public UUID convert(String source) {
-		try {
-			return UUID.fromString(source);
-		} catch (IllegalArgumentException e) {
-			throw new BadRequestException(ErrorCode.INVALID_UUID.getFormattedMessage(source), e);
+		UUID uuid = UuidParser.parse(source);
+		if (uuid == null) {
+			throw new BadRequestException(ErrorCode.INVALID_UUID.getFormattedMessage(source));
 		}
+		return uuid;
 	}
 }
@@ -0,0 +1,119 @@
+package org.tech.technnicaltask.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.tech.technnicaltask.dto.ExceptionResponseDto;
+import org.tech.technnicaltask.utils.ClientKeys;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+//Rejects over-limit requests with 429 before they reach controller, validation or DB
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private final LimitGroup read;
+
+	private final LimitGroup write;
+
+	private final ObjectMapper objectMapper;
+
+	private final boolean trustClientId;
+
+	public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+		this.trustClientId = properties.isTrustClientId();
+		this.read = new LimitGroup("read", properties.getRead(), properties.getClientSlots(), meterRegistry);
+		this.write = new LimitGroup("write", properties.getWrite(), properties.getClientSlots(), meterRegistry);
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		LimitGroup group = isRead(request.getMethod()) ? read : write;
+		long waitNanos = group.tryAcquire(clientKey(request), System.nanoTime());
+		if (waitNanos == 0) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		reject(request, response, group.kind, waitNanos);
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, String kind, long waitNanos) throws IOException {
+		long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)); //rounding up
+		String message = ErrorCode.TOO_MANY_REQUESTS.getFormattedMessage(kind, retryAfterSeconds);
+		log.warn("{} (client={}, uri={})", message, clientKey(request), request.getRequestURI());
+
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), new ExceptionResponseDto(
+				HttpStatus.TOO_MANY_REQUESTS.value(), "TooManyRequests", message, LocalDateTime.now(), request.getRequestURI()));
+	}
+
+	//X-Client-Id is chosen by the client, so it's a key only when a trusted gateway sets it
+	private String clientKey(HttpServletRequest request) {
+		return trustClientId ? ClientKeys.resolve(request) : request.getRemoteAddr();
+	}
+
+	private static boolean isRead(String method) {
+		return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+	}
+
+	//Per-client and global buckets for one kind of requests (read or write)
+	private static class LimitGroup {
+
+		private final String kind;
+
+		private final TokenBucketTable clients;
+
+		private final TokenBucketTable global;
+
+		private final Counter clientRejections;
+
+		private final Counter globalRejections;
+
+		private LimitGroup(String kind, RateLimitProperties.Limit limit, int clientSlots, MeterRegistry meterRegistry) {
+			this.kind = kind;
+			this.clients = new TokenBucketTable(clientSlots, limit.getClientPermitsPerSecond(), limit.getClientBurst());
+			this.global = new TokenBucketTable(1, limit.getGlobalPermitsPerSecond(), limit.getGlobalBurst());
+			this.clientRejections = rejectionCounter(meterRegistry, kind, "client");
+			this.globalRejections = rejectionCounter(meterRegistry, kind, "global");
+		}
+
+		//Client bucket is checked first, so a misbehaving client can't drain the global bucket.
+		//Client token is given back when the global bucket rejects the request
+		private long tryAcquire(String clientKey, long nowNanos) {
+			long waitNanos = clients.tryAcquire(clientKey, nowNanos);
+			if (waitNanos > 0) {
+				clientRejections.increment();
+				return waitNanos;
+			}
+			waitNanos = global.tryAcquireSlot(0, nowNanos);
+			if (waitNanos > 0) {
+				clients.refund(clientKey);
+				globalRejections.increment();
+			}
+			return waitNanos;
+		}
+
+		private static Counter rejectionCounter(MeterRegistry meterRegistry, String kind, String scope) {
+			return Counter.builder("tasks.ratelimit.rejected")
+					.description("Requests rejected by rate limiter")
+					.tag("kind", kind)
+					.tag("scope", scope)
+					.register(meterRegistry);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package org.tech.technnicaltask.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+	private boolean enabled = true;
+
+	//Number of bucket slots per client table (client keys are hashed onto these slots)
+	private int clientSlots = 4096;
+
+	//Clients are limited by remote address. X-Client-Id is used instead only if a gateway in front of the service
+	//sets it from verified identity, otherwise a client could rotate ids to get around its limit
+	private boolean trustClientId = false;
+
+	//Limits for GET requests
+	private Limit read = new Limit(50, 100, 2000, 4000);
+
+	//Limits for POST, PUT, DELETE requests
+	private Limit write = new Limit(10, 20, 500, 1000);
+
+	@Data
+	public static class Limit {
+		private double clientPermitsPerSecond;
+		private int clientBurst;
+		private double globalPermitsPerSecond;
+		private int globalBurst;
+
+		public Limit() {
+		}
+
+		public Limit(double clientPermitsPerSecond, int clientBurst, double globalPermitsPerSecond, int globalBurst) {
+			this.clientPermitsPerSecond = clientPermitsPerSecond;
+			this.clientBurst = clientBurst;
+			this.globalPermitsPerSecond = globalPermitsPerSecond;
+			this.globalBurst = globalBurst;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package org.tech.technnicaltask.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Fixed-size table of lock-free token buckets.
+//Every slot keeps only the "theoretical arrival time" of the next token (GCRA form of the token bucket),
+//so a bucket is a single long updated with CAS. Client keys are hashed onto a fixed number of slots,
+//which keeps memory bounded no matter how many distinct clients are seen.
+public class TokenBucketTable {
+
+	private final AtomicLongArray arrivalTimes;
+
+	private final int mask;
+
+	//Time needed to refill one token
+	private final long emissionIntervalNanos;
+
+	//How far the arrival time may run ahead of "now" (burst capacity minus one token)
+	private final long burstToleranceNanos;
+
+	public TokenBucketTable(int slots, double permitsPerSecond, int burst) {
+		if (permitsPerSecond <= 0 || burst <= 0) {
+			throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+		}
+		int size = Integer.highestOneBit(Math.max(1, slots - 1) << 1); //rounding up to power of two
+		this.arrivalTimes = new AtomicLongArray(size);
+		this.mask = size - 1;
+		this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+		this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+	}
+
+	//Tries to take one token for the key. Returns 0 if token is taken, otherwise nanos until the next token is available
+	public long tryAcquire(Object key, long nowNanos) {
+		return tryAcquireSlot(slotOf(key), nowNanos);
+	}
+
+	public long tryAcquireSlot(int slot, long nowNanos) {
+		while (true) {
+			long stored = arrivalTimes.get(slot);
+			long arrival = stored == 0 ? nowNanos : Math.max(stored, nowNanos);
+			long waitNanos = arrival - burstToleranceNanos - nowNanos;
+			if (waitNanos > 0) {
+				return waitNanos;
+			}
+			if (arrivalTimes.compareAndSet(slot, stored, arrival + emissionIntervalNanos)) {
+				return 0;
+			}
+		}
+	}
+
+	//Gives back a token taken by tryAcquire, used when the request is rejected by another bucket afterwards
+	public void refund(Object key) {
+		refundSlot(slotOf(key));
+	}
+
+	public void refundSlot(int slot) {
+		while (true) {
+			long stored = arrivalTimes.get(slot);
+			if (stored == 0 || arrivalTimes.compareAndSet(slot, stored, stored - emissionIntervalNanos)) {
+				return;
+			}
+		}
+	}
+
+	public int size() {
+		return mask + 1;
+	}
+
+	private int slotOf(Object key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16); //spreading high bits, same as HashMap
+		return h & mask;
+	}
+}
@@ -1,11 +1,21 @@
 package org.tech.technnicaltask.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.repository.Repository;
 import org.tech.technnicaltask.entity.TaskEntity;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-@Repository
-public interface TaskRepository extends JpaRepository<TaskEntity, UUID> {
+//Only operations used by TaskService, so the repository can be replaced by sharded implementation
+@org.springframework.stereotype.Repository
+public interface TaskRepository extends Repository<TaskEntity, UUID> {
+
+	Optional<TaskEntity> findById(UUID id);
+
+	List<TaskEntity> findAll();
+
+	TaskEntity save(TaskEntity entity);
+
+	void delete(TaskEntity entity);
 }
@@ -0,0 +1,168 @@
+package org.tech.technnicaltask.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.tech.technnicaltask.exceptions.ServiceUnavailableException;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. Outcomes of the last calls are kept in a ring buffer,
+ * breaker opens when failure rate or slow call rate reaches its threshold.
+ * After open duration a few trial calls are permitted (half-open), their outcome closes or opens the breaker again.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private static final byte FAILED = 1;
+
+	private static final byte SLOW = 2;
+
+	private final String name;
+
+	private final int minimumCalls;
+
+	private final int failureRateThreshold;
+
+	private final int slowCallRateThreshold;
+
+	private final long slowCallNanos;
+
+	private final long openNanos;
+
+	private final int halfOpenCalls;
+
+	private final LongSupplier nanoClock;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Counter rejected;
+
+	//Outcomes (FAILED | SLOW bits) of calls in current state
+	private final byte[] window;
+
+	private int windowNext;
+
+	private int windowCalls;
+
+	private int windowFailures;
+
+	private int windowSlowCalls;
+
+	private volatile State state = State.CLOSED;
+
+	//Incremented on every transition, outcomes of calls permitted before it are ignored
+	private long generation;
+
+	private long openedAt;
+
+	private int halfOpenPermits;
+
+	public CircuitBreaker(String name, CircuitBreakerProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+		this.name = name;
+		this.minimumCalls = Math.max(1, properties.getMinimumCalls());
+		this.failureRateThreshold = properties.getFailureRateThreshold();
+		this.slowCallRateThreshold = properties.getSlowCallRateThreshold();
+		this.slowCallNanos = properties.getSlowCallDuration().toNanos();
+		this.openNanos = properties.getOpenDuration().toNanos();
+		this.halfOpenCalls = Math.max(1, properties.getHalfOpenCalls());
+		this.window = new byte[Math.max(properties.getSlidingWindowSize(), Math.max(minimumCalls, halfOpenCalls))];
+		this.nanoClock = nanoClock;
+		this.meterRegistry = meterRegistry;
+		this.rejected = Counter.builder("tasks.circuitbreaker.rejected")
+				.description("Calls rejected by open circuit breaker")
+				.tag("name", name)
+				.register(meterRegistry);
+		Gauge.builder("tasks.circuitbreaker.state", this, breaker -> breaker.state.ordinal())
+				.description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+				.tag("name", name)
+				.register(meterRegistry);
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	//Returns permission (generation) which is passed to record() with call outcome
+	public synchronized long acquire() {
+		long now = nanoClock.getAsLong();
+		if (state == State.OPEN) {
+			long remaining = openedAt + openNanos - now;
+			if (remaining > 0) {
+				throw reject(remaining);
+			}
+			transition(State.HALF_OPEN, now);
+		}
+		if (state == State.HALF_OPEN) {
+			if (halfOpenPermits == 0) {
+				throw reject(0); //trial calls are still running
+			}
+			halfOpenPermits--;
+		}
+		return generation;
+	}
+
+	public synchronized void record(long permission, long durationNanos, boolean failed) {
+		if (permission != generation) return;
+		byte outcome = (byte) ((failed ? FAILED : 0) | (durationNanos >= slowCallNanos ? SLOW : 0));
+		if (windowCalls == window.length) {
+			forget(window[windowNext]);
+		} else {
+			windowCalls++;
+		}
+		window[windowNext] = outcome;
+		windowNext = (windowNext + 1) % window.length;
+		if ((outcome & FAILED) != 0) windowFailures++;
+		if ((outcome & SLOW) != 0) windowSlowCalls++;
+
+		if (state == State.HALF_OPEN) {
+			if (windowCalls >= halfOpenCalls) {
+				transition(thresholdReached() ? State.OPEN : State.CLOSED, nanoClock.getAsLong());
+			}
+		} else if (windowCalls >= minimumCalls && thresholdReached()) {
+			transition(State.OPEN, nanoClock.getAsLong());
+		}
+	}
+
+	private void forget(byte outcome) {
+		if ((outcome & FAILED) != 0) windowFailures--;
+		if ((outcome & SLOW) != 0) windowSlowCalls--;
+	}
+
+	private boolean thresholdReached() {
+		return windowFailures * 100L >= (long) failureRateThreshold * windowCalls
+				|| windowSlowCalls * 100L >= (long) slowCallRateThreshold * windowCalls;
+	}
+
+	private void transition(State to, long now) {
+		State from = state;
+		log.warn("Circuit breaker '{}' {} -> {} (calls={}, failed={}, slow={})",
+				name, from, to, windowCalls, windowFailures, windowSlowCalls);
+		state = to;
+		generation++;
+		windowNext = windowCalls = windowFailures = windowSlowCalls = 0;
+		if (to == State.OPEN) openedAt = now;
+		if (to == State.HALF_OPEN) halfOpenPermits = halfOpenCalls;
+		Counter.builder("tasks.circuitbreaker.transitions")
+				.description("Circuit breaker state transitions")
+				.tag("name", name)
+				.tag("from", from.name())
+				.tag("to", to.name())
+				.register(meterRegistry)
+				.increment();
+	}
+
+	private ServiceUnavailableException reject(long remainingNanos) {
+		rejected.increment();
+		long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + 999_999_999L)); //rounding up
+		return new ServiceUnavailableException(ErrorCode.STORAGE_UNAVAILABLE.getFormattedMessage(retryAfterSeconds), retryAfterSeconds);
+	}
+}
@@ -0,0 +1,44 @@
+package org.tech.technnicaltask.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.circuit-breaker")
+public class CircuitBreakerProperties {
+
+	private boolean enabled = true;
+
+	//Number of last calls used to calculate failure and slow call rates
+	private int slidingWindowSize = 100;
+
+	//Rates are not evaluated until window has at least this many calls
+	private int minimumCalls = 20;
+
+	//Percent of failed calls which opens the breaker
+	private int failureRateThreshold = 50;
+
+	//Calls longer than this are counted as slow
+	private Duration slowCallDuration = Duration.ofSeconds(2);
+
+	//Percent of slow calls which opens the breaker
+	private int slowCallRateThreshold = 80;
+
+	//How long calls are rejected before trial calls are permitted
+	private Duration openDuration = Duration.ofSeconds(30);
+
+	//Number of trial calls in half-open state, their outcome closes or opens the breaker again
+	private int halfOpenCalls = 5;
+
+	private StaleReads staleReads = new StaleReads();
+
+	//Opt-in fallback: recently read tasks are served from memory while the storage is unavailable
+	@Data
+	public static class StaleReads {
+		private boolean enabled = false;
+		private int capacity = 10_000;
+		private Duration maxAge = Duration.ofMinutes(10);
+	}
+}
@@ -0,0 +1,97 @@
+package org.tech.technnicaltask.resilience;
+
+import org.tech.technnicaltask.dto.TaskDto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+//Bounded LRU of tasks last returned by the storage, used as fallback while circuit breaker is open
+public class LastKnownGoodTasks {
+
+	//Set while calls of current thread must not change the store, e.g. synthetic tasks of warm-up
+	private static final ThreadLocal<Boolean> SUSPENDED = new ThreadLocal<>();
+
+	private final long maxAgeNanos;
+
+	private final LongSupplier nanoClock;
+
+	private final Map<UUID, Entry> entries;
+
+	public LastKnownGoodTasks(int capacity, long maxAgeNanos, LongSupplier nanoClock) {
+		this.maxAgeNanos = maxAgeNanos;
+		this.nanoClock = nanoClock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	public record Stale(TaskDto task, long ageSeconds) {
+	}
+
+	//Results of TaskService calls made by the action are not remembered, so they don't evict real tasks
+	public static void withoutRemembering(Runnable action) {
+		SUSPENDED.set(Boolean.TRUE);
+		try {
+			action.run();
+		} finally {
+			SUSPENDED.remove();
+		}
+	}
+
+	public static boolean isSuspended() {
+		return SUSPENDED.get() != null;
+	}
+
+	private record Entry(TaskDto task, long storedAt) {
+	}
+
+	public void put(TaskDto task) {
+		if (task == null || task.getId() == null) return;
+		Entry entry = new Entry(copy(task), nanoClock.getAsLong());
+		synchronized (entries) {
+			entries.put(task.getId(), entry);
+		}
+	}
+
+	public void remove(UUID id) {
+		synchronized (entries) {
+			entries.remove(id);
+		}
+	}
+
+	//Returns copy of the task or null when it is unknown or older than max age
+	public Stale get(UUID id) {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(id);
+		}
+		if (entry == null) return null;
+		long age = nanoClock.getAsLong() - entry.storedAt();
+		if (age > maxAgeNanos) return null;
+		return new Stale(copy(entry.task()), TimeUnit.NANOSECONDS.toSeconds(age));
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	//TaskDto is mutable, stored and returned tasks must not share state with callers
+	private static TaskDto copy(TaskDto task) {
+		return TaskDto.builder()
+				.id(task.getId())
+				.title(task.getTitle())
+				.description(task.getDescription())
+				.status(task.getStatus())
+				.createdAt(task.getCreatedAt())
+				.updatedAt(task.getUpdatedAt())
+				.build();
+	}
+}
@@ -0,0 +1,145 @@
+package org.tech.technnicaltask.search;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.utils.Status;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Tasks table of one database or of all shards. Rows are streamed with fetch size, not loaded at once.
+ * During rebalancing a task can be present on two shards, then only the row of its current owner is used.
+ */
+public class JdbcTaskSource implements TaskSource {
+
+	private static final String SELECT = "SELECT id, title, description, status, updated_at FROM tasks";
+
+	private static final String SELECT_VERSIONS = "SELECT id, updated_at FROM tasks";
+
+	private static final String SELECT_RECENT = SELECT_VERSIONS + " ORDER BY updated_at DESC NULLS LAST LIMIT ?";
+
+	private final List<DataSource> shards;
+
+	//Owner shard of a task id, null for single database
+	private final ToIntFunction<UUID> shardOf;
+
+	private final int fetchSize;
+
+	public JdbcTaskSource(List<DataSource> shards, ToIntFunction<UUID> shardOf, int fetchSize) {
+		this.shards = List.copyOf(shards);
+		this.shardOf = shardOf;
+		this.fetchSize = fetchSize;
+	}
+
+	@Override
+	public void scan(Consumer<TaskEntity> consumer) {
+		for (int shard = 0; shard < shards.size(); shard++) {
+			int current = shard;
+			stream(shard, SELECT, rs -> {
+				UUID id = rs.getObject("id", UUID.class);
+				if (isOwnedBy(current, id)) consumer.accept(toEntity(id, rs));
+			});
+		}
+	}
+
+	@Override
+	public void scanVersions(BiConsumer<UUID, LocalDateTime> consumer) {
+		for (int shard = 0; shard < shards.size(); shard++) {
+			int current = shard;
+			stream(shard, SELECT_VERSIONS, rs -> {
+				UUID id = rs.getObject("id", UUID.class);
+				if (isOwnedBy(current, id)) consumer.accept(id, toLocalDateTime(rs.getTimestamp("updated_at")));
+			});
+		}
+	}
+
+	@Override
+	public List<TaskEntity> findAllById(Collection<UUID> ids) {
+		List<TaskEntity> tasks = new ArrayList<>(ids.size());
+		UUID[] array = ids.toArray(UUID[]::new);
+		for (int shard = 0; shard < shards.size(); shard++) {
+			int current = shard;
+			new JdbcTemplate(shards.get(shard)).query(SELECT + " WHERE id = ANY(?)", rs -> {
+				UUID id = rs.getObject("id", UUID.class);
+				if (isOwnedBy(current, id)) tasks.add(toEntity(id, rs));
+			}, (Object) array);
+		}
+		return tasks;
+	}
+
+	//Newest tasks of every shard, merged
+	@Override
+	public List<UUID> findRecentlyUpdated(int limit) {
+		if (limit <= 0) return List.of();
+		List<Map.Entry<UUID, LocalDateTime>> versions = new ArrayList<>();
+		for (int shard = 0; shard < shards.size(); shard++) {
+			int current = shard;
+			new JdbcTemplate(shards.get(shard)).query(SELECT_RECENT, rs -> {
+				UUID id = rs.getObject("id", UUID.class);
+				if (isOwnedBy(current, id)) versions.add(new AbstractMap.SimpleEntry<>(id, toLocalDateTime(rs.getTimestamp("updated_at"))));
+			}, limit);
+		}
+		return versions.stream()
+				.sorted(Map.Entry.<UUID, LocalDateTime>comparingByValue(Comparator.nullsFirst(Comparator.naturalOrder())).reversed())
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+
+	@FunctionalInterface
+	private interface RowHandler {
+		void accept(ResultSet rs) throws SQLException;
+	}
+
+	private void stream(int shard, String sql, RowHandler handler) {
+		try (Connection connection = shards.get(shard).getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false); //PostgreSQL streams rows with fetch size only inside transaction
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				statement.setFetchSize(fetchSize);
+				try (ResultSet rs = statement.executeQuery()) {
+					while (rs.next()) handler.accept(rs);
+				}
+			} finally {
+				connection.commit();
+				connection.setAutoCommit(autoCommit);
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Failed to read tasks of shard " + shard, e);
+		}
+	}
+
+	private boolean isOwnedBy(int shard, UUID id) {
+		return shardOf == null || shardOf.applyAsInt(id) == shard;
+	}
+
+	private static TaskEntity toEntity(UUID id, ResultSet rs) throws SQLException {
+		return TaskEntity.builder()
+				.id(id)
+				.title(rs.getString("title"))
+				.description(rs.getString("description"))
+				.status(Status.valueOf(rs.getString("status")))
+				.updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+				.build();
+	}
+
+	private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+		return timestamp != null ? timestamp.toLocalDateTime() : null;
+	}
+}
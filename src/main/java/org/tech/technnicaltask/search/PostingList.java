@@ -0,0 +1,106 @@
+package org.tech.technnicaltask.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Documents containing one term, in ascending order of document number.
+ * Stored as varint-encoded (gap to previous document, term frequency) pairs, usually 2-3 bytes per document.
+ * Documents are only appended, changed document gets a new number (see TaskSearchIndex).
+ */
+final class PostingList {
+
+	@FunctionalInterface
+	interface Visitor {
+		void accept(int doc, int frequency);
+	}
+
+	private byte[] data;
+
+	private int length;
+
+	private int lastDoc = -1;
+
+	private int docs;
+
+	PostingList() {
+		this.data = new byte[8];
+	}
+
+	private PostingList(byte[] data, int lastDoc, int docs) {
+		this.data = data;
+		this.length = data.length;
+		this.lastDoc = lastDoc;
+		this.docs = docs;
+	}
+
+	void add(int doc, int frequency) {
+		if (doc <= lastDoc) throw new IllegalArgumentException("Document " + doc + " is not after " + lastDoc);
+		ensureCapacity(10);
+		writeVarint(doc - lastDoc);
+		writeVarint(frequency);
+		lastDoc = doc;
+		docs++;
+	}
+
+	void forEach(Visitor visitor) {
+		int position = 0;
+		int doc = -1;
+		while (position < length) {
+			int gap = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = data[position++];
+				gap |= (b & 0x7F) << shift;
+				if (b >= 0) break;
+			}
+			int frequency = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = data[position++];
+				frequency |= (b & 0x7F) << shift;
+				if (b >= 0) break;
+			}
+			doc += gap;
+			visitor.accept(doc, frequency);
+		}
+	}
+
+	//Number of documents, including deleted ones which are not compacted yet
+	int docs() {
+		return docs;
+	}
+
+	int sizeInBytes() {
+		return length;
+	}
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(docs);
+		out.writeInt(lastDoc);
+		out.writeInt(length);
+		out.write(data, 0, length);
+	}
+
+	static PostingList read(DataInputStream in) throws IOException {
+		int docs = in.readInt();
+		int lastDoc = in.readInt();
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+		return new PostingList(data, lastDoc, docs);
+	}
+
+	private void writeVarint(int value) {
+		while ((value & ~0x7F) != 0) {
+			data[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		data[length++] = (byte) value;
+	}
+
+	private void ensureCapacity(int extra) {
+		if (length + extra > data.length) {
+			data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+		}
+	}
+}
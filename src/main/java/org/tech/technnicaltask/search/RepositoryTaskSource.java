@@ -0,0 +1,35 @@
+package org.tech.technnicaltask.search;
+
+import lombok.RequiredArgsConstructor;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+//Tasks of a repository which keeps them in memory anyway (embedded store)
+@RequiredArgsConstructor
+public class RepositoryTaskSource implements TaskSource {
+
+	private final TaskRepository repository;
+
+	@Override
+	public void scan(Consumer<TaskEntity> consumer) {
+		repository.findAll().forEach(consumer);
+	}
+
+	@Override
+	public void scanVersions(BiConsumer<UUID, LocalDateTime> consumer) {
+		repository.findAll().forEach(task -> consumer.accept(task.getId(), task.getUpdatedAt()));
+	}
+
+	@Override
+	public List<TaskEntity> findAllById(Collection<UUID> ids) {
+		return ids.stream().map(repository::findById).flatMap(Optional::stream).toList();
+	}
+}
@@ -0,0 +1,43 @@
+package org.tech.technnicaltask.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+	private boolean enabled = true;
+
+	//Max number of results of one search (limit parameter)
+	private int maxLimit = 100;
+
+	//Max length of q parameter
+	private int maxQueryLength = 200;
+
+	//Occurrence of a word in title counts as this many occurrences in description
+	private int titleBoost = 2;
+
+	//Shorter query words match only whole words, longer ones also match words starting with them
+	private int minPrefixLength = 2;
+
+	//Max number of indexed words one query word expands to (the shortest ones in alphabetical order)
+	private int maxPrefixExpansions = 64;
+
+	//Rows fetched per round trip while index is built from tasks table
+	private int scanFetchSize = 1000;
+
+	//Local file the index is saved to and loaded from on restart, empty: index is always built from tasks table
+	private String snapshotFile = "";
+
+	//Changed index is saved to snapshot file at least this often
+	private Duration snapshotInterval = Duration.ofMinutes(5);
+
+	//Index is compared with tasks table this often to pick up changes made by other nodes, zero: only at startup
+	private Duration reconcileInterval = Duration.ofMinutes(10);
+
+	//Index is compacted when this share of its documents are old versions of changed or deleted tasks
+	private double compactThreshold = 0.3;
+}
@@ -0,0 +1,526 @@
+package org.tech.technnicaltask.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.tech.technnicaltask.utils.Status;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * In-memory inverted index over task titles and descriptions, ranked with BM25.
+ * Every version of a task is a separate document: changed task gets a new document number and its old document
+ * is marked deleted, so posting lists are only appended to. Deleted documents are dropped by compaction.
+ * Searches run concurrently under read lock, a change holds write lock only while it appends its postings.
+ */
+@Slf4j
+public class TaskSearchIndex {
+
+	//Version of tasks indexed from requests, their updated_at is not known
+	public static final long UNKNOWN_VERSION = Long.MIN_VALUE;
+
+	private static final int MAGIC = 0x54534931; //"TSI1"
+
+	private static final byte DELETED = -1;
+
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	//Words matched by prefix rank a bit lower than the same query word matched exactly
+	private static final double PREFIX_MATCH_WEIGHT = 0.8;
+
+	public record Hit(UUID id, String title, Status status, double score) {
+	}
+
+	private final SearchProperties properties;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	//Sorted, so words starting with a prefix are one sub-map
+	private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+
+	private final Map<UUID, Integer> docsById = new HashMap<>();
+
+	//Columns of documents by document number
+	private UUID[] ids = new UUID[1024];
+
+	private String[] titles = new String[1024];
+
+	private byte[] statuses = new byte[1024];
+
+	private int[] lengths = new int[1024];
+
+	private long[] versions = new long[1024];
+
+	private int docCount;
+
+	private int liveCount;
+
+	private long liveLength;
+
+	//Not null while index is built: tasks changed by requests, rows read from database must not overwrite them
+	private Set<UUID> touched;
+
+	private long modifications;
+
+	public TaskSearchIndex(SearchProperties properties) {
+		this.properties = properties;
+	}
+
+	//Adds task or replaces its previous version
+	public void put(UUID id, String title, String description, Status status, long version) {
+		Document document = document(id, title, description, status, version);
+		lock.writeLock().lock();
+		try {
+			if (touched != null) touched.add(id);
+			store(document);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	//Row read by index build, skipped if the task was changed by a request meanwhile
+	public void putIfUntouched(UUID id, String title, String description, Status status, long version) {
+		Document document = document(id, title, description, status, version);
+		lock.writeLock().lock();
+		try {
+			if (touched != null && touched.contains(id)) return;
+			store(document);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(UUID id) {
+		lock.writeLock().lock();
+		try {
+			if (touched != null) touched.add(id);
+			delete(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	//Returns number of the first document added during build
+	public int startBuild() {
+		lock.writeLock().lock();
+		try {
+			touched = new HashSet<>();
+			return docCount;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void finishBuild() {
+		lock.writeLock().lock();
+		try {
+			touched = null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	//Reconciliation with database: marks task as still present there, returns true if indexed version is current
+	public boolean markSeen(UUID id, long version, BitSet seen) {
+		lock.readLock().lock();
+		try {
+			Integer doc = docsById.get(id);
+			if (doc == null) return false;
+			seen.set(doc);
+			return version != UNKNOWN_VERSION && versions[doc] == version;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	//Reconciliation with database: removes tasks deleted from it by other nodes (or while this node was down).
+	//Documents added since build start are rows just read from database or changes of requests, they are kept
+	public int removeUnseen(BitSet seen, int buildStart) {
+		lock.writeLock().lock();
+		try {
+			List<UUID> removed = new ArrayList<>();
+			for (int doc = seen.nextClearBit(0); doc < buildStart; doc = seen.nextClearBit(doc + 1)) {
+				if (statuses[doc] != DELETED && (touched == null || !touched.contains(ids[doc]))) removed.add(ids[doc]);
+			}
+			removed.forEach(this::delete);
+			return removed.size();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	//All query words must match (by whole word or prefix), best matches first
+	public List<Hit> search(String query, Status status, int limit) {
+		Set<String> tokens = new LinkedHashSet<>(Tokenizer.tokenize(query));
+		if (tokens.isEmpty() || limit < 1) return List.of();
+		lock.readLock().lock();
+		try {
+			if (liveCount == 0) return List.of();
+			double averageLength = (double) liveLength / liveCount;
+			Matches result = null;
+			for (String token : tokens) {
+				Matches matches = match(token, status, averageLength);
+				result = result == null ? matches : result.intersect(matches);
+				if (result.size == 0) return List.of();
+			}
+			return top(result, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	//Compacts if share of deleted documents reached the threshold. Never during build, it relies on document numbers
+	public boolean compactIfNeeded(double threshold) {
+		lock.writeLock().lock();
+		try {
+			int garbage = docCount - liveCount;
+			if (touched != null || garbage == 0 || garbage < threshold * docCount) return false;
+			compact();
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return liveCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int termCount() {
+		lock.readLock().lock();
+		try {
+			return terms.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	//Grows with every change, snapshot is outdated when it differs from the value at the time of snapshot
+	public long modifications() {
+		lock.readLock().lock();
+		try {
+			return modifications;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Writes compacted index to temporary file and atomically replaces the snapshot with it.
+	 * Format: magic, documents (id, status, length, version, title), terms (word, posting list), CRC32C.
+	 * Index is copied to memory under read lock and the file is written after it is released,
+	 * so a slow disk does not hold back changes waiting for write lock (and searches queued behind them).
+	 */
+	public void write(Path file) throws IOException {
+		compactIfNeeded(0);
+		byte[] content = serialize();
+		CRC32C crc = new CRC32C();
+		crc.update(content);
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		if (file.getParent() != null) Files.createDirectories(file.getParent());
+		try (OutputStream stream = Files.newOutputStream(temp);
+			 DataOutputStream out = new DataOutputStream(stream)) {
+			out.write(content);
+			out.writeInt((int) crc.getValue());
+		}
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+		Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	//Snapshot content without checksum, only memory is written under the lock
+	private byte[] serialize() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+		lock.readLock().lock();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes, 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(docCount);
+			for (int doc = 0; doc < docCount; doc++) {
+				out.writeByte(statuses[doc]);
+				if (statuses[doc] == DELETED) continue;
+				out.writeLong(ids[doc].getMostSignificantBits());
+				out.writeLong(ids[doc].getLeastSignificantBits());
+				out.writeInt(lengths[doc]);
+				out.writeLong(versions[doc]);
+				out.writeUTF(titles[doc]);
+			}
+			out.writeInt(terms.size());
+			for (Map.Entry<String, PostingList> term : terms.entrySet()) {
+				out.writeUTF(term.getKey());
+				term.getValue().write(out);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return bytes.toByteArray();
+	}
+
+	//Loads index written by write(), throws IOException if the file is damaged
+	public static TaskSearchIndex read(Path file, SearchProperties properties) throws IOException {
+		TaskSearchIndex index = new TaskSearchIndex(properties);
+		CRC32C crc = new CRC32C();
+		try (InputStream stream = Files.newInputStream(file);
+			 DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(stream, 1 << 16), crc))) {
+			if (in.readInt() != MAGIC) throw new IOException("Not a search index snapshot: " + file);
+			int docCount = in.readInt();
+			index.ensureCapacity(docCount);
+			for (int doc = 0; doc < docCount; doc++) {
+				byte status = in.readByte();
+				index.statuses[doc] = status;
+				if (status == DELETED) continue;
+				UUID id = new UUID(in.readLong(), in.readLong());
+				index.ids[doc] = id;
+				index.lengths[doc] = in.readInt();
+				index.versions[doc] = in.readLong();
+				index.titles[doc] = in.readUTF();
+				index.docsById.put(id, doc);
+				index.liveCount++;
+				index.liveLength += index.lengths[doc];
+			}
+			index.docCount = docCount;
+			int termCount = in.readInt();
+			for (int i = 0; i < termCount; i++) {
+				index.terms.put(in.readUTF(), PostingList.read(in));
+			}
+			int expected = (int) crc.getValue();
+			if (in.readInt() != expected) throw new IOException("Checksum mismatch in search index snapshot: " + file);
+		}
+		return index;
+	}
+
+	//Words of a task with their frequencies, prepared before taking the lock
+	private record Document(UUID id, String title, Status status, long version, Map<String, Integer> frequencies, int length) {
+	}
+
+	private Document document(UUID id, String title, String description, Status status, long version) {
+		Map<String, Integer> frequencies = new HashMap<>();
+		int boost = properties.getTitleBoost();
+		Tokenizer.tokenize(title, token -> frequencies.merge(token, boost, Integer::sum));
+		Tokenizer.tokenize(description, token -> frequencies.merge(token, 1, Integer::sum));
+		int length = 0;
+		for (int frequency : frequencies.values()) length += frequency;
+		return new Document(id, title, status, version, frequencies, length);
+	}
+
+	private void store(Document document) {
+		delete(document.id());
+		ensureCapacity(docCount + 1);
+		int doc = docCount++;
+		ids[doc] = document.id();
+		titles[doc] = document.title();
+		statuses[doc] = (byte) document.status().ordinal();
+		lengths[doc] = document.length();
+		versions[doc] = document.version();
+		docsById.put(document.id(), doc);
+		for (Map.Entry<String, Integer> term : document.frequencies().entrySet()) {
+			terms.computeIfAbsent(term.getKey(), key -> new PostingList()).add(doc, term.getValue());
+		}
+		liveCount++;
+		liveLength += document.length();
+		modifications++;
+	}
+
+	//Document stays in posting lists until compaction, searches skip it by status
+	private void delete(UUID id) {
+		Integer doc = docsById.remove(id);
+		if (doc == null) return;
+		statuses[doc] = DELETED;
+		ids[doc] = null;
+		titles[doc] = null;
+		liveCount--;
+		liveLength -= lengths[doc];
+		modifications++;
+	}
+
+	//Renumbers live documents without gaps and rebuilds posting lists without deleted documents
+	private void compact() {
+		long start = System.nanoTime();
+		int[] remap = new int[docCount];
+		int next = 0;
+		for (int doc = 0; doc < docCount; doc++) {
+			if (statuses[doc] == DELETED) {
+				remap[doc] = -1;
+				continue;
+			}
+			remap[doc] = next;
+			ids[next] = ids[doc];
+			titles[next] = titles[doc];
+			statuses[next] = statuses[doc];
+			lengths[next] = lengths[doc];
+			versions[next] = versions[doc];
+			docsById.put(ids[next], next);
+			next++;
+		}
+		Arrays.fill(ids, next, docCount, null);
+		Arrays.fill(titles, next, docCount, null);
+		int removed = docCount - next;
+		docCount = next;
+		Iterator<Map.Entry<String, PostingList>> iterator = terms.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, PostingList> term = iterator.next();
+			PostingList compacted = new PostingList();
+			term.getValue().forEach((doc, frequency) -> {
+				if (remap[doc] >= 0) compacted.add(remap[doc], frequency);
+			});
+			if (compacted.docs() == 0) iterator.remove();
+			else term.setValue(compacted);
+		}
+		log.info("Search index compacted: {} old documents removed, {} documents and {} words left in {} ms",
+				removed, docCount, terms.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	//Document frequency counts live documents only, it is taken while the postings are scored, so old versions
+	//of changed tasks don't lower IDF of their words until compaction
+	private Matches match(String token, Status status, double averageLength) {
+		ScoreCollector matches = new ScoreCollector();
+		Map<String, PostingList> expansions = token.length() >= properties.getMinPrefixLength()
+				? terms.subMap(token, true, token + Character.MAX_VALUE, false)
+				: exact(token);
+		int expanded = 0;
+		int[] documentFrequency = new int[1];
+		for (Map.Entry<String, PostingList> term : expansions.entrySet()) {
+			if (expanded++ >= properties.getMaxPrefixExpansions()) break;
+			int from = matches.size;
+			documentFrequency[0] = 0;
+			term.getValue().forEach((doc, frequency) -> {
+				byte docStatus = statuses[doc];
+				if (docStatus == DELETED) return;
+				documentFrequency[0]++;
+				if (status != null && docStatus != status.ordinal()) return;
+				double normalized = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengths[doc] / averageLength));
+				matches.add(doc, (float) normalized);
+			});
+			double idf = Math.log(1 + (liveCount - documentFrequency[0] + 0.5) / (documentFrequency[0] + 0.5));
+			matches.scale(from, term.getKey().equals(token) ? idf : idf * PREFIX_MATCH_WEIGHT);
+		}
+		return matches.toMatches();
+	}
+
+	private Map<String, PostingList> exact(String token) {
+		PostingList postings = terms.get(token);
+		return postings == null ? Map.of() : Map.of(token, postings);
+	}
+
+	private List<Hit> top(Matches matches, int limit) {
+		//min-heap of the best matches found so far, newer documents win ties
+		PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> matches.scores[a] != matches.scores[b]
+				? Double.compare(matches.scores[a], matches.scores[b])
+				: Integer.compare(matches.docs[a], matches.docs[b]));
+		for (int i = 0; i < matches.size; i++) {
+			heap.add(i);
+			if (heap.size() > limit) heap.poll();
+		}
+		List<Hit> hits = new ArrayList<>(heap.size());
+		while (!heap.isEmpty()) {
+			int i = heap.poll();
+			int doc = matches.docs[i];
+			hits.add(new Hit(ids[doc], titles[doc], Status.values()[statuses[doc]], matches.scores[i]));
+		}
+		Collections.reverse(hits);
+		return hits;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= ids.length) return;
+		int newCapacity = Math.max(capacity, ids.length * 2);
+		ids = Arrays.copyOf(ids, newCapacity);
+		titles = Arrays.copyOf(titles, newCapacity);
+		statuses = Arrays.copyOf(statuses, newCapacity);
+		lengths = Arrays.copyOf(lengths, newCapacity);
+		versions = Arrays.copyOf(versions, newCapacity);
+	}
+
+	//Matching documents of one query word in ascending document order, or of all words after intersection
+	private record Matches(int[] docs, double[] scores, int size) {
+
+		private Matches intersect(Matches other) {
+			int[] docs = new int[Math.min(size, other.size)];
+			double[] scores = new double[docs.length];
+			int count = 0;
+			for (int i = 0, j = 0; i < size && j < other.size; ) {
+				if (this.docs[i] < other.docs[j]) i++;
+				else if (this.docs[i] > other.docs[j]) j++;
+				else {
+					docs[count] = this.docs[i];
+					scores[count++] = this.scores[i++] + other.scores[j++];
+				}
+			}
+			return new Matches(docs, scores, count);
+		}
+	}
+
+	//(document, score) pairs packed into longs, so sorting groups them by document with the best score last
+	private static final class ScoreCollector {
+
+		private long[] pairs = new long[64];
+
+		private int size;
+
+		private void add(int doc, float score) {
+			if (size == pairs.length) pairs = Arrays.copyOf(pairs, size * 2);
+			pairs[size++] = (long) doc << 32 | Float.floatToIntBits(score); //positive float bits sort like floats
+		}
+
+		//Multiplies scores added since the given position, IDF of a word is known after its postings are read
+		private void scale(int from, double factor) {
+			for (int i = from; i < size; i++) {
+				float score = (float) (Float.intBitsToFloat((int) pairs[i]) * factor);
+				pairs[i] = pairs[i] & 0xFFFFFFFF00000000L | Float.floatToIntBits(score) & 0xFFFFFFFFL;
+			}
+		}
+
+		//Document matched by several words of one prefix gets score of the best of them
+		private Matches toMatches() {
+			Arrays.sort(pairs, 0, size);
+			int[] docs = new int[size];
+			double[] scores = new double[size];
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				int doc = (int) (pairs[i] >>> 32);
+				float score = Float.intBitsToFloat((int) pairs[i]);
+				if (count > 0 && docs[count - 1] == doc) scores[count - 1] = score;
+				else {
+					docs[count] = doc;
+					scores[count++] = score;
+				}
+			}
+			return new Matches(docs, scores, count);
+		}
+	}
+}
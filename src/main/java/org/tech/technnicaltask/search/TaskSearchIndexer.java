@@ -0,0 +1,243 @@
+package org.tech.technnicaltask.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.history.ChangeType;
+import org.tech.technnicaltask.history.TaskChange;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps TaskSearchIndex in sync with tasks. Changes made through TaskService and import are applied after commit,
+ * the index is built after startup with a streaming scan of tasks (or loaded from snapshot file and reconciled
+ * with tasks table by updated_at) and periodically reconciled to pick up changes of other nodes.
+ * Build, compaction and snapshots run on a single background thread.
+ */
+@Slf4j
+public class TaskSearchIndexer {
+
+	private final TaskSearchIndex index;
+
+	private final TaskSource source;
+
+	private final SearchProperties properties;
+
+	//null when snapshots are disabled
+	private final Path snapshotFile;
+
+	private final ExecutorService worker = Executors.newSingleThreadExecutor(
+			runnable -> new Thread(runnable, "task-search-indexer"));
+
+	private final AtomicBoolean maintenanceQueued = new AtomicBoolean();
+
+	//Searches are served: index is built, or loaded from snapshot and being reconciled
+	private volatile boolean ready;
+
+	//Index contains all tasks of the source (at the time of the last build). Used by worker thread only
+	private boolean built;
+
+	private long lastBuild;
+
+	private long snapshotModifications;
+
+	private long lastSnapshot;
+
+	public TaskSearchIndexer(SearchProperties properties, TaskSource source, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.source = source;
+		this.snapshotFile = properties.getSnapshotFile().isBlank() ? null : Path.of(properties.getSnapshotFile());
+		TaskSearchIndex loaded = loadSnapshot();
+		this.index = loaded != null ? loaded : new TaskSearchIndex(properties);
+		this.ready = loaded != null;
+		this.snapshotModifications = index.modifications();
+		this.lastSnapshot = System.nanoTime();
+		Gauge.builder("tasks.search.documents", index, TaskSearchIndex::size).description("Tasks in search index").register(meterRegistry);
+		Gauge.builder("tasks.search.terms", index, TaskSearchIndex::termCount).description("Distinct words in search index").register(meterRegistry);
+	}
+
+	public TaskSearchIndex getIndex() {
+		return index;
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	//Inside transaction the change is applied after commit, so rolled back changes are not searchable
+	public void record(TaskChange change) {
+		if (change == null) return;
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					apply(change);
+				}
+			});
+		} else {
+			apply(change);
+		}
+	}
+
+	//Imported chunk, already written to storage
+	public void indexAll(List<TaskEntity> tasks) {
+		for (TaskEntity task : tasks) {
+			index.put(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), TaskSearchIndex.UNKNOWN_VERSION);
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		maintain();
+	}
+
+	@Scheduled(fixedDelayString = "${app.search.maintenance-interval:1m}")
+	public void maintain() {
+		if (maintenanceQueued.compareAndSet(false, true)) {
+			worker.execute(this::maintainSafely);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		worker.shutdownNow();
+		if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+			log.warn("Search indexer did not stop in time, snapshot is not saved");
+			return;
+		}
+		if (built) saveSnapshot();
+	}
+
+	private void apply(TaskChange change) {
+		if (change.type() == ChangeType.DELETE) {
+			index.remove(change.taskId());
+		} else {
+			TaskChange.Values values = change.after();
+			index.put(change.taskId(), values.title(), values.description(), values.status(), TaskSearchIndex.UNKNOWN_VERSION);
+		}
+	}
+
+	//Build or reconciliation when due, compaction and snapshot. Called by worker thread only
+	void maintainSafely() {
+		maintenanceQueued.set(false);
+		try {
+			if (!built || isDue(lastBuild, properties.getReconcileInterval().toNanos())) build();
+			index.compactIfNeeded(properties.getCompactThreshold());
+			if (index.modifications() != snapshotModifications && isDue(lastSnapshot, properties.getSnapshotInterval().toNanos())) {
+				saveSnapshot();
+			}
+		} catch (RuntimeException e) {
+			log.error("Search index maintenance failed, it will be retried", e);
+		}
+	}
+
+	private void build() {
+		long start = System.nanoTime();
+		boolean full = index.size() == 0;
+		if (full) scanAll();
+		else reconcile();
+		built = true;
+		ready = true;
+		lastBuild = System.nanoTime();
+		log.info("Search index {}: {} tasks, {} words in {} ms", full ? "built" : "reconciled with tasks table",
+				index.size(), index.termCount(), (lastBuild - start) / 1_000_000);
+	}
+
+	private void scanAll() {
+		index.startBuild();
+		try {
+			source.scan(task -> index.putIfUntouched(task.getId(), task.getTitle(), task.getDescription(),
+					task.getStatus(), version(task.getUpdatedAt())));
+		} finally {
+			index.finishBuild();
+		}
+	}
+
+	//Compares updated_at of all tasks with indexed versions, re-reads changed tasks in batches and removes deleted ones
+	private void reconcile() {
+		int buildStart = index.startBuild();
+		try {
+			BitSet seen = new BitSet();
+			List<UUID> changed = new ArrayList<>();
+			long[] refetched = {0};
+			source.scanVersions((id, updatedAt) -> {
+				if (index.markSeen(id, version(updatedAt), seen)) return;
+				changed.add(id);
+				if (changed.size() >= properties.getScanFetchSize()) {
+					refetched[0] += refetch(changed);
+				}
+			});
+			refetched[0] += refetch(changed);
+			int removed = index.removeUnseen(seen, buildStart);
+			log.debug("Search index reconciliation: {} tasks re-read, {} removed", refetched[0], removed);
+		} finally {
+			index.finishBuild();
+		}
+	}
+
+	private int refetch(List<UUID> ids) {
+		if (ids.isEmpty()) return 0;
+		List<TaskEntity> tasks = source.findAllById(ids);
+		for (TaskEntity task : tasks) {
+			index.putIfUntouched(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), version(task.getUpdatedAt()));
+		}
+		ids.clear();
+		return tasks.size();
+	}
+
+	private TaskSearchIndex loadSnapshot() {
+		if (snapshotFile == null || !Files.exists(snapshotFile)) return null;
+		long start = System.nanoTime();
+		try {
+			TaskSearchIndex loaded = TaskSearchIndex.read(snapshotFile, properties);
+			log.info("Search index loaded from {}: {} tasks in {} ms", snapshotFile, loaded.size(),
+					(System.nanoTime() - start) / 1_000_000);
+			return loaded;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Failed to load search index snapshot {}, index will be built from tasks table: {}", snapshotFile, e.toString());
+			return null;
+		}
+	}
+
+	private void saveSnapshot() {
+		if (snapshotFile == null) return;
+		long modifications = index.modifications();
+		try {
+			index.write(snapshotFile);
+			snapshotModifications = modifications;
+			lastSnapshot = System.nanoTime();
+			log.debug("Search index saved to {}", snapshotFile);
+		} catch (IOException e) {
+			log.error("Failed to save search index snapshot {}", snapshotFile, e);
+		}
+	}
+
+	private static boolean isDue(long since, long intervalNanos) {
+		return intervalNanos > 0 && System.nanoTime() - since >= intervalNanos;
+	}
+
+	//updated_at with microsecond precision of PostgreSQL timestamps
+	private static long version(LocalDateTime updatedAt) {
+		if (updatedAt == null) return TaskSearchIndex.UNKNOWN_VERSION;
+		return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+	}
+}
@@ -0,0 +1,41 @@
+package org.tech.technnicaltask.search;
+
+import org.tech.technnicaltask.entity.TaskEntity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+//Tasks the search index is built from and warm-up pre-loads: database (all shards) or in-memory store
+public interface TaskSource {
+
+	//Streams all tasks without loading them into memory at once
+	void scan(Consumer<TaskEntity> consumer);
+
+	//Streams ids and updated_at of all tasks, used to find tasks changed since snapshot was saved
+	void scanVersions(BiConsumer<UUID, LocalDateTime> consumer);
+
+	List<TaskEntity> findAllById(Collection<UUID> ids);
+
+	//Ids of the most recently updated tasks, newest first. Keeps only limit versions in memory while scanning
+	default List<UUID> findRecentlyUpdated(int limit) {
+		record Version(UUID id, LocalDateTime updatedAt) {
+		}
+		if (limit <= 0) return List.of();
+		Comparator<Version> byUpdatedAt = Comparator.comparing(Version::updatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+		PriorityQueue<Version> newest = new PriorityQueue<>(byUpdatedAt);
+		scanVersions((id, updatedAt) -> {
+			newest.add(new Version(id, updatedAt));
+			if (newest.size() > limit) newest.poll();
+		});
+		List<Version> versions = new ArrayList<>(newest);
+		versions.sort(byUpdatedAt.reversed());
+		return versions.stream().map(Version::id).toList();
+	}
+}
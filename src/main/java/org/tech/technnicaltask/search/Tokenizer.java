@@ -0,0 +1,38 @@
+package org.tech.technnicaltask.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+//Splits text into lower-case runs of letters and digits. The same rules are used for documents and queries
+final class Tokenizer {
+
+	//Longer tokens (hashes, base64 and similar) are cut, they are never typed in full anyway
+	static final int MAX_TOKEN_LENGTH = 32;
+
+	private Tokenizer() {
+	}
+
+	static void tokenize(String text, Consumer<String> tokens) {
+		if (text == null) return;
+		StringBuilder token = new StringBuilder(MAX_TOKEN_LENGTH);
+		int i = 0;
+		while (i < text.length()) {
+			int codePoint = text.codePointAt(i);
+			i += Character.charCount(codePoint);
+			if (Character.isLetterOrDigit(codePoint)) {
+				if (token.length() < MAX_TOKEN_LENGTH) token.appendCodePoint(Character.toLowerCase(codePoint));
+			} else if (!token.isEmpty()) {
+				tokens.accept(token.toString());
+				token.setLength(0);
+			}
+		}
+		if (!token.isEmpty()) tokens.accept(token.toString());
+	}
+
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		tokenize(text, tokens::add);
+		return tokens;
+	}
+}
@@ -0,0 +1,54 @@
+package org.tech.technnicaltask.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tech.technnicaltask.dto.TaskHistoryDto;
+import org.tech.technnicaltask.dto.TaskHistoryPageDto;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.history.TaskHistoryCursor;
+import org.tech.technnicaltask.history.TaskHistoryRepository;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.history", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskHistoryService {
+
+	public static final int MAX_PAGE_SIZE = 100;
+
+	private final TaskHistoryRepository historyRepository;
+
+	//History is written asynchronously, the latest changes can appear after a short delay
+	@Transactional(readOnly = true)
+	public TaskHistoryPageDto getHistory(UUID taskId, String cursor, int size) {
+		if (size < 1 || size > MAX_PAGE_SIZE) {
+			log.warn("Invalid history page size: {}", size);
+			throw new BadRequestException(ErrorCode.INVALID_PAGE.getFormattedMessage(size, MAX_PAGE_SIZE));
+		}
+		TaskHistoryCursor after = decode(cursor);
+		//one extra row tells whether next page exists
+		List<TaskHistoryRepository.Entry> entries = historyRepository.findByTaskId(taskId, after, size + 1);
+		boolean hasNext = entries.size() > size;
+		List<TaskHistoryDto> items = entries.stream().limit(size).map(entry -> TaskHistoryDto.from(entry.change())).toList();
+		String nextCursor = hasNext ? entries.get(size - 1).position().encode() : null;
+		log.info("Found {} history records of Task {} (cursor={}, size={})", items.size(), taskId, cursor, size);
+		return new TaskHistoryPageDto(items, size, nextCursor);
+	}
+
+	private static TaskHistoryCursor decode(String cursor) {
+		if (cursor == null || cursor.isEmpty()) return null;
+		try {
+			return TaskHistoryCursor.decode(cursor);
+		} catch (IllegalArgumentException e) {
+			log.warn("Invalid history cursor '{}': {}", cursor, e.getMessage());
+			throw new BadRequestException(ErrorCode.INVALID_HISTORY_CURSOR.getFormattedMessage(cursor));
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package org.tech.technnicaltask.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.tech.technnicaltask.dto.TaskSearchHitDto;
+import org.tech.technnicaltask.dto.TaskSearchResultDto;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.exceptions.ServiceUnavailableException;
+import org.tech.technnicaltask.search.SearchProperties;
+import org.tech.technnicaltask.search.TaskSearchIndexer;
+import org.tech.technnicaltask.utils.ErrorCode;
+import org.tech.technnicaltask.utils.Status;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.search", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskSearchService {
+
+	private static final long RETRY_AFTER_SECONDS = 5;
+
+	private final TaskSearchIndexer indexer;
+
+	private final SearchProperties properties;
+
+	//Index is updated after commit, search doesn't touch the database
+	public TaskSearchResultDto search(String query, String status, int limit) {
+		if (query == null || query.isBlank() || query.length() > properties.getMaxQueryLength()) {
+			throw new BadRequestException(ErrorCode.INVALID_SEARCH_QUERY.getFormattedMessage(properties.getMaxQueryLength()));
+		}
+		if (limit < 1 || limit > properties.getMaxLimit()) {
+			throw new BadRequestException(ErrorCode.INVALID_SEARCH_LIMIT.getFormattedMessage(limit, properties.getMaxLimit()));
+		}
+		Status statusFilter = null;
+		if (status != null && !status.isEmpty()) {
+			statusFilter = Status.parse(status);
+			if (statusFilter == null) {
+				throw new BadRequestException(ErrorCode.INVALID_STATUS.getFormattedMessage(status, Arrays.toString(Status.values())));
+			}
+		}
+		if (!indexer.isReady()) {
+			throw new ServiceUnavailableException(ErrorCode.SEARCH_INDEX_NOT_READY.getFormattedMessage(RETRY_AFTER_SECONDS), RETRY_AFTER_SECONDS);
+		}
+		List<TaskSearchHitDto> hits = indexer.getIndex().search(query, statusFilter, limit).stream()
+				.map(hit -> new TaskSearchHitDto(hit.id(), hit.title(), hit.status(), hit.score()))
+				.toList();
+		log.info("Search '{}' (status={}, limit={}) found {} tasks", query, statusFilter, limit, hits.size());
+		return new TaskSearchResultDto(query, hits);
+	}
+}
@@ -1,6 +1,5 @@
 package org.tech.technnicaltask.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,32 +8,61 @@ import org.tech.technnicaltask.dto.TaskUpdateDto;
 import org.tech.technnicaltask.entity.TaskEntity;
 import org.tech.technnicaltask.exceptions.BadRequestException;
 import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.history.TaskChange;
+import org.tech.technnicaltask.history.TaskHistoryBuffer;
+import org.tech.technnicaltask.jfr.OperationTrace;
 import org.tech.technnicaltask.mapper.TaskMapper;
 import org.tech.technnicaltask.repository.TaskRepository;
+import org.tech.technnicaltask.search.TaskSearchIndexer;
 import org.tech.technnicaltask.utils.ErrorCode;
-import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.writebehind.PendingTaskUpdate;
+import org.tech.technnicaltask.writebehind.TaskWriteBehindBuffer;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class TaskService {
 
 	private final TaskRepository taskRepository;
 
 	private final TaskMapper mapper;
 
-	//Getting TaskDTO from DB
+	//Present only when write-behind mode is enabled
+	private final TaskWriteBehindBuffer writeBehindBuffer;
+
+	//Present only when task history is enabled
+	private final TaskHistoryBuffer history;
+
+	//Present only when search is enabled
+	private final TaskSearchIndexer searchIndexer;
+
+	//Optional collaborators are empty when their module is disabled, fields are null then
+	public TaskService(TaskRepository taskRepository, TaskMapper mapper, Optional<TaskWriteBehindBuffer> writeBehindBuffer,
+					   Optional<TaskHistoryBuffer> history, Optional<TaskSearchIndexer> searchIndexer) {
+		this.taskRepository = taskRepository;
+		this.mapper = mapper;
+		this.writeBehindBuffer = writeBehindBuffer.orElse(null);
+		this.history = history.orElse(null);
+		this.searchIndexer = searchIndexer.orElse(null);
+	}
+
+	//Getting TaskDTO from DB. Read-only transactions are routed to replica when routing is enabled
+	@Transactional(readOnly = true)
 	public TaskDto getById(UUID id) {
 		TaskEntity entity = getEntityById(id);
 		log.info("Successfully fetched Task {} -> {}", id, entity);
-		return mapper.toDto(entity);
+		TaskDto dto = mapper.toDto(entity);
+		if (writeBehindBuffer != null) writeBehindBuffer.applyPending(dto);
+		return dto;
 	}
 
 	//Getting all Tasks from DB
+	@Transactional(readOnly = true)
 	public List<TaskDto> getAllTasks() {
 		List<TaskEntity> entities = taskRepository.findAll();
 		if (entities.isEmpty()) {
@@ -42,7 +70,9 @@ public class TaskService {
 			throw new TaskNotFoundException(ErrorCode.EMPTY_TASKS_LIST.getMessage());
 		}
 		log.info("Found {} tasks in database", entities.size());
-		return mapper.toDtoList(entities);
+		List<TaskDto> dtos = mapper.toDtoList(entities);
+		if (writeBehindBuffer != null) dtos.forEach(writeBehindBuffer::applyPending);
+		return dtos;
 	}
 
 	//Saving Task to DB
@@ -54,6 +84,7 @@ public class TaskService {
 		log.info("Saving new Task: {}", dto);
 		TaskEntity entity = mapper.toEntity(dto);
 		TaskEntity savedEntity = taskRepository.save(entity);
+		recordChange(TaskChange.created(savedEntity.getId(), TaskChange.Values.of(savedEntity)));
 		TaskDto result = mapper.toDto(savedEntity);
 		log.info("Task saved with generated id={} -> {}", savedEntity.getId(), result);
 		return result;
@@ -66,7 +97,9 @@ public class TaskService {
 			throw new BadRequestException(ErrorCode.INVALID_UUID.getFormattedMessage("null"));
 		}
 		TaskEntity entity = getEntityById(id);
+		if (writeBehindBuffer != null) writeBehindBuffer.discard(id);
 		taskRepository.delete(entity);
+		recordChange(TaskChange.deleted(id, TaskChange.Values.of(entity)));
 		log.info("Deleted Task with id = {}", id);
 	}
 
@@ -77,11 +110,14 @@ public class TaskService {
 			log.info("Deleted Task with id = {}", id);
 			throw new BadRequestException(ErrorCode.NULL_UPDATE_DTO.getMessage());
 		}
+		if (writeBehindBuffer != null) {
+			return bufferUpdate(id, updateDto);
+		}
 		return modifyTask(id, entity -> {
 			//selecting fields that need to change (multiple fields can be changed)
 			if (updateDto.title() != null) entity.setTitle(updateDto.title());
 			if (updateDto.description() != null) entity.setDescription(updateDto.description());
-			if (updateDto.status() != null) entity.setStatus(Status.valueOf(updateDto.status().toUpperCase()));
+			if (updateDto.status() != null) entity.setStatus(updateDto.status());
 			log.info("Applying changes to Task(id={}): {} (null values will not be applied)", id, updateDto);
 		});
 	}
@@ -94,12 +130,46 @@ public class TaskService {
 		}
 		TaskEntity entity = getEntityById(id);
 		log.debug("Loaded Task entity for modification: {}", entity);
+		TaskChange.Values before = TaskChange.Values.of(entity);
 		modifyFunction.accept(entity); //Modifying entity's state
 		TaskEntity savedEntity = taskRepository.save(entity);
+		recordChange(TaskChange.updated(id, before, TaskChange.Values.of(savedEntity)));
 		log.debug("Saved modified Task entity -> {}", savedEntity);
 		return mapper.toDto(savedEntity);
 	}
 
+	//Write-behind mode: update is acknowledged into buffer and written later together with other updates
+	private TaskDto bufferUpdate(UUID id, TaskUpdateDto updateDto) {
+		if (id == null) {
+			log.error("bufferUpdate called with id == null");
+			throw new BadRequestException(ErrorCode.ILLEGAL_MODIFY_ARGUMENTS.getMessage());
+		}
+		PendingTaskUpdate update = new PendingTaskUpdate(
+				updateDto.title(),
+				updateDto.description(),
+				updateDto.status(),
+				LocalDateTime.now());
+		TaskDto dto = mapper.toDto(getEntityById(id)); //entity is not changed, so Hibernate won't write it
+		writeBehindBuffer.applyPending(dto);
+		TaskChange.Values before = valuesOf(dto);
+		writeBehindBuffer.enqueue(id, update);
+		writeBehindBuffer.applyPending(dto);
+		recordChange(TaskChange.updated(id, before, valuesOf(dto)));
+		log.info("Buffered changes of Task(id={}): {} (null values will not be applied)", id, updateDto);
+		return dto;
+	}
+
+	//Change is put into history buffer and search index (after commit of current transaction), status transition into JFR event
+	private void recordChange(TaskChange change) {
+		OperationTrace.recordChange(change);
+		if (history != null) history.record(change);
+		if (searchIndexer != null) searchIndexer.record(change);
+	}
+
+	private static TaskChange.Values valuesOf(TaskDto dto) {
+		return new TaskChange.Values(dto.getTitle(), dto.getDescription(), dto.getStatus());
+	}
+
 	//Getting from DB TaskEntity or throw TaskNotFoundException if task is not exists in
 	private TaskEntity getEntityById(UUID id) {
 		return taskRepository.findById(id).orElseThrow(
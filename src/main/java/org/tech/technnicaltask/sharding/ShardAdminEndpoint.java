@@ -0,0 +1,50 @@
+package org.tech.technnicaltask.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.http.HttpStatus;
+import org.tech.technnicaltask.dto.ExceptionResponseDto;
+import org.tech.technnicaltask.dto.ShardStatusDto;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.utils.ErrorCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * Actuator endpoint /actuator/shards, served on the management port (app.sharding.enabled and exposure are required):
+ * GET returns slot distribution and rebalancing state, POST starts moving slots to shards added to configuration.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@WebEndpoint(id = "shards")
+public class ShardAdminEndpoint {
+
+	private static final String PATH = "/actuator/shards";
+
+	private final ShardRouter shardRouter;
+
+	private final ShardRebalancer rebalancer;
+
+	@ReadOperation
+	public ShardStatusDto status() {
+		return ShardStatusDto.from(rebalancer, shardRouter.getMap().distribution());
+	}
+
+	//Runs in background, progress is visible in status.
+	//Exception handlers of the API don't apply to the management port, so the error is mapped here
+	@WriteOperation
+	public WebEndpointResponse<Object> rebalance() {
+		if (!rebalancer.start()) {
+			BadRequestException e = new BadRequestException(ErrorCode.REBALANCE_IN_PROGRESS.getMessage());
+			log.error(e.getMessage());
+			return new WebEndpointResponse<>(new ExceptionResponseDto(HttpStatus.BAD_REQUEST.value(), e.getClass().getSimpleName(),
+					e.getMessage(), LocalDateTime.now(), PATH), HttpStatus.BAD_REQUEST.value());
+		}
+		log.info("Shard rebalancing requested");
+		return new WebEndpointResponse<>(status(), HttpStatus.ACCEPTED.value());
+	}
+}
@@ -0,0 +1,87 @@
+package org.tech.technnicaltask.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Slot to shard assignment. It is kept in task_shard_map table of shard 0 and cached in memory,
+ * on the first start all slots are assigned to shard 0 (where tasks were before sharding).
+ */
+@Slf4j
+public class ShardMap {
+
+	private final JdbcTemplate catalog;
+
+	private final int shardCount;
+
+	//slot -> shard, replaced as a whole on every change
+	private volatile int[] slots = new int[ShardSlots.COUNT];
+
+	public ShardMap(JdbcTemplate catalog, int shardCount) {
+		this.catalog = catalog;
+		this.shardCount = shardCount;
+	}
+
+	public int shardOfSlot(int slot) {
+		return slots[slot];
+	}
+
+	public int getShardCount() {
+		return shardCount;
+	}
+
+	//Number of slots owned by every shard
+	public int[] distribution() {
+		int[] distribution = new int[shardCount];
+		for (int shard : slots) {
+			distribution[shard]++;
+		}
+		return distribution;
+	}
+
+	public synchronized void load() {
+		int[] loaded = query();
+		if (Arrays.stream(loaded).allMatch(shard -> shard == -1)) {
+			initialize();
+			loaded = query();
+		}
+		for (int slot = 0; slot < loaded.length; slot++) {
+			if (loaded[slot] < 0 || loaded[slot] >= shardCount) {
+				throw new IllegalStateException(String.format(
+						"Slot %d is assigned to shard %d, but %d shards are configured", slot, loaded[slot], shardCount));
+			}
+		}
+		slots = loaded;
+	}
+
+	public synchronized void assign(Collection<Integer> movedSlots, int shard) {
+		catalog.update("UPDATE task_shard_map SET shard = ? WHERE slot = ANY(?)", shard, movedSlots.toArray(new Integer[0]));
+		int[] updated = slots.clone();
+		movedSlots.forEach(slot -> updated[slot] = shard);
+		slots = updated;
+		log.info("{} slots are assigned to shard {}", movedSlots.size(), shard);
+	}
+
+	private int[] query() {
+		int[] loaded = new int[ShardSlots.COUNT];
+		Arrays.fill(loaded, -1);
+		catalog.query("SELECT slot, shard FROM task_shard_map", rs -> {
+			loaded[rs.getInt(1)] = rs.getInt(2);
+		});
+		return loaded;
+	}
+
+	private void initialize() {
+		List<Object[]> rows = new ArrayList<>(ShardSlots.COUNT);
+		for (int slot = 0; slot < ShardSlots.COUNT; slot++) {
+			rows.add(new Object[]{slot, 0});
+		}
+		catalog.batchUpdate("INSERT INTO task_shard_map (slot, shard) VALUES (?, ?) ON CONFLICT (slot) DO NOTHING", rows);
+		log.info("Slot map is initialized, all {} slots are assigned to shard 0", ShardSlots.COUNT);
+	}
+}
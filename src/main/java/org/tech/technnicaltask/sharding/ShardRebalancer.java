@@ -0,0 +1,231 @@
+package org.tech.technnicaltask.sharding;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.entity.TaskEntity;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves slots to new shards, so every shard owns the same number of slots. For every group of slots:
+ * 1. all rows of the slots are copied to target shard while they are still served by source;
+ * 2. under write locks of the slots rows changed during copying are copied again, rows deleted meanwhile are removed
+ *    from target, and slots are assigned to target;
+ * 3. after grace period (other instances reload slot map) late writes of other instances are copied,
+ *    rows they deleted on source (present at switch or copied late, missing on source now) are deleted from target,
+ *    and rows are deleted from source.
+ * Copies never overwrite newer version of a row. Only one rebalancing runs at a time.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+	private static final String COPY_UPSERT = "INSERT INTO tasks (id, title, description, status, created_at, updated_at) " +
+			"VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, " +
+			"description = EXCLUDED.description, status = EXCLUDED.status, updated_at = EXCLUDED.updated_at " +
+			"WHERE tasks.updated_at IS NULL OR tasks.updated_at <= EXCLUDED.updated_at";
+
+	private static final String SLOT_FILTER = " WHERE " + ShardSlots.SQL_SLOT + " = ANY(?)";
+
+	//Timestamps are set by application instances, their clocks may differ a bit
+	private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+	public record Move(int source, int target, List<Integer> slots) {
+	}
+
+	private final ShardRouter router;
+
+	private final ShardingProperties properties;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	@Getter
+	private volatile String lastResult;
+
+	public ShardRebalancer(ShardRouter router, ShardingProperties properties) {
+		this.router = router;
+		this.properties = properties;
+	}
+
+	public boolean isRunning() {
+		return running.get();
+	}
+
+	//Moves of slots needed to reach even distribution
+	public List<Move> plan() {
+		return plan(router.getMap(), router.shardCount());
+	}
+
+	static List<Move> plan(ShardMap map, int shardCount) {
+		List<Deque<Integer>> owned = new ArrayList<>(shardCount);
+		for (int shard = 0; shard < shardCount; shard++) {
+			owned.add(new ArrayDeque<>());
+		}
+		for (int slot = 0; slot < ShardSlots.COUNT; slot++) {
+			owned.get(map.shardOfSlot(slot)).add(slot);
+		}
+		int[] targets = new int[shardCount];
+		for (int shard = 0; shard < shardCount; shard++) {
+			targets[shard] = ShardSlots.COUNT / shardCount + (shard < ShardSlots.COUNT % shardCount ? 1 : 0);
+		}
+		//slots taken from the end of overloaded shards, grouped by (source, target)
+		Map<Integer, Move> moves = new LinkedHashMap<>();
+		for (int target = 0; target < shardCount; target++) {
+			for (int source = 0; source < shardCount; source++) {
+				while (owned.get(source).size() > targets[source] && owned.get(target).size() < targets[target]) {
+					int slot = owned.get(source).removeLast();
+					owned.get(target).add(slot);
+					int from = source, to = target;
+					moves.computeIfAbsent(source * shardCount + target, key -> new Move(from, to, new ArrayList<>())).slots().add(slot);
+				}
+			}
+		}
+		return new ArrayList<>(moves.values());
+	}
+
+	//Returns false if rebalancing is already running
+	public boolean start() {
+		if (!running.compareAndSet(false, true)) {
+			return false;
+		}
+		Thread thread = new Thread(() -> {
+			try {
+				rebalance();
+			} finally {
+				running.set(false);
+			}
+		}, "task-shard-rebalancer");
+		thread.start();
+		return true;
+	}
+
+	void rebalance() {
+		List<Move> moves = plan();
+		log.info("Rebalancing started: {} moves, distribution before: {}", moves.size(), Arrays.toString(router.getMap().distribution()));
+		try {
+			for (Move move : moves) {
+				move(move);
+			}
+			lastResult = "Completed " + moves.size() + " moves";
+			log.info("Rebalancing completed, distribution: {}", Arrays.toString(router.getMap().distribution()));
+		} catch (Exception e) {
+			lastResult = "Failed: " + e.getMessage();
+			log.error("Rebalancing failed, moved slots are kept, remaining ones stay on their shards", e);
+		}
+	}
+
+	private void move(Move move) throws SQLException, InterruptedException {
+		log.info("Moving {} slots from shard {} to shard {}", move.slots().size(), move.source(), move.target());
+		Integer[] slots = move.slots().toArray(new Integer[0]);
+		LocalDateTime copyStarted = LocalDateTime.now().minus(CLOCK_SKEW);
+		long copied = copy(move.source(), move.target(), slots, null, null);
+		Set<UUID> onSourceAtSwitch;
+		LocalDateTime switched;
+		router.lockSlots(move.slots());
+		try {
+			copied += copy(move.source(), move.target(), slots, copyStarted, null);
+			onSourceAtSwitch = removeDeleted(move.source(), move.target(), slots);
+			router.getMap().assign(move.slots(), move.target());
+			switched = LocalDateTime.now().minus(CLOCK_SKEW);
+		} finally {
+			router.unlockSlots(move.slots());
+		}
+		//other instances keep writing to source until they reload slot map
+		Thread.sleep(properties.getMapRefreshInterval().multipliedBy(2).toMillis());
+		Set<UUID> copiedLate = new HashSet<>();
+		copied += copy(move.source(), move.target(), slots, switched, copiedLate);
+		onSourceAtSwitch.addAll(copiedLate);
+		int deletedLate = removeDeletedDuringGrace(move.source(), move.target(), slots, onSourceAtSwitch);
+		int deleted = router.jdbcTemplate(move.source()).update("DELETE FROM tasks" + SLOT_FILTER, (Object) slots);
+		log.info("Moved {} slots from shard {} to shard {}: {} rows copied, {} late deletes applied to target, {} rows deleted from source",
+				slots.length, move.source(), move.target(), copied, deletedLate, deleted);
+	}
+
+	//Streams rows of the slots changed since given time (all rows if null) from source and upserts them to target in batches.
+	//Ids of copied rows are added to copiedIds if it is given
+	private long copy(int source, int target, Integer[] slots, LocalDateTime changedSince, Set<UUID> copiedIds) throws SQLException {
+		String sql = ShardedTaskRepository.SELECT + SLOT_FILTER + (changedSince != null ? " AND updated_at >= ?" : "");
+		JdbcTemplate targetJdbc = router.jdbcTemplate(target);
+		List<Object[]> batch = new ArrayList<>(properties.getRebalanceBatchSize());
+		long copied = 0;
+		try (Connection connection = router.dataSource(source).getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false); //PostgreSQL streams rows with fetch size only inside transaction
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				statement.setFetchSize(properties.getRebalanceBatchSize());
+				statement.setArray(1, connection.createArrayOf("integer", slots));
+				if (changedSince != null) statement.setTimestamp(2, Timestamp.valueOf(changedSince));
+				try (ResultSet rs = statement.executeQuery()) {
+					int row = 0;
+					while (rs.next()) {
+						TaskEntity task = ShardedTaskRepository.ROW_MAPPER.mapRow(rs, row++);
+						if (copiedIds != null) copiedIds.add(task.getId());
+						batch.add(new Object[]{task.getId(), task.getTitle(), task.getDescription(), task.getStatus().name(),
+								toTimestamp(task.getCreatedAt()), toTimestamp(task.getUpdatedAt())});
+						if (batch.size() >= properties.getRebalanceBatchSize()) {
+							targetJdbc.batchUpdate(COPY_UPSERT, batch);
+							copied += batch.size();
+							batch.clear();
+						}
+					}
+				}
+			} finally {
+				connection.commit();
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+		if (!batch.isEmpty()) {
+			targetJdbc.batchUpdate(COPY_UPSERT, batch);
+			copied += batch.size();
+		}
+		return copied;
+	}
+
+	//Rows deleted from source after they were copied must not appear on target. Returns ids of the slots on source
+	private Set<UUID> removeDeleted(int source, int target, Integer[] slots) {
+		Set<UUID> sourceIds = ids(source, slots);
+		deleteFromTarget(target, ids(target, slots).stream().filter(id -> !sourceIds.contains(id)).toList());
+		return sourceIds;
+	}
+
+	//Instances with old slot map delete rows on source during grace period, slot locks of this instance don't stop them.
+	//Such rows were on source at switch (or copied since then) and are missing there now, so they are deleted from target.
+	//Rows created on target after switch are not candidates, so they are kept
+	private int removeDeletedDuringGrace(int source, int target, Integer[] slots, Set<UUID> candidates) {
+		Set<UUID> sourceIds = ids(source, slots);
+		List<UUID> removed = candidates.stream().filter(id -> !sourceIds.contains(id)).toList();
+		deleteFromTarget(target, removed);
+		return removed.size();
+	}
+
+	private Set<UUID> ids(int shard, Integer[] slots) {
+		return new HashSet<>(router.jdbcTemplate(shard).queryForList("SELECT id FROM tasks" + SLOT_FILTER, UUID.class, (Object) slots));
+	}
+
+	private void deleteFromTarget(int target, List<UUID> ids) {
+		if (!ids.isEmpty()) {
+			router.jdbcTemplate(target).batchUpdate("DELETE FROM tasks WHERE id = ?", ids.stream().map(id -> new Object[]{id}).toList());
+		}
+	}
+
+	private static Timestamp toTimestamp(LocalDateTime time) {
+		return time != null ? Timestamp.valueOf(time) : null;
+	}
+}
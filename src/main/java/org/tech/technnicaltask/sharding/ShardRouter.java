@@ -0,0 +1,162 @@
+package org.tech.technnicaltask.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.tech.technnicaltask.utils.UuidV7Generator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Routes task ids to shard databases by their slot.
+ * Every operation holds read lock of its slots, rebalancer holds write locks while it moves slots,
+ * so operations of this instance never go to a shard that has just lost the slot.
+ * Locks are always taken in ascending slot order.
+ */
+@Slf4j
+public class ShardRouter implements AutoCloseable {
+
+	private final List<DataSource> dataSources;
+
+	private final List<JdbcTemplate> jdbcTemplates;
+
+	private final ShardMap map;
+
+	private final ReentrantReadWriteLock[] slotLocks = new ReentrantReadWriteLock[ShardSlots.COUNT];
+
+	//Random start, so instances and restarts don't all begin with the same slots
+	private final AtomicInteger nextSlot = new AtomicInteger(ThreadLocalRandom.current().nextInt());
+
+	public ShardRouter(List<DataSource> dataSources, ShardMap map) {
+		this.dataSources = List.copyOf(dataSources);
+		this.jdbcTemplates = dataSources.stream().map(JdbcTemplate::new).toList();
+		this.map = map;
+		for (int i = 0; i < slotLocks.length; i++) {
+			slotLocks[i] = new ReentrantReadWriteLock();
+		}
+	}
+
+	@FunctionalInterface
+	public interface ShardBatch<T, E extends Exception> {
+		void apply(int shard, List<T> items) throws E;
+	}
+
+	public int shardCount() {
+		return dataSources.size();
+	}
+
+	public ShardMap getMap() {
+		return map;
+	}
+
+	public DataSource dataSource(int shard) {
+		return dataSources.get(shard);
+	}
+
+	public JdbcTemplate jdbcTemplate(int shard) {
+		return jdbcTemplates.get(shard);
+	}
+
+	//Current owner of the id, without locking. Used for filtering of scatter-gather results
+	public int shardOf(UUID id) {
+		return map.shardOfSlot(ShardSlots.slotOf(id));
+	}
+
+	public <T> T onShardOf(UUID id, IntFunction<T> action) {
+		int slot = ShardSlots.slotOf(id);
+		Lock lock = slotLocks[slot].readLock();
+		lock.lock();
+		try {
+			return action.apply(map.shardOfSlot(slot));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	//Splits items by shard and applies action to every part while their slots can't be moved
+	public <T, E extends Exception> void forEachShard(Collection<T> items, Function<T, UUID> idOf, ShardBatch<T, E> action) throws E {
+		TreeSet<Integer> slots = new TreeSet<>();
+		items.forEach(item -> slots.add(ShardSlots.slotOf(idOf.apply(item))));
+		lockAll(slots, false);
+		try {
+			Map<Integer, List<T>> byShard = new LinkedHashMap<>();
+			for (T item : items) {
+				byShard.computeIfAbsent(shardOf(idOf.apply(item)), shard -> new ArrayList<>()).add(item);
+			}
+			for (Map.Entry<Integer, List<T>> part : byShard.entrySet()) {
+				action.apply(part.getKey(), part.getValue());
+			}
+		} finally {
+			unlockAll(slots, false);
+		}
+	}
+
+	//Shard-aware UUIDv7: slots are used in turn, so new tasks are spread by slot ownership, slots being moved are skipped
+	public UUID newId() {
+		UUID id = UuidV7Generator.generate();
+		for (int attempt = 0; attempt < ShardSlots.COUNT; attempt++) {
+			int slot = nextSlot.getAndIncrement() & (ShardSlots.COUNT - 1);
+			if (!slotLocks[slot].isWriteLocked()) {
+				return ShardSlots.withSlot(id, slot);
+			}
+		}
+		return id;
+	}
+
+	//Blocks operations on the slots of this instance until unlockSlots() is called
+	public void lockSlots(Collection<Integer> slots) {
+		lockAll(new TreeSet<>(slots), true);
+	}
+
+	public void unlockSlots(Collection<Integer> slots) {
+		unlockAll(new TreeSet<>(slots), true);
+	}
+
+	@Scheduled(fixedDelayString = "${app.sharding.map-refresh-interval:10s}")
+	public void refreshMap() {
+		try {
+			map.load();
+		} catch (RuntimeException e) {
+			log.warn("Failed to refresh slot map, keeping the current one: {}", e.getMessage());
+		}
+	}
+
+	//Closes pools of additional shards, shard 0 is application's datasource
+	@Override
+	public void close() {
+		for (int shard = 1; shard < dataSources.size(); shard++) {
+			if (dataSources.get(shard) instanceof AutoCloseable pool) {
+				try {
+					pool.close();
+				} catch (Exception e) {
+					log.warn("Failed to close pool of shard {}: {}", shard, e.getMessage());
+				}
+			}
+		}
+	}
+
+	private void lockAll(TreeSet<Integer> slots, boolean write) {
+		for (int slot : slots) {
+			(write ? slotLocks[slot].writeLock() : slotLocks[slot].readLock()).lock();
+		}
+	}
+
+	private void unlockAll(TreeSet<Integer> slots, boolean write) {
+		for (int slot : slots.descendingSet()) {
+			(write ? slotLocks[slot].writeLock() : slotLocks[slot].readLock()).unlock();
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package org.tech.technnicaltask.sharding;
+
+import java.util.UUID;
+
+/**
+ * Tasks are spread over a fixed number of hash slots, slots are assigned to shards.
+ * Low bits of UUID are random both in v4 and v7 ids, so they are used as hash of the id.
+ * It lets new ids be generated directly for a chosen slot without losing time ordering of UUIDv7.
+ */
+public final class ShardSlots {
+
+	public static final int COUNT = 1024;
+
+	//Same as slotOf() for tasks.id column: last 3 hex digits are 12 low bits of UUID
+	public static final String SQL_SLOT = "(('x' || right(id::text, 3))::bit(12)::int & " + (COUNT - 1) + ")";
+
+	private ShardSlots() {
+	}
+
+	public static int slotOf(UUID id) {
+		return (int) (id.getLeastSignificantBits() & (COUNT - 1));
+	}
+
+	public static UUID withSlot(UUID id, int slot) {
+		return new UUID(id.getMostSignificantBits(), (id.getLeastSignificantBits() & ~(long) (COUNT - 1)) | slot);
+	}
+}
@@ -0,0 +1,176 @@
+package org.tech.technnicaltask.sharding;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowMapper;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.repository.TaskRepository;
+import org.tech.technnicaltask.utils.ErrorCode;
+import org.tech.technnicaltask.utils.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TaskRepository over several databases. Single task operations go to the shard owning slot of the id,
+ * lists are queried on all shards in parallel and merged by creation time.
+ * Every statement is committed on its own, there are no transactions spanning shards.
+ */
+@Slf4j
+public class ShardedTaskRepository implements TaskRepository {
+
+	static final String SELECT = "SELECT id, title, description, status, created_at, updated_at FROM tasks";
+
+	private static final String INSERT = "INSERT INTO tasks (id, title, description, status, created_at, updated_at) " +
+			"VALUES (?, ?, ?, ?, ?, ?)";
+
+	private static final String UPDATE = "UPDATE tasks SET title = ?, description = ?, status = ?, updated_at = ? WHERE id = ?";
+
+	//Order of task lists. Ids are compared as unsigned like PostgreSQL does
+	static final Comparator<TaskEntity> ORDER = Comparator
+			.comparing(TaskEntity::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+			.thenComparing(TaskEntity::getId, ShardedTaskRepository::compareUnsigned);
+
+	static final RowMapper<TaskEntity> ROW_MAPPER = (rs, rowNum) -> TaskEntity.builder()
+			.id(rs.getObject("id", UUID.class))
+			.title(rs.getString("title"))
+			.description(rs.getString("description"))
+			.status(Status.valueOf(rs.getString("status")))
+			.createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+			.updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+			.build();
+
+	private final ShardRouter router;
+
+	private final ExecutorService executor;
+
+	public ShardedTaskRepository(ShardRouter router) {
+		this.router = router;
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(router.shardCount(),
+				runnable -> new Thread(runnable, "task-shard-query-" + threadNumber.incrementAndGet()));
+	}
+
+	@Override
+	public Optional<TaskEntity> findById(UUID id) {
+		return router.onShardOf(id, shard -> router.jdbcTemplate(shard)
+				.query(SELECT + " WHERE id = ?", ROW_MAPPER, id)
+				.stream()
+				.findFirst());
+	}
+
+	@Override
+	public List<TaskEntity> findAll() {
+		return scatterGather(SELECT + " ORDER BY created_at NULLS FIRST, id");
+	}
+
+	//New task gets shard-aware id and is inserted, existing one is updated in the shard owning it.
+	//Update never creates a row, so task deleted concurrently (or left on the old shard by rebalancing) is not brought back
+	@Override
+	public TaskEntity save(TaskEntity entity) {
+		LocalDateTime now = LocalDateTime.now();
+		entity.setUpdatedAt(now);
+		if (entity.getId() == null) {
+			entity.setId(router.newId());
+			entity.setCreatedAt(now);
+			router.onShardOf(entity.getId(), shard -> router.jdbcTemplate(shard).update(INSERT,
+					entity.getId(), entity.getTitle(), entity.getDescription(), entity.getStatus().name(),
+					toTimestamp(entity.getCreatedAt()), toTimestamp(entity.getUpdatedAt())));
+		} else {
+			int updated = router.onShardOf(entity.getId(), shard -> router.jdbcTemplate(shard).update(UPDATE,
+					entity.getTitle(), entity.getDescription(), entity.getStatus().name(), toTimestamp(entity.getUpdatedAt()),
+					entity.getId()));
+			if (updated == 0) {
+				log.warn("Task {} was deleted before its update was written", entity.getId());
+				throw new TaskNotFoundException(ErrorCode.TASK_NOT_FOUND.getFormattedMessage(entity.getId()));
+			}
+		}
+		log.debug("Task {} is written to shard {}", entity.getId(), router.shardOf(entity.getId()));
+		return entity;
+	}
+
+	@Override
+	public void delete(TaskEntity entity) {
+		router.onShardOf(entity.getId(), shard -> router.jdbcTemplate(shard).update("DELETE FROM tasks WHERE id = ?", entity.getId()));
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	//Runs sorted query on every shard in parallel. Rows of slots owned by other shard (copies made by rebalancer) are skipped
+	List<TaskEntity> scatterGather(String sortedSql, Object... args) {
+		List<CompletableFuture<List<TaskEntity>>> futures = new ArrayList<>(router.shardCount());
+		for (int shard = 0; shard < router.shardCount(); shard++) {
+			int target = shard;
+			futures.add(CompletableFuture.supplyAsync(() -> router.jdbcTemplate(target).query(sortedSql, ROW_MAPPER, args), executor));
+		}
+		List<List<TaskEntity>> results = new ArrayList<>(futures.size());
+		for (int shard = 0; shard < futures.size(); shard++) {
+			int owner = shard;
+			results.add(futures.get(shard).join().stream().filter(task -> router.shardOf(task.getId()) == owner).toList());
+		}
+		return merge(results);
+	}
+
+	//K-way merge of lists sorted by ORDER
+	static List<TaskEntity> merge(List<List<TaskEntity>> sortedLists) {
+		PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> ORDER.compare(a.current(), b.current()));
+		int total = 0;
+		for (List<TaskEntity> list : sortedLists) {
+			total += list.size();
+			if (!list.isEmpty()) heads.add(new Cursor(list));
+		}
+		List<TaskEntity> merged = new ArrayList<>(total);
+		while (!heads.isEmpty()) {
+			Cursor head = heads.poll();
+			merged.add(head.current());
+			if (head.advance()) heads.add(head);
+		}
+		return merged;
+	}
+
+	private static int compareUnsigned(UUID a, UUID b) {
+		int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+		return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+	}
+
+	private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+		return timestamp != null ? timestamp.toLocalDateTime() : null;
+	}
+
+	private static Timestamp toTimestamp(LocalDateTime time) {
+		return time != null ? Timestamp.valueOf(time) : null;
+	}
+
+	private static final class Cursor {
+
+		private final List<TaskEntity> list;
+
+		private int index;
+
+		private Cursor(List<TaskEntity> list) {
+			this.list = list;
+		}
+
+		private TaskEntity current() {
+			return list.get(index);
+		}
+
+		private boolean advance() {
+			return ++index < list.size();
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package org.tech.technnicaltask.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+	private boolean enabled = false;
+
+	//Additional databases. Shard 0 is spring.datasource, it also keeps slot map
+	private List<Shard> shards = new ArrayList<>();
+
+	//How often slot map is reloaded, so instances see slots moved by rebalancing on other instance
+	private Duration mapRefreshInterval = Duration.ofSeconds(10);
+
+	//Rows per batch when slots are copied between shards
+	private int rebalanceBatchSize = 1000;
+
+	@Data
+	public static class Shard {
+		private String url;
+		private String username;
+		private String password;
+		private int maximumPoolSize = 10;
+	}
+}
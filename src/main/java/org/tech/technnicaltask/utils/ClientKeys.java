@@ -0,0 +1,20 @@
+package org.tech.technnicaltask.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public final class ClientKeys {
+
+	public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+	private ClientKeys() {
+	}
+
+	//Client is identified by X-Client-Id header, if it's absent remote address is used
+	public static String resolve(HttpServletRequest request) {
+		String clientId = request.getHeader(CLIENT_ID_HEADER);
+		if (clientId != null && !clientId.isEmpty()) {
+			return clientId;
+		}
+		return request.getRemoteAddr();
+	}
+}
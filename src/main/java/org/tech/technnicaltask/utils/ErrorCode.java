@@ -13,7 +13,59 @@ public enum ErrorCode {
 
 	ILLEGAL_MODIFY_ARGUMENTS("Task id and modifier function must not be null"),
 
-	INVALID_UUID("Invalid UUID: %s");
+	INVALID_UUID("Invalid UUID: %s"),
+
+	TOO_MANY_REQUESTS("Rate limit exceeded for %s requests, retry after %d s"),
+
+	INVALID_STATUS("Invalid status '%s', expected one of %s"),
+
+	UNSUPPORTED_IMPORT_FORMAT("Unsupported import format '%s', expected text/csv or application/x-ndjson"),
+
+	IMPORT_JOB_NOT_FOUND("Import job with id '%s' not found"),
+
+	IMPORT_REPORT_NOT_READY("Rejected rows report of import job '%s' is not ready yet"),
+
+	IMPORT_UPLOAD_TOO_LARGE("Upload exceeds maximum import size of %d MB"),
+
+	REBALANCE_IN_PROGRESS("Shard rebalancing is already running"),
+
+	STORAGE_UNAVAILABLE("Task storage is unavailable, retry after %d s"),
+
+	INVALID_PAGE("Invalid page size %d, expected value between 1 and %d"),
+
+	INVALID_HISTORY_CURSOR("Invalid history cursor '%s', use nextCursor of the previous page"),
+
+	INVALID_IDEMPOTENCY_KEY("Idempotency-Key must be from 1 to %d characters long"),
+
+	IDEMPOTENCY_KEY_REUSED("Idempotency-Key '%s' was already used with a different request"),
+
+	IDEMPOTENCY_KEY_IN_PROGRESS("Request with Idempotency-Key '%s' is still in progress, retry later"),
+
+	REQUEST_BODY_TOO_LARGE("Request body with Idempotency-Key must be at most %d bytes"),
+
+	MALFORMED_REQUEST_BODY("Malformed JSON request body"),
+
+	INVALID_PARAMETER("Invalid value '%s' of parameter '%s'"),
+
+	INVALID_SEARCH_QUERY("Search query must not be blank and must be at most %d characters long"),
+
+	INVALID_SEARCH_LIMIT("Invalid search limit %d, expected value between 1 and %d"),
+
+	SEARCH_INDEX_NOT_READY("Search index is being built, retry after %d s"),
+
+	INVALID_RECORDING_DURATION("Invalid recording duration %s, expected from 1 s to %d s"),
+
+	INVALID_RECORDING_SETTINGS("Unknown recording settings '%s', expected 'default' or 'profile'"),
+
+	RECORDING_IN_PROGRESS("Flight recording %d is already running"),
+
+	RECORDING_NOT_FOUND("Flight recording %d not found"),
+
+	RECORDING_NOT_FINISHED("Flight recording %d is still running, stop it first"),
+
+	INVALID_REQUEST_TIMEOUT("Invalid %s '%s', expected duration such as 500ms, 2s or number of milliseconds"),
+
+	DEADLINE_EXCEEDED("Request deadline of %d ms exceeded");
 
 
 	private final String message;
@@ -1,9 +1,64 @@
 package org.tech.technnicaltask.utils;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+@JsonDeserialize(using = StatusDeserializer.class)
 public enum Status {
 	PENDING,
-
 	IN_PROGRESS,
+	COMPLETED;
+
+	private static final Status[] VALUES = values();
+
+	//Statuses grouped by name length, so parsing compares at most one or two names
+	private static final Status[][] BY_LENGTH = groupByLength();
+
+	//Case-insensitive, without toUpperCase() copy and exceptions. Returns null for unknown value
+	public static Status parse(CharSequence value) {
+		if (value == null) return null;
+		int length = value.length();
+		if (length >= BY_LENGTH.length) return null;
+		for (Status status : BY_LENGTH[length]) {
+			if (matches(status.name(), value, length)) return status;
+		}
+		return null;
+	}
+
+	//Same as parse(CharSequence), but for parser buffers (no String is created for the value)
+	public static Status parse(char[] buffer, int offset, int length) {
+		if (length >= BY_LENGTH.length) return null;
+		for (Status status : BY_LENGTH[length]) {
+			String name = status.name();
+			int i = 0;
+			while (i < length && toUpperAscii(buffer[offset + i]) == name.charAt(i)) i++;
+			if (i == length) return status;
+		}
+		return null;
+	}
+
+	private static boolean matches(String name, CharSequence value, int length) {
+		for (int i = 0; i < length; i++) {
+			if (toUpperAscii(value.charAt(i)) != name.charAt(i)) return false;
+		}
+		return true;
+	}
+
+	//Names contain only ASCII letters and '_'
+	private static char toUpperAscii(char c) {
+		return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+	}
 
-	COMPLETED
+	private static Status[][] groupByLength() {
+		int maxLength = 0;
+		for (Status status : VALUES) maxLength = Math.max(maxLength, status.name().length());
+		Status[][] byLength = new Status[maxLength + 1][];
+		for (int length = 0; length <= maxLength; length++) {
+			int count = 0;
+			for (Status status : VALUES) if (status.name().length() == length) count++;
+			byLength[length] = new Status[count];
+			count = 0;
+			for (Status status : VALUES) if (status.name().length() == length) byLength[length][count++] = status;
+		}
+		return byLength;
+	}
 }
@@ -0,0 +1,30 @@
+package org.tech.technnicaltask.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+//Case-insensitive status from parser's char buffer. Invalid value is rejected with 400 (see GlobalExceptionHandler)
+public class StatusDeserializer extends StdScalarDeserializer<Status> {
+
+	public StatusDeserializer() {
+		super(Status.class);
+	}
+
+	@Override
+	public Status deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+			return (Status) context.handleUnexpectedToken(Status.class, parser);
+		}
+		Status status = Status.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+		if (status != null) return status;
+		String value = parser.getText();
+		throw InvalidFormatException.from(parser,
+				ErrorCode.INVALID_STATUS.getFormattedMessage(value, Arrays.toString(Status.values())), value, Status.class);
+	}
+}
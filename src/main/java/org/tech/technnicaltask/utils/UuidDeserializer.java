@@ -0,0 +1,29 @@
+package org.tech.technnicaltask.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+import java.util.UUID;
+
+//UUID from parser's char buffer, without creating String of the value
+public class UuidDeserializer extends StdScalarDeserializer<UUID> {
+
+	public UuidDeserializer() {
+		super(UUID.class);
+	}
+
+	@Override
+	public UUID deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		if (!parser.hasToken(JsonToken.VALUE_STRING)) {
+			return (UUID) context.handleUnexpectedToken(UUID.class, parser);
+		}
+		UUID uuid = UuidParser.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+		if (uuid != null) return uuid;
+		String value = parser.getText();
+		throw InvalidFormatException.from(parser, ErrorCode.INVALID_UUID.getFormattedMessage(value), value, UUID.class);
+	}
+}
@@ -0,0 +1,79 @@
+package org.tech.technnicaltask.utils;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Parser of canonical UUID form (8-4-4-4-12 hex digits) which returns null instead of throwing
+ * and reads digits directly from the source without substrings.
+ */
+public final class UuidParser {
+
+	private static final int LENGTH = 36;
+
+	//Value of hex digit by char code, -1 for other chars
+	private static final byte[] HEX = new byte[128];
+
+	static {
+		Arrays.fill(HEX, (byte) -1);
+		for (int i = 0; i < 10; i++) HEX['0' + i] = (byte) i;
+		for (int i = 0; i < 6; i++) {
+			HEX['a' + i] = (byte) (10 + i);
+			HEX['A' + i] = (byte) (10 + i);
+		}
+	}
+
+	private UuidParser() {
+	}
+
+	public static UUID parse(CharSequence value) {
+		if (value == null || value.length() != LENGTH) return null;
+		if (value.charAt(8) != '-' || value.charAt(13) != '-' || value.charAt(18) != '-' || value.charAt(23) != '-') return null;
+		long time = hex(value, 0, 8);
+		long timeMid = hex(value, 9, 4);
+		long timeHigh = hex(value, 14, 4);
+		long clock = hex(value, 19, 4);
+		long node = hex(value, 24, 12);
+		//invalid segment is -1, so it sets the sign bit of the OR
+		if ((time | timeMid | timeHigh | clock | node) < 0) return null;
+		return new UUID(time << 32 | timeMid << 16 | timeHigh, clock << 48 | node);
+	}
+
+	//Same as parse(CharSequence), but for parser buffers
+	public static UUID parse(char[] buffer, int offset, int length) {
+		if (length != LENGTH) return null;
+		if (buffer[offset + 8] != '-' || buffer[offset + 13] != '-' || buffer[offset + 18] != '-' || buffer[offset + 23] != '-') return null;
+		long time = hex(buffer, offset, 8);
+		long timeMid = hex(buffer, offset + 9, 4);
+		long timeHigh = hex(buffer, offset + 14, 4);
+		long clock = hex(buffer, offset + 19, 4);
+		long node = hex(buffer, offset + 24, 12);
+		if ((time | timeMid | timeHigh | clock | node) < 0) return null;
+		return new UUID(time << 32 | timeMid << 16 | timeHigh, clock << 48 | node);
+	}
+
+	//Value of count hex digits (at most 12, so the result is never negative) or -1
+	private static long hex(CharSequence value, int from, int count) {
+		long result = 0;
+		for (int i = from; i < from + count; i++) {
+			int digit = hex(value.charAt(i));
+			if (digit < 0) return -1;
+			result = result << 4 | digit;
+		}
+		return result;
+	}
+
+	private static long hex(char[] buffer, int from, int count) {
+		long result = 0;
+		for (int i = from; i < from + count; i++) {
+			int digit = hex(buffer[i]);
+			if (digit < 0) return -1;
+			result = result << 4 | digit;
+		}
+		return result;
+	}
+
+	private static int hex(char c) {
+		return c < HEX.length ? HEX[c] : -1;
+	}
+}
@@ -0,0 +1,48 @@
+package org.tech.technnicaltask.utils;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDv7 (RFC 9562): 48 bits of unix millis, version, 12 bits counter, variant, 62 random bits.
+ * New ids are inserted near the right edge of primary key index instead of random B-tree leaves.
+ * The 12-bit counter keeps ids monotonic inside one millisecond and across threads,
+ * when it overflows the timestamp part is moved forward by one millisecond.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+	//Last issued (unix millis << 12 | counter)
+	private static final AtomicLong LAST_STATE = new AtomicLong();
+
+	public static UUID generate() {
+		long state = nextState(System.currentTimeMillis());
+		long msb = ((state >>> 12) << 16) | 0x7000L | (state & 0xFFFL);
+		long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		return new UUID(msb, lsb);
+	}
+
+	//Extracts unix millis from UUIDv7
+	public static long timestampOf(UUID uuid) {
+		return uuid.getMostSignificantBits() >>> 16;
+	}
+
+	private static long nextState(long nowMillis) {
+		long candidate = nowMillis << 12;
+		while (true) {
+			long last = LAST_STATE.get();
+			long next = Math.max(candidate, last + 1);
+			if (LAST_STATE.compareAndSet(last, next)) {
+				return next;
+			}
+		}
+	}
+
+	@Override
+	public UUID generateUuid(SharedSessionContractImplementor session) {
+		return generate();
+	}
+}
@@ -0,0 +1,17 @@
+package org.tech.technnicaltask.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+//Scans chars until the first non-whitespace one, no regex matcher and no trimmed copy
+public class NullOrNotBlankValidator implements ConstraintValidator<NullOrNotBlank, CharSequence> {
+
+	@Override
+	public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+		if (value == null) return true;
+		for (int i = 0; i < value.length(); i++) {
+			if (!Character.isWhitespace(value.charAt(i))) return true;
+		}
+		return false;
+	}
+}
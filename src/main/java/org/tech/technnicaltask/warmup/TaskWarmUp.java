@@ -0,0 +1,275 @@
+package org.tech.technnicaltask.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.dto.TaskUpdateDto;
+import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.resilience.LastKnownGoodTasks;
+import org.tech.technnicaltask.search.TaskSearchIndexer;
+import org.tech.technnicaltask.search.TaskSource;
+import org.tech.technnicaltask.service.TaskSearchService;
+import org.tech.technnicaltask.service.TaskService;
+import org.tech.technnicaltask.sharding.ShardRouter;
+import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.writebehind.TaskWriteBehindBuffer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Warm-up before the instance reports readiness. Application runners run before Spring Boot publishes
+ * ReadinessState.ACCEPTING_TRAFFIC, so /actuator/health/readiness stays OUT_OF_SERVICE until it is finished.
+ * Opens minimum idle connections of the pools, reads the most recently updated tasks through TaskService
+ * (filling last-known-good store and letting JIT compile Hibernate, MapStruct and aspects), decodes and validates
+ * request bodies, writes synthetic tasks in rolled back transactions and waits for search index.
+ * First call of every path is compared with the warmed-up one in log and tasks.warmup.latency gauges.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TaskWarmUp implements ApplicationRunner {
+
+	private static final String TASK_BODY = "{\"title\":\"Warm-up task\",\"description\":\"Synthetic task, rolled back\",\"status\":\"pending\"}";
+
+	private static final String UPDATE_BODY = "{\"title\":\"Warm-up task (updated)\",\"status\":\"in_progress\"}";
+
+	private final WarmUpProperties properties;
+
+	private final TaskService taskService;
+
+	private final TaskSource taskSource;
+
+	private final ObjectMapper objectMapper;
+
+	private final Validator validator;
+
+	private final MeterRegistry meterRegistry;
+
+	//Absent in embedded mode: there is nothing to roll synthetic writes back with
+	private final PlatformTransactionManager transactionManager;
+
+	//Present with JPA, synthetic writes are flushed so Hibernate executes their statements
+	private final EntityManagerFactory entityManagerFactory;
+
+	//Present only when sharding is enabled: writes to other shards are not part of the transaction, so they are skipped
+	private final ShardRouter shardRouter;
+
+	//Present only in write-behind mode: buffered writes are flushed by another thread, outside the transaction
+	private final TaskWriteBehindBuffer writeBehindBuffer;
+
+	//Absent in embedded mode
+	private final DataSource dataSource;
+
+	//Present only when search is enabled
+	private final TaskSearchIndexer searchIndexer;
+
+	private final TaskSearchService searchService;
+
+	public record Latency(long firstNanos, long warmNanos) {
+	}
+
+	public record Report(long durationNanos, int preloadedTasks, int openedConnections, Map<String, Latency> latencies) {
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		Report report = warmUp();
+		//Gauges hold their state weakly by default, report is not referenced anywhere else
+		TimeGauge.builder("tasks.warmup.duration", report, TimeUnit.NANOSECONDS, Report::durationNanos)
+				.description("Time of warm-up before readiness").strongReference(true).register(meterRegistry);
+		report.latencies().forEach((path, latency) -> {
+			TimeGauge.builder("tasks.warmup.latency", latency, TimeUnit.NANOSECONDS, Latency::firstNanos)
+					.tags("path", path, "call", "first").description("First call vs call after warm-up").register(meterRegistry);
+			TimeGauge.builder("tasks.warmup.latency", latency, TimeUnit.NANOSECONDS, Latency::warmNanos)
+					.tags("path", path, "call", "warm").description("First call vs call after warm-up").register(meterRegistry);
+		});
+	}
+
+	public Report warmUp() {
+		long start = System.nanoTime();
+		long deadline = start + properties.getTimeout().toNanos();
+		if (searchIndexer != null) searchIndexer.maintain(); //index is built or reconciled meanwhile
+		int connections = openConnections();
+		Map<String, Latency> latencies = new LinkedHashMap<>();
+		List<String> titles = new ArrayList<>();
+		List<UUID> hot = step("pre-load", () -> taskSource.findRecentlyUpdated(properties.getPreloadTasks()), List.of());
+		if (!hot.isEmpty()) {
+			//every hot task is read at least once, then reads continue round-robin
+			int calls = Math.max(properties.getIterations(), hot.size());
+			exercise("read", calls, deadline, latencies, i -> {
+				try {
+					TaskDto task = taskService.getById(hot.get(i % hot.size()));
+					if (i < 100) titles.add(task.getTitle());
+				} catch (TaskNotFoundException e) {
+					log.debug("Task was deleted during warm-up: {}", e.getMessage());
+				}
+			});
+		}
+		exercise("request-body", properties.getIterations(), deadline, latencies, i -> decodeAndValidate());
+		if (canRollBackWrites()) {
+			exercise("write", properties.getWriteIterations(), deadline, latencies,
+					i -> LastKnownGoodTasks.withoutRemembering(this::writeAndRollBack));
+		} else if (properties.getWriteIterations() > 0) {
+			log.info("Warm-up of writes is skipped: {}", transactionManager == null ? "no transactions"
+					: shardRouter != null ? "writes to shards can't be rolled back" : "write-behind writes can't be rolled back");
+		}
+		if (searchIndexer != null && searchService != null && awaitSearchIndex(deadline) && !titles.isEmpty()) {
+			exercise("search", properties.getIterations(), deadline, latencies,
+					i -> searchService.search(titles.get(i % titles.size()), null, 10));
+		}
+		Report report = new Report(System.nanoTime() - start, hot.size(), connections, latencies);
+		log.info("Warm-up finished in {} ms: {} tasks pre-loaded, {} pool connections opened, first vs warmed-up call: {}",
+				TimeUnit.NANOSECONDS.toMillis(report.durationNanos()), hot.size(), connections,
+				latencies.entrySet().stream()
+						.map(e -> String.format("%s %.2f -> %.3f ms", e.getKey(), e.getValue().firstNanos() / 1e6, e.getValue().warmNanos() / 1e6))
+						.collect(Collectors.joining(", ")));
+		return report;
+	}
+
+	@FunctionalInterface
+	private interface Call {
+		void run(int i) throws Exception;
+	}
+
+	//Latency of the first call and mean of the last tenth of calls. Failed path is reported and skipped
+	private void exercise(String path, int calls, long deadline, Map<String, Latency> latencies, Call call) {
+		if (calls <= 0) return;
+		int tailFrom = calls - Math.max(1, calls / 10);
+		long first = 0;
+		long last = 0;
+		long tailNanos = 0;
+		int tailCalls = 0;
+		try {
+			for (int i = 0; i < calls; i++) {
+				if (i > 0 && System.nanoTime() - deadline > 0) {
+					log.warn("Warm-up timeout reached after {} of {} {} calls", i, calls, path);
+					break;
+				}
+				long started = System.nanoTime();
+				call.run(i);
+				last = System.nanoTime() - started;
+				if (i == 0) first = last;
+				if (i >= tailFrom) {
+					tailNanos += last;
+					tailCalls++;
+				}
+			}
+		} catch (Exception e) {
+			log.warn("Warm-up of {} failed, it is skipped: {}", path, e.toString());
+			return;
+		}
+		latencies.put(path, new Latency(first, tailCalls > 0 ? tailNanos / tailCalls : last));
+	}
+
+	private <T> T step(String name, Supplier<T> supplier, T fallback) {
+		try {
+			return supplier.get();
+		} catch (RuntimeException e) {
+			log.warn("Warm-up step {} failed, it is skipped: {}", name, e.toString());
+			return fallback;
+		}
+	}
+
+	private void decodeAndValidate() throws Exception {
+		TaskDto task = objectMapper.readValue(TASK_BODY, TaskDto.class);
+		TaskUpdateDto update = objectMapper.readValue(UPDATE_BODY, TaskUpdateDto.class);
+		if (!validator.validate(task).isEmpty() || !validator.validate(update).isEmpty()) {
+			throw new IllegalStateException("Warm-up request bodies are not valid");
+		}
+		objectMapper.writeValueAsBytes(task);
+	}
+
+	private boolean canRollBackWrites() {
+		return properties.getWriteIterations() > 0 && transactionManager != null && shardRouter == null && writeBehindBuffer == null;
+	}
+
+	//History and search index take changes after commit and last-known-good store is not updated,
+	//so rolled back tasks leave no trace
+	private void writeAndRollBack() {
+		TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+		try {
+			TaskDto saved = taskService.save(new TaskDto(null, "Warm-up task", "Synthetic task, rolled back", Status.PENDING, null, null));
+			flush();
+			taskService.updateTask(saved.getId(), new TaskUpdateDto("Warm-up task (updated)", null, Status.IN_PROGRESS));
+			flush();
+			taskService.deleteById(saved.getId());
+			flush();
+		} finally {
+			transactionManager.rollback(status);
+		}
+	}
+
+	private void flush() {
+		if (entityManagerFactory != null) {
+			EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory).flush();
+		}
+	}
+
+	//Minimum idle connections of every pool are opened now instead of during first requests
+	private int openConnections() {
+		List<DataSource> pools = shardRouter != null
+				? IntStream.range(0, shardRouter.shardCount()).mapToObj(shardRouter::dataSource).toList()
+				: dataSource != null ? List.of(dataSource) : List.of();
+		int opened = 0;
+		for (DataSource pool : pools) {
+			List<Connection> connections = new ArrayList<>();
+			try {
+				int minimumIdle = pool.isWrapperFor(HikariDataSource.class) ? pool.unwrap(HikariDataSource.class).getMinimumIdle() : 1;
+				for (int i = 0; i < minimumIdle; i++) {
+					Connection connection = pool.getConnection();
+					connections.add(connection);
+					if (connection.isValid(1)) opened++;
+				}
+			} catch (SQLException e) {
+				log.warn("Warm-up could not open pool connections: {}", e.getMessage());
+			} finally {
+				for (Connection connection : connections) {
+					try {
+						connection.close();
+					} catch (SQLException e) {
+						log.debug("Failed to return warm-up connection: {}", e.getMessage());
+					}
+				}
+			}
+		}
+		return opened;
+	}
+
+	private boolean awaitSearchIndex(long deadline) {
+		while (!searchIndexer.isReady()) {
+			if (!properties.isWaitForSearchIndex() || System.nanoTime() - deadline > 0) {
+				log.warn("Search index is not ready yet, warm-up continues without it");
+				return false;
+			}
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+}
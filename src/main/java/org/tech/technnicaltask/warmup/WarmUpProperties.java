@@ -0,0 +1,28 @@
+package org.tech.technnicaltask.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.warm-up")
+public class WarmUpProperties {
+
+	private boolean enabled = true;
+
+	//Upper bound of warm-up, steps that don't fit are skipped and readiness is reported anyway
+	private Duration timeout = Duration.ofSeconds(60);
+
+	//Calls of every read path, enough for C1 compilation of request handling (C2 follows under real load)
+	private int iterations = 1000;
+
+	//Synthetic tasks created, updated and deleted in transactions that are rolled back, 0: no writes
+	private int writeIterations = 100;
+
+	//Most recently updated tasks read through TaskService, so caches in front of storage are filled
+	private int preloadTasks = 1000;
+
+	//Readiness waits until search index is built or loaded from snapshot (within timeout)
+	private boolean waitForSearchIndex = true;
+}
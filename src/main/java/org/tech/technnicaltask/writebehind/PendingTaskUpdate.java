@@ -0,0 +1,26 @@
+package org.tech.technnicaltask.writebehind;
+
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.utils.Status;
+
+import java.time.LocalDateTime;
+
+//Not yet written changes of one task. Null field means "not changed"
+public record PendingTaskUpdate(String title, String description, Status status, LocalDateTime updatedAt) {
+
+	//Last writer wins per field: values of newer update replace values of this one
+	public PendingTaskUpdate mergeWith(PendingTaskUpdate newer) {
+		return new PendingTaskUpdate(
+				newer.title != null ? newer.title : title,
+				newer.description != null ? newer.description : description,
+				newer.status != null ? newer.status : status,
+				newer.updatedAt.isAfter(updatedAt) ? newer.updatedAt : updatedAt);
+	}
+
+	public void applyTo(TaskDto dto) {
+		if (title != null) dto.setTitle(title);
+		if (description != null) dto.setDescription(description);
+		if (status != null) dto.setStatus(status);
+		dto.setUpdatedAt(updatedAt);
+	}
+}
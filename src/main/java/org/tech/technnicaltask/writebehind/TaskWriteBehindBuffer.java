@@ -0,0 +1,260 @@
+package org.tech.technnicaltask.writebehind;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.sharding.ShardRouter;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalescing write-behind buffer for task updates.
+ * Updates of one task are merged (last writer wins per field) and written by a single flusher thread
+ * with multi-row UPDATE statements, every flush interval or as soon as max batch size is reached.
+ * Entries being written stay visible to readers until their UPDATE is committed, and written ones
+ * until read rows are at least as new as them (or visible-after-write passes).
+ * Failed flushes are retried with backoff; updates that keep failing are dropped after max attempts (dead-lettered).
+ */
+@Slf4j
+public class TaskWriteBehindBuffer {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	//Present only when sharding is enabled, then rows are updated on their shards
+	private final ShardRouter shardRouter;
+
+	private final WriteBehindProperties properties;
+
+	private final Map<UUID, PendingTaskUpdate> pending = new ConcurrentHashMap<>();
+
+	//Entries taken by current flush, visible for reads until they are written
+	private final Map<UUID, PendingTaskUpdate> inFlight = new ConcurrentHashMap<>();
+
+	//Written entries, applied to rows that are older than them (read before the write or from lagging replica)
+	private final Map<UUID, Written> written = new ConcurrentHashMap<>();
+
+	//Failed flushes per task. Used by flusher thread only
+	private final Map<UUID, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+	//Backoff after failed flush. Used by flusher thread only
+	private int consecutiveFailures;
+
+	private long retryAfterNanos;
+
+	private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+			runnable -> new Thread(runnable, "task-write-behind"));
+
+	private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+
+	private final Counter flushedRows;
+
+	private final Counter failedFlushes;
+
+	private final Counter deadLettered;
+
+	private record Written(PendingTaskUpdate update, long writtenNanos) {
+	}
+
+	public TaskWriteBehindBuffer(JdbcTemplate jdbcTemplate, WriteBehindProperties properties, MeterRegistry meterRegistry) {
+		this(jdbcTemplate, null, properties, meterRegistry);
+	}
+
+	public TaskWriteBehindBuffer(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, WriteBehindProperties properties, MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.shardRouter = shardRouter;
+		this.properties = properties;
+		this.flushedRows = Counter.builder("tasks.writebehind.flushed").description("Task rows written by write-behind buffer").register(meterRegistry);
+		this.failedFlushes = Counter.builder("tasks.writebehind.failures").description("Failed write-behind flushes").register(meterRegistry);
+		this.deadLettered = Counter.builder("tasks.writebehind.dead-lettered").description("Task updates dropped after max write attempts").register(meterRegistry);
+		Gauge.builder("tasks.writebehind.pending", pending, Map::size).description("Tasks with buffered updates").register(meterRegistry);
+		long intervalMillis = Math.max(1, properties.getFlushInterval().toMillis());
+		flusher.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public void enqueue(UUID id, PendingTaskUpdate update) {
+		pending.merge(id, update, PendingTaskUpdate::mergeWith);
+		if (pending.size() >= properties.getMaxBatchSize() && earlyFlushRequested.compareAndSet(false, true)) {
+			flusher.execute(this::flushSafely);
+		}
+	}
+
+	//Applies changes that may be missing in dto, so reads see the state that was acknowledged to clients.
+	//Entries move pending -> in flight -> written and are put into the next map before leaving the previous one,
+	//so reading the maps in the same order finds an entry that moves meanwhile
+	public void applyPending(TaskDto dto) {
+		if (dto == null || dto.getId() == null) return;
+		PendingTaskUpdate buffered = pending.get(dto.getId());
+		PendingTaskUpdate writing = inFlight.get(dto.getId());
+		Written done = written.get(dto.getId());
+		if (done != null && isOlder(dto.getUpdatedAt(), done.update().updatedAt())) done.update().applyTo(dto);
+		if (writing != null) writing.applyTo(dto);
+		if (buffered != null) buffered.applyTo(dto);
+	}
+
+	//Deleted task must not be updated later
+	public void discard(UUID id) {
+		pending.remove(id);
+		written.remove(id);
+	}
+
+	public int size() {
+		return pending.size();
+	}
+
+	//Writes everything that is buffered now. Called by flusher thread only (and on shutdown after it is stopped)
+	void flush() {
+		earlyFlushRequested.set(false);
+		long now = System.nanoTime();
+		written.values().removeIf(entry -> now - entry.writtenNanos() > properties.getVisibleAfterWrite().toNanos());
+		while (!pending.isEmpty()) {
+			List<Map.Entry<UUID, PendingTaskUpdate>> batch = takeBatch();
+			try {
+				write(batch);
+			} catch (RuntimeException e) {
+				failedFlushes.increment();
+				retryOrDeadLetter(batch);
+				throw e;
+			} finally {
+				batch.forEach(entry -> inFlight.remove(entry.getKey()));
+			}
+		}
+	}
+
+	private void write(List<Map.Entry<UUID, PendingTaskUpdate>> batch) {
+		int updated = shardRouter == null ? writeBatch(jdbcTemplate, batch) : writeSharded(batch);
+		flushedRows.increment(updated);
+		long now = System.nanoTime();
+		batch.forEach(entry -> {
+			written.put(entry.getKey(), new Written(entry.getValue(), now)); //before it leaves in-flight map
+			failedAttempts.remove(entry.getKey());
+		});
+		log.debug("Write-behind flushed {} task updates ({} rows matched)", batch.size(), updated);
+	}
+
+	//Returns entries to buffer, updates that came during flush are newer and win.
+	//Entries out of attempts are written alone, so one failing row doesn't hold back the rest of the batch
+	private void retryOrDeadLetter(List<Map.Entry<UUID, PendingTaskUpdate>> batch) {
+		List<Map.Entry<UUID, PendingTaskUpdate>> exhausted = new ArrayList<>();
+		for (Map.Entry<UUID, PendingTaskUpdate> entry : batch) {
+			if (failedAttempts.merge(entry.getKey(), 1, Integer::sum) >= properties.getMaxAttempts()) {
+				exhausted.add(entry);
+			} else {
+				pending.merge(entry.getKey(), entry.getValue(), (newer, older) -> older.mergeWith(newer));
+			}
+		}
+		for (Map.Entry<UUID, PendingTaskUpdate> entry : exhausted) {
+			try {
+				write(List.of(entry));
+			} catch (RuntimeException e) {
+				failedAttempts.remove(entry.getKey());
+				deadLettered.increment();
+				log.error("Write-behind update of Task {} is dropped after {} failed attempts: {}",
+						entry.getKey(), properties.getMaxAttempts(), entry.getValue(), e);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		flusher.shutdown();
+		if (!flusher.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+			log.warn("Write-behind flusher did not stop in time");
+		}
+		long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+		while (!pending.isEmpty()) {
+			try {
+				flush();
+			} catch (RuntimeException e) {
+				if (System.nanoTime() > deadline) {
+					log.error("Failed to write {} buffered task updates on shutdown", pending.size(), e);
+					return;
+				}
+				log.warn("Final write-behind flush failed, retrying: {}", e.getMessage());
+				Thread.sleep(200);
+			}
+		}
+		log.info("Write-behind buffer is empty, all task updates are written");
+	}
+
+	private void flushSafely() {
+		if (consecutiveFailures > 0 && System.nanoTime() - retryAfterNanos < 0) return;
+		try {
+			flush();
+			consecutiveFailures = 0;
+		} catch (RuntimeException e) {
+			consecutiveFailures++;
+			long backoffNanos = Math.min(properties.getMaxRetryBackoff().toNanos(),
+					properties.getFlushInterval().toNanos() << Math.min(consecutiveFailures, 20));
+			retryAfterNanos = System.nanoTime() + backoffNanos;
+			log.error("Write-behind flush failed, {} task updates will be retried in {} ms",
+					pending.size(), TimeUnit.NANOSECONDS.toMillis(backoffNanos), e);
+		}
+	}
+
+	//Timestamps are stored with microsecond precision, null means the row was read without one
+	private static boolean isOlder(LocalDateTime rowUpdatedAt, LocalDateTime writtenUpdatedAt) {
+		return rowUpdatedAt == null || rowUpdatedAt.isBefore(writtenUpdatedAt.truncatedTo(ChronoUnit.MICROS));
+	}
+
+	private List<Map.Entry<UUID, PendingTaskUpdate>> takeBatch() {
+		List<Map.Entry<UUID, PendingTaskUpdate>> batch = new ArrayList<>(Math.min(pending.size(), properties.getMaxBatchSize()));
+		Iterator<UUID> ids = pending.keySet().iterator();
+		while (ids.hasNext() && batch.size() < properties.getMaxBatchSize()) {
+			UUID id = ids.next();
+			PendingTaskUpdate update = pending.get(id);
+			if (update == null) continue;
+			inFlight.put(id, update); //visible for readers before it leaves pending map
+			if (pending.remove(id, update)) {
+				batch.add(Map.entry(id, update));
+			} else {
+				inFlight.remove(id); //changed concurrently, will be taken by next iteration
+			}
+		}
+		return batch;
+	}
+
+	private int writeSharded(List<Map.Entry<UUID, PendingTaskUpdate>> batch) {
+		int[] updated = new int[1];
+		shardRouter.forEachShard(batch, Map.Entry::getKey,
+				(shard, part) -> updated[0] += writeBatch(shardRouter.jdbcTemplate(shard), part));
+		return updated[0];
+	}
+
+	//One UPDATE ... FROM (VALUES ...) statement for the whole batch
+	private static int writeBatch(JdbcTemplate jdbcTemplate, List<Map.Entry<UUID, PendingTaskUpdate>> batch) {
+		StringBuilder sql = new StringBuilder("UPDATE tasks AS t SET " +
+				"title = COALESCE(v.title, t.title), " +
+				"description = COALESCE(v.description, t.description), " +
+				"status = COALESCE(v.status, t.status), " +
+				"updated_at = v.updated_at " +
+				"FROM (VALUES ");
+		Object[] args = new Object[batch.size() * 5];
+		for (int i = 0; i < batch.size(); i++) {
+			PendingTaskUpdate update = batch.get(i).getValue();
+			sql.append(i == 0 ? "" : ", ").append("(?::uuid, ?::varchar, ?::text, ?::varchar, ?::timestamp)");
+			args[i * 5] = batch.get(i).getKey();
+			args[i * 5 + 1] = update.title();
+			args[i * 5 + 2] = update.description();
+			args[i * 5 + 3] = update.status() != null ? update.status().name() : null;
+			args[i * 5 + 4] = Timestamp.valueOf(update.updatedAt());
+		}
+		sql.append(") AS v(id, title, description, status, updated_at) WHERE t.id = v.id");
+		return jdbcTemplate.update(sql.toString(), args);
+	}
+}
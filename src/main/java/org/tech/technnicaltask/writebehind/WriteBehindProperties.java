@@ -0,0 +1,31 @@
+package org.tech.technnicaltask.writebehind;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.write-behind")
+public class WriteBehindProperties {
+
+	private boolean enabled = false;
+
+	//Buffered updates are written to DB at least this often
+	private Duration flushInterval = Duration.ofMillis(20);
+
+	//Flush starts earlier when this number of tasks is buffered. Also max number of rows in one UPDATE
+	private int maxBatchSize = 500;
+
+	//Written updates stay visible to reads of older rows (replica lag, read started before the write) this long
+	private Duration visibleAfterWrite = Duration.ofSeconds(10);
+
+	//Failed flushes are retried with doubling delay up to this one
+	private Duration maxRetryBackoff = Duration.ofSeconds(5);
+
+	//Update that failed this many flushes is written alone once more, then dropped and counted as dead-lettered
+	private int maxAttempts = 30;
+
+	//How long shutdown waits for buffered updates to be written
+	private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
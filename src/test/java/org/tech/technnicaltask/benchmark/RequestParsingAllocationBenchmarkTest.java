@@ -0,0 +1,119 @@
+package org.tech.technnicaltask.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.dto.TaskUpdateDto;
+import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.utils.UuidParser;
+import org.tech.technnicaltask.validation.NullOrNotBlankValidator;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Bytes allocated per request by decoding of create/update payloads and id path variable,
+ * previous approach (String status + toUpperCase/valueOf, UUID.fromString, regex title check) vs current one.
+ * Measured with thread allocation counter, enabled only when bench.alloc is set:
+ * mvn test -Dtest=RequestParsingAllocationBenchmarkTest -Dbench.alloc=true [-Dbench.iterations=200000]
+ */
+@EnabledIfSystemProperty(named = "bench.alloc", matches = "true")
+public class RequestParsingAllocationBenchmarkTest {
+
+	private static final String CREATE_BODY = "{\"title\":\"Write report\",\"description\":\"Quarterly numbers\",\"status\":\"in_progress\"}";
+
+	private static final String UPDATE_BODY = "{\"title\":\"Write report\",\"status\":\"completed\"}";
+
+	private static final String ID = "01a154e1-fe05-7000-b26c-48adb775df69";
+
+	private static final Pattern NOT_BLANK = Pattern.compile("^(?!\\s*$).+$");
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+	private final NullOrNotBlankValidator notBlank = new NullOrNotBlankValidator();
+
+	//Sink, so JIT can't drop the measured work
+	private Object last;
+
+	@Test
+	public void allocationPerRequest_PreviousVsCurrentParsing() throws Exception {
+		int iterations = Integer.getInteger("bench.iterations", 200_000);
+
+		report("create body", iterations,
+				() -> {
+					LegacyTaskDto dto = mapper.readValue(CREATE_BODY, LegacyTaskDto.class);
+					last = Status.valueOf(dto.status.toUpperCase());
+				},
+				() -> last = mapper.readValue(CREATE_BODY, TaskDto.class).getStatus());
+		report("update body", iterations,
+				() -> {
+					LegacyTaskUpdateDto dto = mapper.readValue(UPDATE_BODY, LegacyTaskUpdateDto.class);
+					last = NOT_BLANK.matcher(dto.title).matches() ? Status.valueOf(dto.status.toUpperCase()) : null;
+				},
+				() -> {
+					TaskUpdateDto dto = mapper.readValue(UPDATE_BODY, TaskUpdateDto.class);
+					last = notBlank.isValid(dto.title(), null) ? dto.status() : null;
+				});
+		report("valid id", iterations, () -> last = UUID.fromString(ID), () -> last = UuidParser.parse(ID));
+		report("invalid id", iterations,
+				() -> {
+					try {
+						last = UUID.fromString("not-a-uuid");
+					} catch (IllegalArgumentException e) {
+						last = e;
+					}
+				},
+				() -> last = UuidParser.parse("not-a-uuid"));
+		report("invalid status", iterations,
+				() -> {
+					try {
+						last = Status.valueOf("done".toUpperCase());
+					} catch (IllegalArgumentException e) {
+						last = e;
+					}
+				},
+				() -> last = Status.parse("done"));
+	}
+
+	private void report(String name, int iterations, Task previous, Task current) throws Exception {
+		measure(previous, iterations); //warm-up
+		measure(current, iterations);
+		Result before = measure(previous, iterations);
+		Result after = measure(current, iterations);
+		System.out.printf("%-15s previous: %7.1f B/op %8.1f ns/op | current: %7.1f B/op %8.1f ns/op%n",
+				name, before.bytesPerOp, before.nanosPerOp, after.bytesPerOp, after.nanosPerOp);
+	}
+
+	private static Result measure(Task task, int iterations) throws Exception {
+		long bytes = THREADS.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) task.run();
+		long nanos = System.nanoTime() - start;
+		return new Result((double) (THREADS.getCurrentThreadAllocatedBytes() - bytes) / iterations, (double) nanos / iterations);
+	}
+
+	private interface Task {
+		void run() throws Exception;
+	}
+
+	private record Result(double bytesPerOp, double nanosPerOp) {
+	}
+
+	//DTOs as they were before: status is kept as String and parsed later
+	public static class LegacyTaskDto {
+		public UUID id;
+		public String title;
+		public String description;
+		public String status;
+	}
+
+	public static class LegacyTaskUpdateDto {
+		public String title;
+		public String description;
+		public String status;
+	}
+}
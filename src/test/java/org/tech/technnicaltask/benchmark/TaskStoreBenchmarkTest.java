@@ -0,0 +1,106 @@
+package org.tech.technnicaltask.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.tech.technnicaltask.TechnnicalTaskApplication;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.dto.TaskUpdateDto;
+import org.tech.technnicaltask.service.TaskService;
+import org.tech.technnicaltask.utils.Status;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Throughput of TaskService over JPA/PostgreSQL backend and over embedded store (profile "embedded").
+ * Tasks are created, read, updated and deleted by several threads. Needs running PostgreSQL with a dedicated database:
+ * mvn test -Dtest=TaskStoreBenchmarkTest -Dbench.db.url=jdbc:postgresql://localhost:5432/bench
+ * -Dbench.db.user=postgres -Dbench.db.password=... [-Dbench.tasks=20000] [-Dbench.threads=8]
+ */
+@EnabledIfSystemProperty(named = "bench.db.url", matches = ".+")
+public class TaskStoreBenchmarkTest {
+
+	@TempDir
+	private Path storeDirectory;
+
+	@Test
+	public void throughput_JpaVsEmbeddedStore() throws Exception {
+		int tasks = Integer.getInteger("bench.tasks", 20_000);
+		int threads = Integer.getInteger("bench.threads", 8);
+		Result jpa;
+		try (ConfigurableApplicationContext context = start(null,
+				"--spring.datasource.url=" + System.getProperty("bench.db.url"),
+				"--spring.datasource.username=" + System.getProperty("bench.db.user", "postgres"),
+				"--spring.datasource.password=" + System.getProperty("bench.db.password", ""))) {
+			jpa = run("jpa", context.getBean(TaskService.class), tasks, threads);
+		}
+		Result embedded;
+		try (ConfigurableApplicationContext context = start("embedded",
+				"--app.embedded.directory=" + storeDirectory)) {
+			embedded = run("embedded", context.getBean(TaskService.class), tasks, threads);
+		}
+		System.out.println(jpa);
+		System.out.println(embedded);
+		System.out.printf("embedded/jpa throughput: create %.1fx, read %.1fx, update %.1fx, delete %.1fx%n",
+				embedded.create / jpa.create, embedded.read / jpa.read, embedded.update / jpa.update, embedded.delete / jpa.delete);
+	}
+
+	private ConfigurableApplicationContext start(String profile, String... args) {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(TechnnicalTaskApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties("logging.level.root=warn", "spring.jpa.show-sql=false", "logging.file.name=");
+		if (profile != null) builder.profiles(profile);
+		return builder.run(args);
+	}
+
+	private Result run(String name, TaskService service, int tasks, int threads) throws Exception {
+		UUID[] ids = new UUID[tasks];
+		double create = measure(tasks, threads, i -> ids[i] = service.save(TaskDto.builder()
+				.title("Task " + i).description("Benchmark task").status(Status.PENDING).build()).getId());
+		double read = measure(tasks, threads, i -> service.getById(ids[i]));
+		double update = measure(tasks, threads, i -> service.updateTask(ids[i], new TaskUpdateDto(null, null, Status.IN_PROGRESS)));
+		double delete = measure(tasks, threads, i -> service.deleteById(ids[i]));
+		return new Result(name, create, read, update, delete);
+	}
+
+	//Operations per second, operation indexes are split between threads
+	private double measure(int operations, int threads, IntConsumer operation) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			long start = System.nanoTime();
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int first = t;
+				futures.add(executor.submit(() -> {
+					for (int i = first; i < operations; i += threads) {
+						operation.accept(i);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return operations / ((System.nanoTime() - start) / 1e9);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private record Result(String name, double create, double read, double update, double delete) {
+		@Override
+		public String toString() {
+			return String.format("%-8s create %8.0f ops/s, read %8.0f ops/s, update %8.0f ops/s, delete %8.0f ops/s",
+					name, create, read, update, delete);
+		}
+	}
+}
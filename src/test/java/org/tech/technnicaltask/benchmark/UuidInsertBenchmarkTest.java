@@ -0,0 +1,100 @@
+package org.tech.technnicaltask.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.tech.technnicaltask.utils.UuidV7Generator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Insert-throughput benchmark of random (v4) vs time-ordered (v7) primary keys on a large table.
+ * Needs running PostgreSQL, so it is enabled only when bench.db.url is set:
+ * mvn test -Dtest=UuidInsertBenchmarkTest -Dbench.db.url=jdbc:postgresql://localhost:5432/bench?reWriteBatchedInserts=true
+ * -Dbench.db.user=postgres -Dbench.db.password=... [-Dbench.rows=5000000]
+ */
+@EnabledIfSystemProperty(named = "bench.db.url", matches = ".+")
+public class UuidInsertBenchmarkTest {
+
+	private static final int BATCH_SIZE = 1000;
+
+	@Test
+	public void insertThroughput_RandomVsTimeOrderedIds() throws SQLException {
+		int rows = Integer.getInteger("bench.rows", 2_000_000);
+		try (Connection connection = DriverManager.getConnection(System.getProperty("bench.db.url"),
+				System.getProperty("bench.db.user", "postgres"), System.getProperty("bench.db.password", ""))) {
+			connection.setAutoCommit(false);
+			Result v4 = run(connection, "uuid_v4", rows, UUID::randomUUID);
+			Result v7 = run(connection, "uuid_v7", rows, UuidV7Generator::generate);
+			System.out.println(v4);
+			System.out.println(v7);
+			System.out.printf("v7/v4 throughput overall: %.2fx, of last 10%% rows: %.2fx, WAL: %.2fx, index size: %.2fx%n",
+					v7.rowsPerSecond / v4.rowsPerSecond,
+					v7.lastTenthRowsPerSecond / v4.lastTenthRowsPerSecond,
+					(double) v7.walBytes / v4.walBytes,
+					(double) v7.indexBytes / v4.indexBytes);
+		}
+	}
+
+	private Result run(Connection connection, String name, int rows, Supplier<UUID> ids) throws SQLException {
+		String table = "bench_tasks_" + name;
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS " + table);
+			statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, title VARCHAR(100) NOT NULL, " +
+					"description TEXT, status VARCHAR(25) NOT NULL, created_at TIMESTAMP, updated_at TIMESTAMP)");
+			connection.commit();
+		}
+		String walStart = queryString(connection, "SELECT pg_current_wal_lsn()::text");
+
+		long start = System.nanoTime();
+		long lastTenthStart = start;
+		int lastTenthFrom = rows - rows / 10;
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table +
+				" (id, title, description, status, created_at, updated_at) VALUES (?, ?, ?, 'PENDING', now(), now())")) {
+			for (int i = 0; i < rows; i++) {
+				if (i == lastTenthFrom) lastTenthStart = System.nanoTime();
+				insert.setObject(1, ids.get());
+				insert.setString(2, "Task " + i);
+				insert.setString(3, "Benchmark task");
+				insert.addBatch();
+				if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+					insert.executeBatch();
+					connection.commit();
+				}
+			}
+		}
+		long end = System.nanoTime();
+
+		long walBytes = queryLong(connection, "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '" + walStart + "'::pg_lsn)::bigint");
+		long indexBytes = queryLong(connection, "SELECT pg_relation_size('" + table + "_pkey')");
+		return new Result(name, rows,
+				rows / ((end - start) / 1e9),
+				(rows - lastTenthFrom) / ((end - lastTenthStart) / 1e9),
+				walBytes, indexBytes);
+	}
+
+	private static String queryString(Connection connection, String sql) throws SQLException {
+		try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+			rs.next();
+			return rs.getString(1);
+		}
+	}
+
+	private static long queryLong(Connection connection, String sql) throws SQLException {
+		return Long.parseLong(queryString(connection, sql));
+	}
+
+	private record Result(String name, int rows, double rowsPerSecond, double lastTenthRowsPerSecond, long walBytes, long indexBytes) {
+		@Override
+		public String toString() {
+			return String.format("%s: %d rows, %.0f rows/s overall, %.0f rows/s for last 10%%, WAL %d MB, pkey index %d MB",
+					name, rows, rowsPerSecond, lastTenthRowsPerSecond, walBytes >> 20, indexBytes >> 20);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package org.tech.technnicaltask.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastStartupConfigTest {
+
+	private final List<String> created = new ArrayList<>();
+
+	@Test
+	public void lazyInitialization_ApplicationBeansStayEager() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor());
+			context.registerBean(LazyInitializationExcludeFilter.class, FastStartupConfig::eagerApplicationBeans);
+			context.registerBean(Job.class, () -> new Job(created));
+			context.registerBean("library", StringBuilder.class, () -> {
+				created.add("library");
+				return new StringBuilder();
+			});
+			context.refresh();
+
+			assertEquals(List.of("job"), created);
+			context.getBean("library");
+			assertEquals(List.of("job", "library"), created);
+		}
+	}
+
+	static class Job {
+
+		Job(List<String> created) {
+			created.add("job");
+		}
+	}
+}
@@ -12,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.format.support.FormattingConversionService;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -19,6 +20,7 @@ import org.tech.technnicaltask.dto.TaskDto;
 import org.tech.technnicaltask.dto.TaskUpdateDto;
 import org.tech.technnicaltask.exceptions.GlobalExceptionHandler;
 import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.mapper.StringToUUIDConverter;
 import org.tech.technnicaltask.service.TaskService;
 import org.tech.technnicaltask.utils.ErrorCode;
 import org.tech.technnicaltask.utils.Status;
@@ -65,7 +67,7 @@ public class TaskRestControllerV1Test {
 				.andExpect(status().isOk())
 				.andExpect(jsonPath("$.title").value(defaultDto.getTitle()))
 				.andExpect(jsonPath("$.description").value(defaultDto.getDescription()))
-				.andExpect(jsonPath("$.status").value(defaultDto.getStatus()));
+				.andExpect(jsonPath("$.status").value(defaultDto.getStatus().name()));
 
 		verify(taskService, times(1)).getById(defaultDto.getId());
 	}
@@ -90,6 +92,16 @@ public class TaskRestControllerV1Test {
 		verify(taskService, times(1)).getById(any());
 	}
 
+	@Test
+	public void getById_WithMalformedId_ReturnsBadRequestWithoutCallingService() throws Exception {
+		mockMVC.perform(get("/api/v1/tasks/{id}", "not-a-uuid"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.exception").value("BadRequestException"))
+				.andExpect(jsonPath("$.message").value(ErrorCode.INVALID_UUID.getFormattedMessage("not-a-uuid")));
+
+		verify(taskService, times(0)).getById(any());
+	}
+
 	//Checking that getAllTasks method returns right list of dtos with right status code
 	@Test
 	public void getAllTasks_ReturnsOkAndListOfDto() throws Exception {
@@ -133,6 +145,42 @@ public class TaskRestControllerV1Test {
 		verify(taskService, times(1)).save(any());
 	}
 
+	//Status is parsed case-insensitively while reading JSON
+	@ParameterizedTest
+	@CsvSource({
+			"pending, PENDING",
+			"PeNdInG, PENDING",
+			"IN_PROGRESS, IN_PROGRESS",
+			"Completed, COMPLETED"
+	})
+	public void saveTask_WithStatusInAnyCase_PassesParsedStatus(String status, Status expected) throws Exception {
+		String dtoJson = "{\"title\":\"Valid Name\",\"status\":\"" + status + "\"}";
+		when(taskService.save(any())).thenReturn(defaultDto);
+
+		mockMVC.perform(post("/api/v1/tasks").contentType(MediaType.APPLICATION_JSON).content(dtoJson))
+				.andExpect(status().isCreated());
+		verify(taskService, times(1)).save(argThat(dto -> dto.getStatus() == expected));
+	}
+
+	@ParameterizedTest
+	@CsvSource({"DONE", "pending_", "''"})
+	public void saveTask_WithInvalidStatus_ReturnsBadRequestWithMessage(String status) throws Exception {
+		String dtoJson = "{\"title\":\"Valid Name\",\"status\":\"" + status + "\"}";
+
+		mockMVC.perform(post("/api/v1/tasks").contentType(MediaType.APPLICATION_JSON).content(dtoJson))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.exception").value("HttpMessageNotReadableException"))
+				.andExpect(jsonPath("$.message").value(ErrorCode.INVALID_STATUS.getFormattedMessage(status, List.of(Status.values()))));
+		verify(taskService, times(0)).save(any());
+	}
+
+	@Test
+	public void saveTask_WithBrokenJson_ReturnsBadRequest() throws Exception {
+		mockMVC.perform(post("/api/v1/tasks").contentType(MediaType.APPLICATION_JSON).content("{\"title\": broken"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.message").value(ErrorCode.MALFORMED_REQUEST_BODY.getMessage()));
+	}
+
 	@ParameterizedTest
 	@MethodSource("generateInvalidDtos")
 	void saveTask_WithInvalidData_ReturnsBadRequestHttpStatus(TaskDto invalid) throws Exception {
@@ -161,8 +209,9 @@ public class TaskRestControllerV1Test {
 			"ValidToo, Description, iN_ProGress"
 	})
 	public void updateTask_WithValidUpdateDto_ReturnsOkAndUpdatedDto(String title, String description, String status) throws Exception {
-		TaskUpdateDto taskUpdateDto = new TaskUpdateDto(title, description, status);
-		String jsonDto = mapper.writeValueAsString(taskUpdateDto);
+		TaskUpdateDto taskUpdateDto = new TaskUpdateDto(title, description, Status.parse(status));
+		String jsonDto = mapper.writeValueAsString(mapper.createObjectNode()
+				.put("title", title).put("description", description).put("status", status)); //status is sent as is
 
 		TaskDto expected = defaultDto;
 		expected.setTitle(taskUpdateDto.title());
@@ -176,7 +225,7 @@ public class TaskRestControllerV1Test {
 				.andExpect(jsonPath("$.id").value(expected.getId().toString()))
 				.andExpect(jsonPath("$.title").value(expected.getTitle()))
 				.andExpect(jsonPath("$.description").value(expected.getDescription()))
-				.andExpect(jsonPath("$.status").value(expected.getStatus()));
+				.andExpect(jsonPath("$.status").value(expected.getStatus().name()));
 
 		verify(taskService, times(1)).updateTask(defaultDto.getId(), taskUpdateDto);
 	}
@@ -239,18 +288,21 @@ public class TaskRestControllerV1Test {
 				.id(UUID.fromString("f4befda1-dbe2-425d-a52e-939d70d259ba"))
 				.title("Default Task")
 				.description("It's test task")
-				.status(Status.PENDING.toString())
+				.status(Status.PENDING)
 				.build();
 	}
 
 	private static TaskUpdateDto createDefaultTaskUpdateDto() {
-		return new TaskUpdateDto("ValidTitle", "Description", "COMPLETED");
+		return new TaskUpdateDto("ValidTitle", "Description", Status.COMPLETED);
 	}
 
 	//initialization of MockMVC for testing returning http status codes and exception handling
 	private MockMvc createMockMvc() {
+		FormattingConversionService conversionService = new FormattingConversionService();
+		conversionService.addConverter(new StringToUUIDConverter()); //same converter as in application context
 		return MockMvcBuilders
 				.standaloneSetup(controller)
+				.setConversionService(conversionService)
 				.setControllerAdvice(new GlobalExceptionHandler()) //Adding ExceptionHandler to test exception handling
 				.build();
 	}
@@ -274,10 +326,8 @@ public class TaskRestControllerV1Test {
 				dto -> dto.setId(null),
 				dto -> dto.setTitle("Valid Name"),
 				dto -> dto.setTitle(" Valid Name "),
-				dto -> dto.setStatus("pending"),
-				dto -> dto.setStatus("PeNdInG"),
-				dto -> dto.setStatus("IN_PROGRESS"),
-				dto -> dto.setStatus("COMPLETED")
+				dto -> dto.setStatus(Status.IN_PROGRESS),
+				dto -> dto.setStatus(Status.COMPLETED)
 		);
 
 		return applyModifiers(modifiers);
@@ -295,9 +345,9 @@ public class TaskRestControllerV1Test {
 	}
 
 	private static List<TaskUpdateDto> generateInvalidUpdateTasks() {
-		TaskUpdateDto invalid1 = new TaskUpdateDto("", "Description", "PENDING");
-		TaskUpdateDto invalid2 = new TaskUpdateDto(" ", "Description", "PENDING");
-		TaskUpdateDto invalid3 = new TaskUpdateDto("a".repeat(101), "Description", "PENDING");
+		TaskUpdateDto invalid1 = new TaskUpdateDto("", "Description", Status.PENDING);
+		TaskUpdateDto invalid2 = new TaskUpdateDto(" ", "Description", Status.PENDING);
+		TaskUpdateDto invalid3 = new TaskUpdateDto("a".repeat(101), "Description", Status.PENDING);
 
 		return List.of(invalid1, invalid2, invalid3);
 	}
@@ -5,7 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.tech.technnicaltask.dto.TaskDto;
@@ -13,6 +13,9 @@ import org.tech.technnicaltask.dto.TaskUpdateDto;
 import org.tech.technnicaltask.entity.TaskEntity;
 import org.tech.technnicaltask.exceptions.BadRequestException;
 import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.history.ChangeType;
+import org.tech.technnicaltask.history.TaskChange;
+import org.tech.technnicaltask.history.TaskHistoryBuffer;
 import org.tech.technnicaltask.mapper.TaskMapper;
 import org.tech.technnicaltask.repository.TaskRepository;
 import org.tech.technnicaltask.service.TaskService;
@@ -36,7 +39,6 @@ public class TaskServiceTest {
 	@Mock
 	private TaskMapper mapper;
 
-	@InjectMocks
 	private TaskService taskService;
 
 	private TaskDto defaultTaskDto;
@@ -50,6 +52,7 @@ public class TaskServiceTest {
 		defaultTaskEntity = createDefaultTaskEntity();
 		defaultTaskDto = createDefaultTaskDto();
 		defaulttaskUpdateDto = createDefaultTaskUpdateDto();
+		taskService = new TaskService(taskRepository, mapper, Optional.empty(), Optional.empty(), Optional.empty());
 
 		lenient().when(mapper.toEntity(any())).thenReturn(defaultTaskEntity);
 		lenient().when(mapper.toDtoList(any())).thenReturn(List.of(defaultTaskDto));
@@ -144,6 +147,26 @@ public class TaskServiceTest {
 		verify(taskRepository, times(1)).save(defaultTaskEntity);
 	}
 
+	@Test
+	public void updateTask_WithHistoryEnabled_RecordsOldAndNewValues() {
+		TaskHistoryBuffer history = mock(TaskHistoryBuffer.class);
+		taskService = new TaskService(taskRepository, mapper, Optional.empty(), Optional.of(history), Optional.empty());
+		Status oldStatus = defaultTaskEntity.getStatus();
+		String oldDescription = defaultTaskEntity.getDescription();
+		when(taskRepository.findById(any())).thenReturn(Optional.ofNullable(defaultTaskEntity));
+		when(taskRepository.save(any())).thenReturn(defaultTaskEntity);
+
+		taskService.updateTask(defaultTaskEntity.getId(), defaulttaskUpdateDto);
+
+		ArgumentCaptor<TaskChange> change = ArgumentCaptor.forClass(TaskChange.class);
+		verify(history).record(change.capture());
+		assertEquals(ChangeType.UPDATE, change.getValue().type());
+		assertEquals(oldStatus, change.getValue().before().status());
+		assertEquals(oldDescription, change.getValue().before().description());
+		assertEquals(defaulttaskUpdateDto.status(), change.getValue().after().status());
+		assertEquals(defaulttaskUpdateDto.description(), change.getValue().after().description());
+	}
+
 	@ParameterizedTest
 	@NullSource
 	public void updateTask_WithNullTaskUpdateDto_ThrowsBadRequestException(TaskUpdateDto dto) {
@@ -178,7 +201,7 @@ public class TaskServiceTest {
 				.id(UUID.fromString("f4befda1-dbe2-425d-a52e-939d70d259ba"))
 				.title("Default Task")
 				.description("It's test task")
-				.status(Status.PENDING.toString())
+				.status(Status.PENDING)
 				.build();
 	}
 
@@ -192,7 +215,7 @@ public class TaskServiceTest {
 	}
 
 	private TaskUpdateDto createDefaultTaskUpdateDto() {
-		return new TaskUpdateDto("ValidTitle", "Description", "COMPLETED");
+		return new TaskUpdateDto("ValidTitle", "Description", Status.COMPLETED);
 	}
 
 }
@@ -0,0 +1,117 @@
+package org.tech.technnicaltask.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaLoadBalancingDataSourceTest {
+
+	@Mock
+	private DataSource primary;
+
+	@Mock
+	private DataSource replica1;
+
+	@Mock
+	private DataSource replica2;
+
+	@Mock
+	private Connection primaryConnection;
+
+	@Mock
+	private Connection replicaConnection1;
+
+	@Mock
+	private Connection replicaConnection2;
+
+	private ReplicaLoadBalancingDataSource dataSource;
+
+	@BeforeEach
+	public void init() throws SQLException {
+		lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+		lenient().when(replica1.getConnection()).thenReturn(replicaConnection1);
+		lenient().when(replica2.getConnection()).thenReturn(replicaConnection2);
+		dataSource = new ReplicaLoadBalancingDataSource(primary, List.of(
+				new ReplicaLoadBalancingDataSource.Replica("replica-1", replica1),
+				new ReplicaLoadBalancingDataSource.Replica("replica-2", replica2)));
+	}
+
+	@AfterEach
+	public void clear() {
+		ReadYourWritesContext.clear();
+	}
+
+	@Test
+	public void getConnection_WithHealthyReplicas_BalancesInRoundRobin() throws SQLException {
+		assertSame(replicaConnection1, dataSource.getConnection());
+		assertSame(replicaConnection2, dataSource.getConnection());
+		assertSame(replicaConnection1, dataSource.getConnection());
+		verify(primary, times(0)).getConnection();
+	}
+
+	@Test
+	public void getConnection_WhenReplicaFails_SkipsItUntilHealthCheckPasses() throws SQLException {
+		when(replica1.getConnection()).thenThrow(new SQLException("connection refused")).thenReturn(replicaConnection1);
+
+		assertSame(replicaConnection2, dataSource.getConnection());
+		assertSame(replicaConnection2, dataSource.getConnection());
+		assertEquals(1, dataSource.healthyReplicaCount());
+
+		when(replicaConnection1.isValid(anyInt())).thenReturn(true);
+		when(replicaConnection2.isValid(anyInt())).thenReturn(true);
+		dataSource.checkHealth(1);
+		assertEquals(2, dataSource.healthyReplicaCount());
+	}
+
+	@Test
+	public void getConnection_WithoutHealthyReplicas_FallsBackToPrimary() throws SQLException {
+		when(replica1.getConnection()).thenThrow(new SQLException("down"));
+		when(replica2.getConnection()).thenThrow(new SQLException("down"));
+
+		assertSame(primaryConnection, dataSource.getConnection());
+		assertEquals(0, dataSource.healthyReplicaCount());
+	}
+
+	@Test
+	public void getConnection_WhenStickToPrimary_ReadsFromPrimary() throws SQLException {
+		ReadYourWritesContext.stickToPrimary();
+
+		assertSame(primaryConnection, dataSource.getConnection());
+		verify(replica1, times(0)).getConnection();
+		verify(replica2, times(0)).getConnection();
+	}
+
+	@Test
+	public void getConnectionWithCredentials_DelegatesToReplica() throws SQLException {
+		when(replica1.getConnection("reader", "secret")).thenReturn(replicaConnection1);
+
+		assertSame(replicaConnection1, dataSource.getConnection("reader", "secret"));
+		verify(primary, times(0)).getConnection(anyString(), anyString());
+	}
+
+	@Test
+	public void close_ClosesReplicaPools() throws Exception {
+		HikariDataSource pool = mock(HikariDataSource.class);
+		ReplicaLoadBalancingDataSource closeable = new ReplicaLoadBalancingDataSource(primary, List.of(
+				new ReplicaLoadBalancingDataSource.Replica("replica-1", pool),
+				new ReplicaLoadBalancingDataSource.Replica("replica-2", replica2)));
+
+		closeable.close();
+
+		verify(pool).close();
+		verifyNoInteractions(primary);
+	}
+}
@@ -0,0 +1,199 @@
+package org.tech.technnicaltask.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.tech.technnicaltask.aop.RequestDeadlineAspect;
+import org.tech.technnicaltask.exceptions.DeadlineExceededException;
+import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.mapper.TaskMapper;
+import org.tech.technnicaltask.repository.TaskRepository;
+import org.tech.technnicaltask.service.TaskService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class RequestDeadlineTest {
+
+	private static final UUID ID = UUID.fromString("00000000-0000-7000-8000-000000000001");
+
+	private final Counter exceeded = new SimpleMeterRegistry().counter("tasks.deadline.exceeded");
+
+	private DeadlineFilter filter;
+
+	@BeforeEach
+	public void init() {
+		DeadlineProperties properties = new DeadlineProperties();
+		properties.setDefaultTimeout(Duration.ofSeconds(30));
+		properties.setMaxTimeout(Duration.ofSeconds(10));
+		DeadlineProperties.Endpoint byId = new DeadlineProperties.Endpoint();
+		byId.setMethod("GET");
+		byId.setPath("/api/v1/tasks/{id}");
+		byId.setTimeout(Duration.ofSeconds(2));
+		properties.setEndpoints(List.of(byId));
+		filter = new DeadlineFilter(properties, exceeded, new ObjectMapper().findAndRegisterModules());
+	}
+
+	@AfterEach
+	public void clear() {
+		RequestDeadline.clear();
+	}
+
+	@Test
+	public void filter_BudgetFromHeaderCappedOrEndpointDefault() throws Exception {
+		assertEquals(500, budgetOf(request("GET", "/api/v1/tasks/" + ID, "500ms")));
+		assertEquals(250, budgetOf(request("GET", "/api/v1/tasks", "250")));
+		assertEquals(10_000, budgetOf(request("GET", "/api/v1/tasks", "PT1M"))); //capped by max-timeout
+		assertEquals(2_000, budgetOf(request("GET", "/api/v1/tasks/" + ID, null)));
+		assertEquals(30_000, budgetOf(request("DELETE", "/api/v1/tasks/" + ID, null)));
+		assertNull(RequestDeadline.current());
+	}
+
+	@Test
+	public void filter_RejectsExpiredAndInvalidBudget() throws Exception {
+		MockHttpServletResponse expired = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request("GET", "/api/v1/tasks", "0s"), expired, chain);
+		assertEquals(504, expired.getStatus());
+		assertTrue(expired.getContentAsString().contains("DeadlineExceededException"));
+		assertNull(chain.getRequest()); //request did not reach controller
+		assertEquals(1, exceeded.count());
+
+		MockHttpServletResponse invalid = new MockHttpServletResponse();
+		filter.doFilter(request("GET", "/api/v1/tasks", "soon"), invalid, new MockFilterChain());
+		assertEquals(400, invalid.getStatus());
+		assertTrue(invalid.getContentAsString().contains("Invalid X-Request-Timeout 'soon'"));
+	}
+
+	@Test
+	public void dataSource_RemainingBudgetBecomesStatementTimeout() throws Exception {
+		PreparedStatement statement = mock(PreparedStatement.class);
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenReturn(connection);
+		DeadlineDataSource dataSource = new DeadlineDataSource(target);
+
+		//no deadline: connection is returned as it is
+		assertSame(connection, dataSource.getConnection());
+
+		RequestDeadline.start(Duration.ofMillis(1500).toNanos());
+		Connection limited = dataSource.getConnection();
+		assertNotSame(connection, limited);
+		limited.prepareStatement("SELECT 1");
+		verify(statement).setQueryTimeout(2); //rounded up to seconds for drivers other than PostgreSQL
+		assertEquals(limited, limited);
+		limited.close();
+		verify(connection).close();
+
+		RequestDeadline.start(0);
+		assertThrows(SQLTimeoutException.class, dataSource::getConnection);
+	}
+
+	@Test
+	public void aspect_CancelsExpiredWorkAndReportsTimeoutCausedByDeadline() {
+		TaskRepository repository = mock(TaskRepository.class);
+		AtomicLong calls = new AtomicLong();
+		when(repository.findById(any())).thenAnswer(invocation -> {
+			calls.incrementAndGet();
+			Thread.sleep(20);
+			throw new QueryTimeoutException("canceling statement due to user request");
+		});
+		TaskService service = advised(new TaskService(advised(repository), mock(TaskMapper.class), Optional.empty(), Optional.empty(), Optional.empty()));
+
+		//without deadline errors pass unchanged
+		assertThrows(QueryTimeoutException.class, () -> service.getById(ID));
+
+		RequestDeadline.start(Duration.ofMillis(10).toNanos());
+		DeadlineExceededException e = assertThrows(DeadlineExceededException.class, () -> service.getById(ID));
+		assertInstanceOf(QueryTimeoutException.class, e.getCause());
+		assertEquals("Request deadline of 10 ms exceeded", e.getMessage());
+
+		//expired request does not reach the repository
+		assertThrows(DeadlineExceededException.class, () -> service.deleteById(ID));
+		assertEquals(2, calls.get());
+		assertEquals(2, exceeded.count());
+
+		//errors that are not caused by the deadline are kept
+		doReturn(Optional.empty()).when(repository).findById(any());
+		RequestDeadline.start(Duration.ofSeconds(10).toNanos());
+		assertThrows(TaskNotFoundException.class, () -> service.getById(ID));
+	}
+
+	@Test
+	public void aspect_ExpiredRequest_TranslatesOnlyTimeouts() {
+		TaskRepository repository = mock(TaskRepository.class);
+		TaskService service = advised(new TaskService(repository, mock(TaskMapper.class), Optional.empty(), Optional.empty(), Optional.empty()));
+
+		//error thrown after the deadline has passed, but not caused by it
+		doAnswer(invocation -> {
+			Thread.sleep(300);
+			throw new DataIntegrityViolationException("duplicate key");
+		}).when(repository).findById(any());
+		RequestDeadline.start(Duration.ofMillis(200).toNanos());
+		assertThrows(DataIntegrityViolationException.class, () -> service.getById(ID));
+
+		//pool timeout wrapped by Spring
+		doAnswer(invocation -> {
+			Thread.sleep(300);
+			throw new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection",
+					new SQLTransientConnectionException("task-pool - Connection is not available, request timed out after 10ms"));
+		}).when(repository).findById(any());
+		RequestDeadline.start(Duration.ofMillis(200).toNanos());
+		assertThrows(DeadlineExceededException.class, () -> service.getById(ID));
+
+		//statement cancelled by PostgreSQL
+		doAnswer(invocation -> {
+			Thread.sleep(300);
+			throw new UncategorizedSQLException("select", "select", new SQLException("canceling statement due to user request", "57014"));
+		}).when(repository).findById(any());
+		RequestDeadline.start(Duration.ofMillis(200).toNanos());
+		assertThrows(DeadlineExceededException.class, () -> service.getById(ID));
+		assertEquals(2, exceeded.count());
+	}
+
+	private long budgetOf(MockHttpServletRequest request) throws Exception {
+		long[] budget = {-1};
+		filter.doFilter(request, new MockHttpServletResponse(), (req, resp) -> budget[0] = RequestDeadline.current().getBudgetMillis());
+		return budget[0];
+	}
+
+	private static MockHttpServletRequest request(String method, String uri, String timeout) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		if (timeout != null) request.addHeader("X-Request-Timeout", timeout);
+		return request;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T advised(T target) {
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(!(target instanceof TaskRepository));
+		factory.addAspect(new RequestDeadlineAspect(exceeded));
+		return (T) factory.getProxy();
+	}
+}
@@ -0,0 +1,172 @@
+package org.tech.technnicaltask.embedded;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.dto.TaskUpdateDto;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.repository.TaskRepository;
+import org.tech.technnicaltask.service.TaskService;
+import org.tech.technnicaltask.utils.ErrorCode;
+import org.tech.technnicaltask.utils.Status;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Scenarios of TaskServiceTest in embedded profile context: TaskService bean with its aspects over InMemoryTaskRepository
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "app.warm-up.enabled=false")
+@ActiveProfiles("embedded")
+public class EmbeddedTaskServiceTest {
+
+	@TempDir
+	private static Path directory;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private InMemoryTaskRepository store;
+
+	private TaskDto defaultTaskDto;
+
+	private TaskUpdateDto defaulttaskUpdateDto;
+
+	@DynamicPropertySource
+	public static void storeDirectory(DynamicPropertyRegistry registry) {
+		registry.add("app.embedded.directory", directory::toString);
+	}
+
+	@BeforeEach
+	public void init() {
+		for (TaskEntity task : store.findAll()) {
+			store.delete(task);
+		}
+		defaultTaskDto = taskService.save(createDefaultTaskDto());
+		defaulttaskUpdateDto = new TaskUpdateDto("ValidTitle", "Description", Status.COMPLETED);
+	}
+
+	@Test
+	public void context_UsesEmbeddedStore() {
+		assertSame(store, taskRepository);
+	}
+
+	@Test
+	public void getById_withValidId_ReturnsTaskDto() {
+		TaskDto result = taskService.getById(defaultTaskDto.getId());
+
+		assertEquals(defaultTaskDto, result);
+	}
+
+	@ParameterizedTest
+	@NullSource
+	public void getById_WithNullId_ThrowsTaskNotFound(UUID id) {
+		assertThrows(TaskNotFoundException.class, () -> taskService.getById(id));
+	}
+
+	@Test
+	public void getAllTasks_ReturnsListOfDto() {
+		List<TaskDto> result = taskService.getAllTasks();
+
+		assertEquals(List.of(defaultTaskDto), result);
+	}
+
+	@Test
+	public void getAllTasks_WhenEntityListEmpty_ThrowsTaskNotFound() {
+		taskService.deleteById(defaultTaskDto.getId());
+
+		Exception exception = assertThrows(TaskNotFoundException.class, () -> taskService.getAllTasks());
+		assertEquals(ErrorCode.EMPTY_TASKS_LIST.getMessage(), exception.getMessage());
+	}
+
+	@Test
+	public void save_WithValidTaskDto_ReturnsSavedDto() {
+		TaskDto dto = createDefaultTaskDto();
+		dto.setId(UUID.fromString("f4befda1-dbe2-425d-a52e-939d70d259ba"));
+
+		TaskDto result = taskService.save(dto);
+
+		assertNotEquals(dto.getId(), result.getId()); //provided id is ignored
+		assertNotNull(result.getCreatedAt());
+		assertEquals(defaultTaskDto.getTitle(), result.getTitle());
+		assertEquals(result, taskService.getById(result.getId()));
+	}
+
+	@Test
+	public void deleteById_WithValidId_DeletesTask() {
+		taskService.deleteById(defaultTaskDto.getId());
+
+		assertTrue(store.findById(defaultTaskDto.getId()).isEmpty());
+	}
+
+	@ParameterizedTest
+	@NullSource
+	public void deleteById_WithNullId_ThrowsBadRequestException(UUID id) {
+		assertThrows(BadRequestException.class, () -> taskService.deleteById(id));
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	public void deleteById_WithInvalidId_ThrowsNotFoundException() {
+		UUID unknown = UUID.randomUUID();
+
+		Exception exception = assertThrows(TaskNotFoundException.class, () -> taskService.deleteById(unknown));
+		assertEquals(ErrorCode.TASK_NOT_FOUND.getFormattedMessage(unknown), exception.getMessage());
+	}
+
+	@Test
+	public void updateTask_WithValidData_ReturnsUpdatedDto() {
+		TaskDto result = taskService.updateTask(defaultTaskDto.getId(), defaulttaskUpdateDto);
+
+		assertEquals(defaulttaskUpdateDto.title(), result.getTitle());
+		assertEquals(defaulttaskUpdateDto.description(), result.getDescription());
+		assertEquals(defaulttaskUpdateDto.status(), result.getStatus());
+		assertEquals(result, taskService.getById(defaultTaskDto.getId()));
+	}
+
+	@ParameterizedTest
+	@NullSource
+	public void updateTask_WithNullTaskUpdateDto_ThrowsBadRequestException(TaskUpdateDto dto) {
+		Exception exception = assertThrows(BadRequestException.class, () -> taskService.updateTask(defaultTaskDto.getId(), dto));
+		assertEquals(ErrorCode.NULL_UPDATE_DTO.getMessage(), exception.getMessage());
+		assertEquals(defaultTaskDto, taskService.getById(defaultTaskDto.getId()));
+	}
+
+	@ParameterizedTest
+	@NullSource
+	public void updateTask_WithNullId_ThrowsBadRequestException(UUID id) {
+		Exception exception = assertThrows(BadRequestException.class, () -> taskService.updateTask(id, defaulttaskUpdateDto));
+		assertEquals(ErrorCode.ILLEGAL_MODIFY_ARGUMENTS.getMessage(), exception.getMessage());
+	}
+
+	@Test
+	public void updateTask_WithInvalidId_ThrowsTaskNotFoundException() {
+		UUID unknown = UUID.randomUUID();
+
+		assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(unknown, defaulttaskUpdateDto));
+		assertEquals(1, store.size());
+	}
+
+	private TaskDto createDefaultTaskDto() {
+		return TaskDto.builder()
+				.title("Default Task")
+				.description("It's test task")
+				.status(Status.PENDING)
+				.build();
+	}
+}
@@ -0,0 +1,195 @@
+package org.tech.technnicaltask.embedded;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.dto.TaskUpdateDto;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.mapper.TaskMapperImpl;
+import org.tech.technnicaltask.service.TaskService;
+import org.tech.technnicaltask.utils.Status;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryTaskRepositoryTest {
+
+	@TempDir
+	private Path temp;
+
+	private Path directory;
+
+	private final List<InMemoryTaskRepository> opened = new ArrayList<>();
+
+	private InMemoryTaskRepository repository;
+
+	@BeforeEach
+	public void init() throws IOException {
+		directory = temp.resolve("store");
+		repository = open(directory);
+	}
+
+	@AfterEach
+	public void close() throws IOException {
+		for (InMemoryTaskRepository store : opened) {
+			store.close();
+		}
+	}
+
+	@Test
+	public void save_newTask_generatesIdAndTimestamps() {
+		TaskEntity saved = repository.save(task("First", Status.PENDING));
+
+		assertNotNull(saved.getId());
+		assertNotNull(saved.getCreatedAt());
+		assertEquals(saved.getCreatedAt(), saved.getUpdatedAt());
+		assertEquals(saved, repository.findById(saved.getId()).orElseThrow());
+	}
+
+	@Test
+	public void saveAndDelete_manyTasks_hashIndexStaysConsistent() {
+		List<TaskEntity> tasks = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			tasks.add(task("Task " + i, Status.PENDING));
+		}
+		repository.saveAll(tasks);
+		for (int i = 0; i < tasks.size(); i += 2) {
+			repository.delete(tasks.get(i));
+		}
+
+		assertEquals(2500, repository.size());
+		for (int i = 0; i < tasks.size(); i++) {
+			assertEquals(i % 2 == 1, repository.findById(tasks.get(i).getId()).isPresent(), "task " + i);
+		}
+	}
+
+	@Test
+	public void secondaryIndexes_followUpdates() throws InterruptedException {
+		TaskEntity pending = repository.save(task("Pending", Status.PENDING));
+		TaskEntity done = repository.save(task("Done", Status.PENDING));
+		Thread.sleep(5);
+		LocalDateTime afterFirstWrites = LocalDateTime.now();
+		done.setStatus(Status.COMPLETED);
+		repository.save(done);
+
+		assertEquals(List.of(pending.getId()), repository.findAllByStatus(Status.PENDING).stream().map(TaskEntity::getId).toList());
+		assertEquals(List.of(done.getId()), repository.findAllByStatus(Status.COMPLETED).stream().map(TaskEntity::getId).toList());
+		assertEquals(List.of(done.getId()), repository.findAllUpdatedSince(afterFirstWrites).stream().map(TaskEntity::getId).toList());
+	}
+
+	@Test
+	public void recovery_afterCrash_replaysLog() throws IOException {
+		TaskEntity kept = repository.save(task("Kept", Status.PENDING));
+		TaskEntity deleted = repository.save(task("Deleted", Status.PENDING));
+		kept.setTitle("Kept and changed");
+		repository.save(kept);
+		repository.delete(deleted);
+
+		InMemoryTaskRepository recovered = open(copyOfFiles());
+
+		assertEquals(1, recovered.size());
+		assertEquals("Kept and changed", recovered.findById(kept.getId()).orElseThrow().getTitle());
+		assertTrue(recovered.findById(deleted.getId()).isEmpty());
+	}
+
+	@Test
+	public void recovery_tornLastRecord_isIgnored() throws IOException {
+		TaskEntity first = repository.save(task("First", Status.PENDING));
+		TaskEntity torn = repository.save(task("Torn", Status.PENDING));
+		Path copy = copyOfFiles();
+		try (RandomAccessFile segment = new RandomAccessFile(copy.resolve("wal-0000000000000000.log").toFile(), "rw")) {
+			long lastRecordEnd = lastRecordEnd(segment);
+			segment.seek(lastRecordEnd - 1);
+			int lastByte = segment.read();
+			segment.seek(lastRecordEnd - 1);
+			segment.write(lastByte ^ 0xFF);
+		}
+
+		InMemoryTaskRepository recovered = open(copy);
+
+		assertTrue(recovered.findById(first.getId()).isPresent());
+		assertTrue(recovered.findById(torn.getId()).isEmpty());
+	}
+
+	@Test
+	public void recovery_fromSnapshotAndNewerLog() throws IOException {
+		TaskEntity beforeSnapshot = repository.save(task("Before", Status.IN_PROGRESS));
+		repository.snapshot();
+		TaskEntity afterSnapshot = repository.save(task("After", Status.PENDING));
+
+		Path copy = copyOfFiles();
+		InMemoryTaskRepository recovered = open(copy);
+
+		assertEquals(beforeSnapshot, recovered.findById(beforeSnapshot.getId()).orElseThrow());
+		assertEquals(afterSnapshot, recovered.findById(afterSnapshot.getId()).orElseThrow());
+		try (Stream<Path> files = Files.list(directory)) {
+			assertTrue(files.noneMatch(file -> file.getFileName().toString().equals("wal-0000000000000000.log")));
+		}
+	}
+
+	@Test
+	public void taskService_worksOverEmbeddedStore() {
+		TaskService service = new TaskService(repository, new TaskMapperImpl(), Optional.empty(), Optional.empty(), Optional.empty());
+		TaskDto created = service.save(TaskDto.builder().title("Service").description("d").status(Status.PENDING).build());
+
+		TaskDto updated = service.updateTask(created.getId(), new TaskUpdateDto(null, null, Status.COMPLETED));
+		service.save(TaskDto.builder().title("Other").status(Status.PENDING).build());
+
+		assertEquals(Status.COMPLETED, updated.getStatus());
+		assertEquals(2, service.getAllTasks().size());
+		service.deleteById(created.getId());
+		assertThrows(TaskNotFoundException.class, () -> service.getById(created.getId()));
+	}
+
+	private InMemoryTaskRepository open(Path path) throws IOException {
+		EmbeddedStoreProperties properties = new EmbeddedStoreProperties();
+		properties.setDirectory(path);
+		properties.setSnapshotInterval(Duration.ofHours(1));
+		properties.setWalSegmentSize(DataSize.ofKilobytes(256));
+		InMemoryTaskRepository store = new InMemoryTaskRepository(properties);
+		opened.add(store);
+		return store;
+	}
+
+	//Files as they are on disk at this moment, like after process crash
+	private Path copyOfFiles() throws IOException {
+		Path copy = Files.createDirectories(temp.resolve("copy-" + UUID.randomUUID()));
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : files.toList()) {
+				Files.copy(file, copy.resolve(file.getFileName()));
+			}
+		}
+		return copy;
+	}
+
+	private static long lastRecordEnd(RandomAccessFile segment) throws IOException {
+		long offset = 0;
+		long end = 0;
+		while (true) {
+			segment.seek(offset);
+			int length = segment.readInt();
+			if (length == 0) return end;
+			offset += 8 + length;
+			end = offset;
+		}
+	}
+
+	private static TaskEntity task(String title, Status status) {
+		return TaskEntity.builder().title(title).status(status).build();
+	}
+}
@@ -0,0 +1,206 @@
+package org.tech.technnicaltask.history;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.tech.technnicaltask.utils.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class TaskHistoryBufferTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final TaskHistoryRepository repository = mock(TaskHistoryRepository.class);
+
+	private TaskHistoryBuffer buffer;
+
+	@AfterEach
+	public void close() throws InterruptedException {
+		if (buffer != null) buffer.shutdown();
+	}
+
+	@Test
+	public void ringBuffer_boundedAndFifo() {
+		MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3);
+		assertEquals(4, ring.capacity());
+		for (int i = 0; i < 4; i++) {
+			assertTrue(ring.offer(i));
+		}
+		assertFalse(ring.offer(4));
+
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(2, ring.drainTo(drained, 2));
+		assertTrue(ring.offer(4));
+		assertTrue(ring.offer(5));
+		ring.drainTo(drained, 10);
+
+		assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+		assertEquals(0, ring.size());
+	}
+
+	@Test
+	public void ringBuffer_concurrentProducers_everyElementOnceInProducerOrder() throws Exception {
+		MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(64);
+		int producers = 4;
+		int perProducer = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int p = 0; p < producers; p++) {
+			long producer = p;
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < perProducer; i++) {
+					long[] element = {producer, i};
+					while (!ring.offer(element)) {
+						Thread.onSpinWait();
+					}
+				}
+			});
+		}
+		start.countDown();
+		long[] next = new long[producers];
+		List<long[]> drained = new ArrayList<>();
+		int received = 0;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (received < producers * perProducer && System.nanoTime() < deadline) {
+			drained.clear();
+			received += ring.drainTo(drained, 100);
+			for (long[] element : drained) {
+				assertEquals(next[(int) element[0]]++, element[1]);
+			}
+		}
+		executor.shutdown();
+
+		assertEquals(producers * perProducer, received);
+	}
+
+	@Test
+	public void flush_writesMultiRowBatches_andRetriesFailedBatch() {
+		TaskHistoryProperties properties = properties(16, TaskHistoryProperties.OverflowPolicy.DROP);
+		buffer = new TaskHistoryBuffer(repository, properties, meterRegistry);
+		for (int i = 0; i < 5; i++) {
+			buffer.enqueue(change());
+		}
+		properties.setBatchSize(2);
+		when(repository.insertAll(anyList()))
+				.thenThrow(new DataAccessResourceFailureException("Connection refused"))
+				.thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+		assertThrows(DataAccessResourceFailureException.class, buffer::flush);
+		buffer.flush();
+
+		verify(repository, times(4)).insertAll(anyList()); //failed 2, retried 2, next 2, last 1
+		assertEquals(5.0, meterRegistry.get("tasks.history.written").counter().count());
+		assertEquals(1.0, meterRegistry.get("tasks.history.failures").counter().count());
+	}
+
+	@Test
+	public void flush_batchFailedMaxAttempts_writesRowsAloneAndDeadLettersFailing() {
+		TaskHistoryProperties properties = properties(16, TaskHistoryProperties.OverflowPolicy.DROP);
+		properties.setMaxAttempts(2);
+		buffer = new TaskHistoryBuffer(repository, properties, meterRegistry);
+		TaskChange bad = change();
+		buffer.enqueue(change());
+		buffer.enqueue(bad);
+		buffer.enqueue(change());
+		when(repository.insertAll(anyList())).thenAnswer(invocation -> {
+			List<?> rows = invocation.getArgument(0);
+			if (rows.contains(bad)) throw new DataIntegrityViolationException("value too long");
+			return rows.size();
+		});
+
+		assertThrows(DataIntegrityViolationException.class, buffer::flush);
+		buffer.flush();
+		buffer.flush();
+
+		verify(repository, times(5)).insertAll(anyList()); //batch twice, then 3 rows alone, nothing left afterwards
+		assertEquals(2.0, meterRegistry.get("tasks.history.written").counter().count());
+		assertEquals(1.0, meterRegistry.get("tasks.history.dead-lettered").counter().count());
+		assertEquals(2.0, meterRegistry.get("tasks.history.failures").counter().count());
+	}
+
+	@Test
+	public void cursor_encoded_decodesToSamePosition() {
+		TaskHistoryCursor cursor = new TaskHistoryCursor(LocalDateTime.of(2026, 10, 19, 17, 40, 7, 570_817_000), 42);
+
+		assertEquals(cursor, TaskHistoryCursor.decode(cursor.encode()));
+		assertThrows(IllegalArgumentException.class, () -> TaskHistoryCursor.decode("not a cursor"));
+		assertThrows(IllegalArgumentException.class, () -> TaskHistoryCursor.decode("zzz"));
+	}
+
+	@Test
+	public void dropPolicy_fullBuffer_dropsChange() {
+		buffer = new TaskHistoryBuffer(repository, properties(4, TaskHistoryProperties.OverflowPolicy.DROP), meterRegistry);
+		for (int i = 0; i < 6; i++) {
+			buffer.enqueue(change());
+		}
+
+		assertEquals(4, buffer.size());
+		assertEquals(2.0, meterRegistry.get("tasks.history.dropped").counter().count());
+	}
+
+	@Test
+	public void blockPolicy_fullBuffer_waitsForWriter() {
+		when(repository.insertAll(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+		buffer = new TaskHistoryBuffer(repository, properties(4, TaskHistoryProperties.OverflowPolicy.BLOCK), meterRegistry);
+		for (int i = 0; i < 6; i++) {
+			buffer.enqueue(change());
+		}
+
+		assertEquals(0.0, meterRegistry.get("tasks.history.dropped").counter().count());
+		assertTrue(meterRegistry.get("tasks.history.blocked").counter().count() >= 1);
+	}
+
+	@Test
+	public void record_inTransaction_isBufferedAfterCommit() {
+		buffer = new TaskHistoryBuffer(repository, properties(16, TaskHistoryProperties.OverflowPolicy.DROP), meterRegistry);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			buffer.record(change());
+			assertEquals(0, buffer.size());
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+			assertEquals(1, buffer.size());
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static TaskHistoryProperties properties(int capacity, TaskHistoryProperties.OverflowPolicy policy) {
+		TaskHistoryProperties properties = new TaskHistoryProperties();
+		properties.setBufferCapacity(capacity);
+		properties.setOverflowPolicy(policy);
+		properties.setBatchSize(100); //writer is started only by flush() calls and blocked producers
+		properties.setBlockTimeout(Duration.ofSeconds(5));
+		properties.setFlushInterval(Duration.ofHours(1));
+		properties.setShutdownTimeout(Duration.ofSeconds(1));
+		return properties;
+	}
+
+	private static TaskChange change() {
+		return TaskChange.updated(UUID.randomUUID(),
+				new TaskChange.Values("Title", null, Status.PENDING),
+				new TaskChange.Values("Title", null, Status.COMPLETED));
+	}
+}
@@ -0,0 +1,257 @@
+package org.tech.technnicaltask.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.tech.technnicaltask.utils.ClientKeys;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyFilterTest {
+
+	private static final String BODY = "{\"title\":\"Task\"}";
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private IdempotencyKeyStore store;
+
+	private IdempotencyFilter filter;
+
+	private IdempotencyProperties properties;
+
+	private AtomicInteger executions;
+
+	@BeforeEach
+	public void init() {
+		properties = new IdempotencyProperties();
+		properties.setStripes(4);
+		properties.setInFlightTimeout(Duration.ofSeconds(5));
+		properties.setMaxBody(DataSize.ofBytes(64));
+		meterRegistry = new SimpleMeterRegistry();
+		store = new IdempotencyKeyStore(properties, null, System::nanoTime);
+		filter = new IdempotencyFilter(store, properties, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+		executions = new AtomicInteger();
+	}
+
+	@Test
+	public void doFilter_SameKey_ReplaysFirstResponseWithoutExecuting() throws Exception {
+		MockHttpServletResponse first = perform("POST", "/api/v1/tasks", "key-1", BODY, created());
+		MockHttpServletResponse second = perform("POST", "/api/v1/tasks", "key-1", BODY, created());
+
+		assertEquals(1, executions.get());
+		assertEquals(201, second.getStatus());
+		assertEquals(first.getContentAsString(), second.getContentAsString());
+		assertEquals("/api/v1/tasks/1", second.getHeader(HttpHeaders.LOCATION));
+		assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals(1.0, meterRegistry.get("tasks.idempotency.replayed").counter().count());
+	}
+
+	@Test
+	public void doFilter_SameKeyOtherBody_Returns422() throws Exception {
+		perform("POST", "/api/v1/tasks", "key-1", BODY, created());
+		MockHttpServletResponse reused = perform("POST", "/api/v1/tasks", "key-1", "{\"title\":\"Other\"}", created());
+
+		assertEquals(422, reused.getStatus());
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	public void doFilter_SameKeyOtherClientId_IsExecutedWhenClientIdTrusted() throws Exception {
+		properties.setTrustClientId(true);
+		filter = new IdempotencyFilter(store, properties, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+		perform("POST", "/api/v1/tasks", "key-1", BODY, created());
+		MockHttpServletRequest request = request("POST", "/api/v1/tasks", "key-1", BODY);
+		request.addHeader(ClientKeys.CLIENT_ID_HEADER, "client-2");
+		filter.doFilter(request, new MockHttpServletResponse(), created());
+
+		assertEquals(2, executions.get());
+	}
+
+	@Test
+	public void doFilter_SameKeyOtherClientId_IsReplayedWhenClientIdNotTrusted() throws Exception {
+		perform("POST", "/api/v1/tasks", "key-1", BODY, created());
+		MockHttpServletRequest request = request("POST", "/api/v1/tasks", "key-1", BODY);
+		request.addHeader(ClientKeys.CLIENT_ID_HEADER, "client-2");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, created());
+
+		assertEquals(1, executions.get());
+		assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+	}
+
+	@Test
+	public void doFilter_FailedRequest_IsNotStored() throws Exception {
+		FilterChain failing = (req, res) -> {
+			executions.incrementAndGet();
+			((HttpServletResponse) res).setStatus(400);
+		};
+		assertEquals(400, perform("PUT", "/api/v1/tasks/1", "key-1", BODY, failing).getStatus());
+		assertEquals(201, perform("PUT", "/api/v1/tasks/1", "key-1", BODY, created()).getStatus());
+
+		assertEquals(2, executions.get());
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	public void doFilter_ConcurrentDuplicates_WaitForFirstRequest() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		FilterChain slow = (req, res) -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			created().doFilter(req, res);
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<MockHttpServletResponse> first = executor.submit(() -> perform("POST", "/api/v1/tasks", "key-1", BODY, slow));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			Future<MockHttpServletResponse> second = executor.submit(() -> perform("POST", "/api/v1/tasks", "key-1", BODY, created()));
+			Future<MockHttpServletResponse> third = executor.submit(() -> perform("POST", "/api/v1/tasks", "key-1", BODY, created()));
+			Thread.sleep(100);
+			assertFalse(second.isDone());
+			release.countDown();
+
+			assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+			assertEquals("true", second.get(5, TimeUnit.SECONDS).getHeader(IdempotencyFilter.REPLAYED_HEADER));
+			assertEquals("true", third.get(5, TimeUnit.SECONDS).getHeader(IdempotencyFilter.REPLAYED_HEADER));
+			assertEquals(1, executions.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void doFilter_InvalidKeyOrOtherEndpoint() throws Exception {
+		assertEquals(400, perform("POST", "/api/v1/tasks", " ", BODY, created()).getStatus());
+		assertEquals(400, perform("POST", "/api/v1/tasks", "k".repeat(256), BODY, created()).getStatus());
+		assertEquals(0, executions.get());
+
+		//import is not deduplicated
+		perform("POST", "/api/v1/tasks/import", "key-1", BODY, created());
+		perform("POST", "/api/v1/tasks/import", "key-1", BODY, created());
+		assertEquals(2, executions.get());
+	}
+
+	@Test
+	public void doFilter_BodyOverMaxSize_Returns413WithoutExecuting() throws Exception {
+		String large = "{\"title\":\"" + "a".repeat(64) + "\"}";
+
+		assertEquals(413, perform("POST", "/api/v1/tasks", "key-1", large, created()).getStatus());
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/tasks") {
+			@Override
+			public long getContentLengthLong() {
+				return 1_000_000; //declared length is checked before reading
+			}
+		};
+		request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-2");
+		request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, created());
+
+		assertEquals(413, response.getStatus());
+		assertEquals(0, executions.get());
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void doFilter_DatabaseFailsOnClaim_Returns503() throws Exception {
+		IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+		when(repository.claim(anyString(), anyString(), anyString(), any(), any())).thenThrow(new DataAccessResourceFailureException("connection refused"));
+		filter = new IdempotencyFilter(new IdempotencyKeyStore(properties, repository, System::nanoTime), properties,
+				new ObjectMapper().findAndRegisterModules(), meterRegistry);
+
+		MockHttpServletResponse response = perform("POST", "/api/v1/tasks", "key-1", BODY, created());
+
+		assertEquals(503, response.getStatus());
+		assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+		assertTrue(response.getContentAsString().contains("ServiceUnavailableException"));
+		assertEquals(0, executions.get());
+	}
+
+	@Test
+	public void doFilter_SharedKey_CompleteAndReleaseAreFencedByOwnerOfClaim() throws Exception {
+		IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+		when(repository.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(true);
+		filter = new IdempotencyFilter(new IdempotencyKeyStore(properties, repository, System::nanoTime), properties,
+				new ObjectMapper().findAndRegisterModules(), meterRegistry);
+		FilterChain failing = (req, res) -> ((HttpServletResponse) res).setStatus(500);
+
+		perform("POST", "/api/v1/tasks", "key-1", BODY, created());
+		perform("POST", "/api/v1/tasks", "key-2", BODY, failing);
+
+		ArgumentCaptor<String> owners = ArgumentCaptor.forClass(String.class);
+		verify(repository, times(2)).claim(anyString(), anyString(), owners.capture(), eq(properties.getLease()), any());
+		assertNotEquals(owners.getAllValues().get(0), owners.getAllValues().get(1));
+		verify(repository).complete(endsWith(":key-1"), eq(owners.getAllValues().get(0)), any());
+		verify(repository).release(endsWith(":key-2"), eq(owners.getAllValues().get(1)));
+	}
+
+	@Test
+	public void doFilter_ReadListenerOfCachedBody_IsNotifiedAtOnce() throws Exception {
+		ReadListener listener = mock(ReadListener.class);
+		FilterChain asyncRead = (req, res) -> {
+			ServletInputStream input = req.getInputStream();
+			input.setReadListener(listener);
+			input.readAllBytes();
+			input.setReadListener(listener);
+		};
+
+		perform("POST", "/api/v1/tasks", "key-1", BODY, asyncRead);
+
+		verify(listener, times(1)).onDataAvailable();
+		verify(listener, times(1)).onAllDataRead();
+	}
+
+	private FilterChain created() {
+		return (req, res) -> {
+			int id = executions.incrementAndGet();
+			HttpServletResponse response = (HttpServletResponse) res;
+			response.setStatus(201);
+			response.setContentType("application/json");
+			response.setHeader(HttpHeaders.LOCATION, "/api/v1/tasks/" + id);
+			response.getOutputStream().write(("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8));
+		};
+	}
+
+	private MockHttpServletResponse perform(String method, String uri, String key, String body, FilterChain chain) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request(method, uri, key, body), response, chain);
+		return response;
+	}
+
+	private MockHttpServletRequest request(String method, String uri, String key, String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		request.setContentType("application/json");
+		return request;
+	}
+}
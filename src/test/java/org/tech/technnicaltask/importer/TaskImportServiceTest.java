@@ -0,0 +1,80 @@
+package org.tech.technnicaltask.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.tech.technnicaltask.history.ChangeType;
+import org.tech.technnicaltask.history.TaskChange;
+import org.tech.technnicaltask.history.TaskHistoryBuffer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class TaskImportServiceTest {
+
+	@TempDir
+	private Path directory;
+
+	private TaskChunkWriter chunkWriter;
+
+	private TaskHistoryBuffer history;
+
+	private TaskImportService importService;
+
+	@BeforeEach
+	public void init() throws Exception {
+		ImportProperties properties = new ImportProperties();
+		properties.setDirectory(directory);
+		properties.setMaxUploadSize(DataSize.ofBytes(64));
+		properties.setConcurrency(1);
+		chunkWriter = mock(TaskChunkWriter.class);
+		when(chunkWriter.write(any())).thenAnswer(invocation -> (long) invocation.<List<?>>getArgument(0).size());
+		history = mock(TaskHistoryBuffer.class);
+		importService = new TaskImportService(chunkWriter, Validation.buildDefaultValidatorFactory().getValidator(),
+				new ObjectMapper(), properties, Optional.empty(), Optional.of(history));
+	}
+
+	@AfterEach
+	public void shutdown() {
+		importService.shutdown();
+	}
+
+	@Test
+	public void submit_UploadOverMaxSize_FailsJobWithoutSpooling() throws Exception {
+		byte[] body = ("title,status\n" + "Task,PENDING\n".repeat(10)).getBytes(StandardCharsets.UTF_8);
+
+		ImportJob job = importService.submit("text/csv", new ByteArrayInputStream(body));
+
+		assertEquals(ImportStatus.FAILED, job.getStatus());
+		assertEquals("Upload exceeds maximum import size of 0 MB", job.getError());
+		assertFalse(Files.exists(job.getUploadFile()));
+		verifyNoInteractions(chunkWriter);
+	}
+
+	@Test
+	public void submit_ImportedRows_RecordedAsCreatedInHistory() throws Exception {
+		byte[] body = "title,status\nFirst,PENDING\nSecond,COMPLETED\n".getBytes(StandardCharsets.UTF_8);
+
+		ImportJob job = importService.submit("text/csv", new ByteArrayInputStream(body));
+		for (int i = 0; i < 100 && !job.isFinished(); i++) {
+			Thread.sleep(50);
+		}
+
+		assertEquals(ImportStatus.COMPLETED, job.getStatus());
+		assertEquals(2, job.getRowsImported().get());
+		verify(history, times(2)).record(argThat((TaskChange change) -> change.type() == ChangeType.CREATE && change.before() == null));
+	}
+}
@@ -0,0 +1,83 @@
+package org.tech.technnicaltask.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.tech.technnicaltask.utils.Status;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskRowReaderTest {
+
+	@Test
+	public void csvReader_WithQuotedFields_ParsesCommasQuotesAndLineBreaks() throws IOException {
+		String csv = "status,title,description\r\n" +
+				"PENDING,Simple,Plain text\r\n" +
+				"completed,\"Title, with comma\",\"Says \"\"hi\"\"\nand continues\"\n" +
+				"\n" +
+				"IN_PROGRESS,No description,\n";
+
+		List<ImportRow> rows = readAll(new CsvTaskRowReader(new StringReader(csv)));
+
+		assertEquals(3, rows.size());
+		assertEquals("Simple", rows.get(0).dto().getTitle());
+		assertEquals("Title, with comma", rows.get(1).dto().getTitle());
+		assertEquals("Says \"hi\"\nand continues", rows.get(1).dto().getDescription());
+		assertEquals(Status.COMPLETED, rows.get(1).dto().getStatus());
+		assertNull(rows.get(2).dto().getDescription());
+		assertEquals(6, rows.get(2).line()); //record spanning two lines is counted by its first line
+	}
+
+	@Test
+	public void csvReader_WithWrongColumnCount_RejectsRow() throws IOException {
+		List<ImportRow> rows = readAll(new CsvTaskRowReader(new StringReader("title,status\nOnly title\nOk,PENDING")));
+
+		assertEquals(2, rows.size());
+		assertNull(rows.get(0).dto());
+		assertEquals("Only title", rows.get(0).raw());
+		assertEquals("Ok", rows.get(1).dto().getTitle());
+	}
+
+	@Test
+	public void csvReader_WithInvalidStatus_RejectsRow() throws IOException {
+		List<ImportRow> rows = readAll(new CsvTaskRowReader(new StringReader("title,status\nFirst,done\nSecond,pending")));
+
+		assertEquals(2, rows.size());
+		assertNull(rows.get(0).dto());
+		assertTrue(rows.get(0).error().startsWith("Invalid status 'done'"));
+		assertEquals(Status.PENDING, rows.get(1).dto().getStatus());
+	}
+
+	@Test
+	public void csvReader_WithoutRequiredHeader_Throws() {
+		assertThrows(IOException.class, () -> new CsvTaskRowReader(new StringReader("name,description\nx,y")));
+	}
+
+	@Test
+	public void ndjsonReader_WithBrokenLine_RejectsItAndContinues() throws IOException {
+		String ndjson = "{\"title\":\"First\",\"status\":\"PENDING\",\"id\":\"f4befda1-dbe2-425d-a52e-939d70d259ba\"}\n" +
+				"{\"title\": broken\n" +
+				"\n" +
+				"{\"title\":\"Second\",\"status\":\"completed\"}\n";
+
+		List<ImportRow> rows = readAll(new NdjsonTaskRowReader(new StringReader(ndjson), new ObjectMapper().findAndRegisterModules()));
+
+		assertEquals(3, rows.size());
+		assertEquals("First", rows.get(0).dto().getTitle());
+		assertNull(rows.get(0).dto().getId());
+		assertNotNull(rows.get(1).error());
+		assertEquals(2, rows.get(1).line());
+		assertEquals("Second", rows.get(2).dto().getTitle());
+	}
+
+	private static List<ImportRow> readAll(TaskRowReader reader) throws IOException {
+		List<ImportRow> rows = new ArrayList<>();
+		ImportRow row;
+		while ((row = reader.next()) != null) rows.add(row);
+		return rows;
+	}
+}
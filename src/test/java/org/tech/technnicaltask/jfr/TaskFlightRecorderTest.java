@@ -0,0 +1,187 @@
+package org.tech.technnicaltask.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.tech.technnicaltask.aop.TaskFlightRecorderAspect;
+import org.tech.technnicaltask.controller.TaskRestControllerV1;
+import org.tech.technnicaltask.dto.RecordingDto;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.dto.TaskUpdateDto;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.exceptions.RecordingNotFoundException;
+import org.tech.technnicaltask.mapper.TaskMapper;
+import org.tech.technnicaltask.repository.TaskRepository;
+import org.tech.technnicaltask.service.TaskService;
+import org.tech.technnicaltask.utils.Status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskFlightRecorderTest {
+
+	private static final UUID ID = UUID.fromString("00000000-0000-7000-8000-000000000001");
+
+	@TempDir
+	private Path directory;
+
+	private TaskService service;
+
+	private TaskRestControllerV1 controller;
+
+	@BeforeEach
+	public void init() {
+		TaskEntity entity = TaskEntity.builder().id(ID).title("Task").status(Status.PENDING).build();
+		TaskRepository repository = mock(TaskRepository.class);
+		when(repository.findById(ID)).thenReturn(Optional.of(entity));
+		when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		TaskMapper mapper = mock(TaskMapper.class);
+		when(mapper.toDto(any())).thenAnswer(invocation -> {
+			TaskEntity task = invocation.getArgument(0);
+			return new TaskDto(task.getId(), task.getTitle(), null, task.getStatus(), null, null);
+		});
+		service = advised(new TaskService(advised(repository), mapper, Optional.empty(), Optional.empty(), Optional.empty()));
+		controller = advised(new TaskRestControllerV1(service));
+	}
+
+	@Test
+	public void operationEvent_CarriesTransitionRowsAndDbTime() throws Exception {
+		List<RecordedEvent> events = record(() -> service.updateTask(ID, new TaskUpdateDto(null, null, Status.COMPLETED)));
+
+		RecordedEvent event = single(events, "org.tech.technnicaltask.TaskOperation");
+		assertEquals("updateTask", event.getString("operation"));
+		assertEquals(ID.toString(), event.getString("taskId"));
+		assertEquals("PENDING", event.getString("statusBefore"));
+		assertEquals("COMPLETED", event.getString("statusAfter"));
+		assertEquals(2, event.getLong("rows")); //read and saved
+		assertTrue(event.getLong("dbTime") > 0);
+		assertTrue(event.getLong("dbTime") <= event.getDuration().toNanos());
+		assertNull(OperationTrace.current());
+	}
+
+	@Test
+	public void requestEvent_IncludesNestedOperation() throws Exception {
+		List<RecordedEvent> events = record(() -> controller.getById(ID));
+
+		RecordedEvent request = single(events, "org.tech.technnicaltask.TaskRequest");
+		assertEquals(200, request.getInt("responseStatus"));
+		assertEquals(ID.toString(), request.getString("taskId"));
+		assertEquals("PENDING", request.getString("statusAfter"));
+		assertEquals(1, request.getLong("rows"));
+		assertEquals(1, single(events, "org.tech.technnicaltask.TaskOperation").getLong("rows"));
+	}
+
+	@Test
+	public void operationEvent_RecordsError() throws Exception {
+		List<RecordedEvent> events = record(() -> assertThrows(BadRequestException.class, () -> service.updateTask(ID, null)));
+
+		assertEquals("BadRequestException", single(events, "org.tech.technnicaltask.TaskOperation").getString("error"));
+		assertNull(OperationTrace.current());
+	}
+
+	@Test
+	public void withoutRecording_NothingIsTraced() {
+		service.getById(ID);
+
+		assertNull(OperationTrace.current());
+	}
+
+	@Test
+	public void recordingService_OneBoundedRecordingAtATime() throws Exception {
+		ProfilingProperties properties = new ProfilingProperties();
+		properties.setDirectory(directory.toString());
+		FlightRecordingService recordings = new FlightRecordingService(properties);
+		try {
+			assertThrows(BadRequestException.class, () -> recordings.start("0s", null));
+			assertThrows(BadRequestException.class, () -> recordings.start("1h", null));
+			assertThrows(BadRequestException.class, () -> recordings.start("soon", null));
+			assertThrows(BadRequestException.class, () -> recordings.start(null, "custom"));
+
+			Recording recording = recordings.start("30s", "default");
+			assertThrows(BadRequestException.class, () -> recordings.start(null, null));
+			assertThrows(BadRequestException.class, () -> recordings.file(recording.getId()));
+			assertThrows(RecordingNotFoundException.class, () -> recordings.get(recording.getId() + 1));
+			service.getById(ID);
+
+			Path file = recordings.stop(recording.getId());
+			assertTrue(Files.exists(file));
+			assertEquals(file, recordings.file(recording.getId()));
+			//environment, system properties and JVM arguments may hold credentials
+			assertTrue(RecordingFile.readAllEvents(file).stream().map(event -> event.getEventType().getName())
+					.noneMatch(name -> name.equals("jdk.InitialEnvironmentVariable") || name.equals("jdk.InitialSystemProperty")
+							|| name.equals("jdk.JVMInformation")));
+
+			//next recording replaces the previous one and its file
+			Recording next = recordings.start("PT30S", null);
+			assertFalse(Files.exists(file));
+			assertThrows(RecordingNotFoundException.class, () -> recordings.get(recording.getId()));
+			assertEquals(next, recordings.get(next.getId()));
+		} finally {
+			recordings.close();
+		}
+	}
+
+	@Test
+	public void recordingEndpoint_MapsServiceErrorsToStatus() {
+		ProfilingProperties properties = new ProfilingProperties();
+		properties.setDirectory(directory.toString());
+		FlightRecordingService recordings = new FlightRecordingService(properties);
+		FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(recordings);
+		try {
+			assertEquals(400, endpoint.start("1h", null).getStatus());
+			WebEndpointResponse<Object> started = endpoint.start("30s", "default");
+			assertEquals(201, started.getStatus());
+			long id = ((RecordingDto) started.getBody()).id();
+
+			assertEquals(404, endpoint.get(id + 1).getStatus());
+			assertEquals(400, endpoint.file(id, "file").getStatus());
+			assertNotEquals("RUNNING", ((RecordingDto) endpoint.stop(id).getBody()).state());
+			assertEquals(404, endpoint.file(id, "other").getStatus());
+			assertEquals(200, endpoint.file(id, "file").getStatus());
+		} finally {
+			recordings.close();
+		}
+	}
+
+	private List<RecordedEvent> record(Runnable action) throws Exception {
+		try (Recording recording = new Recording()) {
+			recording.enable(TaskRequestEvent.class).withThreshold(Duration.ZERO);
+			recording.enable(TaskOperationEvent.class).withThreshold(Duration.ZERO);
+			recording.start();
+			action.run();
+			recording.stop();
+			Path file = directory.resolve("test.jfr");
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		}
+	}
+
+	private static RecordedEvent single(List<RecordedEvent> events, String name) {
+		List<RecordedEvent> matching = events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+		assertEquals(1, matching.size());
+		return matching.get(0);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T advised(T target) {
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(!(target instanceof TaskRepository));
+		factory.addAspect(new TaskFlightRecorderAspect());
+		return (T) factory.getProxy();
+	}
+}
@@ -0,0 +1,104 @@
+package org.tech.technnicaltask.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.tech.technnicaltask.utils.ClientKeys;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private RateLimitFilter filter;
+
+	@BeforeEach
+	public void init() {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setRead(new RateLimitProperties.Limit(1, 2, 1000, 1000));
+		properties.setWrite(new RateLimitProperties.Limit(1, 1, 1000, 1000));
+		meterRegistry = new SimpleMeterRegistry();
+		filter = new RateLimitFilter(properties, meterRegistry, new ObjectMapper().findAndRegisterModules());
+	}
+
+	@Test
+	public void tokenBucketTable_AllowsBurstThenRejects() {
+		TokenBucketTable table = new TokenBucketTable(16, 10, 3);
+		long now = 1_000_000_000L;
+
+		assertEquals(0, table.tryAcquire("client", now));
+		assertEquals(0, table.tryAcquire("client", now));
+		assertEquals(0, table.tryAcquire("client", now));
+		long waitNanos = table.tryAcquire("client", now);
+		assertTrue(waitNanos > 0 && waitNanos <= 100_000_000L); //one token is refilled every 100ms
+
+		assertEquals(0, table.tryAcquire("client", now + waitNanos));
+	}
+
+	@Test
+	public void doFilter_OverClientLimit_Returns429WithRetryAfter() throws Exception {
+		assertEquals(200, perform("GET", "client-1").getStatus());
+		assertEquals(200, perform("GET", "client-1").getStatus());
+
+		MockHttpServletResponse rejected = perform("GET", "client-1");
+		assertEquals(429, rejected.getStatus());
+		assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+		assertTrue(rejected.getContentAsString().contains("TooManyRequests"));
+		assertEquals(1.0, meterRegistry.get("tasks.ratelimit.rejected").tag("kind", "read").tag("scope", "client").counter().count());
+	}
+
+	@Test
+	public void doFilter_ReadAndWriteLimitsAndClientsAreSeparate() throws Exception {
+		assertEquals(200, perform("POST", "client-1").getStatus());
+		assertEquals(429, perform("PUT", "client-1").getStatus());
+
+		assertEquals(200, perform("GET", "client-1").getStatus()); //read bucket is not affected by writes
+		assertEquals(200, perform("DELETE", "client-2").getStatus()); //other client has its own bucket
+	}
+
+	@Test
+	public void doFilter_RotatedClientIdFromSameAddress_Returns429() throws Exception {
+		assertEquals(200, perform("POST", "client-1").getStatus());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/tasks");
+		request.setRemoteAddr("10.0.0.1");
+		request.addHeader(ClientKeys.CLIENT_ID_HEADER, "client-3");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		assertEquals(429, response.getStatus()); //header is not trusted by default, address is the key
+	}
+
+	@Test
+	public void doFilter_OverGlobalLimit_RefundsClientToken() throws Exception {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setWrite(new RateLimitProperties.Limit(1, 2, 1, 1));
+		filter = new RateLimitFilter(properties, meterRegistry, new ObjectMapper().findAndRegisterModules());
+
+		assertEquals(200, perform("POST", "client-1").getStatus());
+		assertEquals(429, perform("POST", "client-2").getStatus());
+		assertEquals(1.0, meterRegistry.get("tasks.ratelimit.rejected").tag("kind", "write").tag("scope", "global").counter().count());
+
+		TokenBucketTable table = new TokenBucketTable(16, 1, 1);
+		long now = 1_000_000_000L;
+		assertEquals(0, table.tryAcquire("client", now));
+		table.refund("client");
+		assertEquals(0, table.tryAcquire("client", now)); //refunded token is available again
+		assertTrue(table.tryAcquire("client", now) > 0);
+	}
+
+	//Every client id gets its own address, as if clients were behind different hosts
+	private MockHttpServletResponse perform(String method, String clientId) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/tasks");
+		request.setRemoteAddr("10.0.0." + clientId.substring(clientId.lastIndexOf('-') + 1));
+		request.addHeader(ClientKeys.CLIENT_ID_HEADER, clientId);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+}
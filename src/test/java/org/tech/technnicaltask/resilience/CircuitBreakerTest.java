@@ -0,0 +1,193 @@
+package org.tech.technnicaltask.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.tech.technnicaltask.aop.TaskStoreCircuitBreakerAspect;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.exceptions.ServiceUnavailableException;
+import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.mapper.TaskMapperImpl;
+import org.tech.technnicaltask.repository.TaskRepository;
+import org.tech.technnicaltask.service.TaskService;
+import org.tech.technnicaltask.utils.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CircuitBreakerTest {
+
+	private final long[] now = {1_000_000_000L};
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private CircuitBreaker breaker;
+
+	@BeforeEach
+	public void init() {
+		meterRegistry = new SimpleMeterRegistry();
+		breaker = new CircuitBreaker("test", properties(), meterRegistry, () -> now[0]);
+	}
+
+	@Test
+	public void failureRateReached_opensAndRejectsWithRetryAfter() {
+		for (int i = 0; i < 5; i++) {
+			breaker.record(breaker.acquire(), 1_000, i % 2 == 1);
+		}
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState()); //2 of 5 failed
+
+		breaker.record(breaker.acquire(), 1_000, true);
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		now[0] += Duration.ofMillis(8500).toNanos();
+		ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, breaker::acquire);
+		assertEquals(2, e.getRetryAfterSeconds());
+		assertEquals(1.0, meterRegistry.get("tasks.circuitbreaker.transitions").tag("from", "CLOSED").tag("to", "OPEN").counter().count());
+		assertEquals(1.0, meterRegistry.get("tasks.circuitbreaker.state").gauge().value());
+	}
+
+	@Test
+	public void slowCalls_openBreaker() {
+		for (int i = 0; i < 5; i++) {
+			breaker.record(breaker.acquire(), Duration.ofSeconds(3).toNanos(), false);
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	public void halfOpen_successfulTrialCallsClose_failedReopen() {
+		open();
+		now[0] += Duration.ofSeconds(10).toNanos();
+
+		long first = breaker.acquire();
+		long second = breaker.acquire();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertThrows(ServiceUnavailableException.class, breaker::acquire); //only 2 trial calls
+		breaker.record(first, 1_000, false);
+		breaker.record(second, 1_000, false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		open();
+		now[0] += Duration.ofSeconds(10).toNanos();
+		breaker.record(breaker.acquire(), 1_000, true);
+		breaker.record(breaker.acquire(), 1_000, false);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	public void outcomeOfCallPermittedBeforeTransition_isIgnored() {
+		long old = breaker.acquire();
+		open();
+		now[0] += Duration.ofSeconds(10).toNanos();
+		long trial = breaker.acquire();
+
+		breaker.record(old, 1_000, true);
+		breaker.record(trial, 1_000, false);
+
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState()); //still waiting for second trial call
+	}
+
+	@Test
+	public void aspect_servesLastKnownGoodTaskWhileOpen() {
+		TaskRepository repository = mock(TaskRepository.class);
+		TaskEntity entity = new TaskEntity(UUID.randomUUID(), "Title", null, Status.PENDING, LocalDateTime.now(), LocalDateTime.now());
+		when(repository.findById(entity.getId())).thenReturn(Optional.of(entity));
+		TaskService service = guarded(new TaskService(repository, new TaskMapperImpl(), Optional.empty(), Optional.empty(), Optional.empty()));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+		try {
+			service.getById(entity.getId());
+			when(repository.findById(any())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+			for (int i = 0; i < 6; i++) {
+				service.getById(entity.getId()); //failures are answered from last-known-good store
+			}
+			assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+			clearInvocations(repository);
+
+			TaskDto stale = service.getById(entity.getId());
+			UUID unknown = UUID.randomUUID();
+
+			assertEquals("Title", stale.getTitle());
+			assertEquals("true", response.getHeader(TaskStoreCircuitBreakerAspect.STALE_HEADER));
+			assertEquals("0", response.getHeader(HttpHeaders.AGE));
+			assertThrows(ServiceUnavailableException.class, () -> service.getById(unknown));
+			assertThrows(ServiceUnavailableException.class, () -> service.deleteById(entity.getId()));
+			verifyNoInteractions(repository);
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test
+	public void aspect_taskNotFound_isNotFailureAndEvictsTask() {
+		TaskRepository repository = mock(TaskRepository.class);
+		TaskEntity entity = new TaskEntity(UUID.randomUUID(), "Title", null, Status.PENDING, LocalDateTime.now(), LocalDateTime.now());
+		when(repository.findById(entity.getId())).thenReturn(Optional.of(entity));
+		TaskService service = guarded(new TaskService(repository, new TaskMapperImpl(), Optional.empty(), Optional.empty(), Optional.empty()));
+		service.getById(entity.getId());
+		when(repository.findById(entity.getId())).thenReturn(Optional.empty());
+		for (int i = 0; i < 10; i++) {
+			assertThrows(TaskNotFoundException.class, () -> service.getById(entity.getId()));
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		when(repository.findById(entity.getId())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+		assertThrows(DataAccessResourceFailureException.class, () -> service.getById(entity.getId()));
+	}
+
+	@Test
+	public void aspect_WithoutRemembering_TaskIsNotStored() {
+		TaskRepository repository = mock(TaskRepository.class);
+		TaskEntity entity = new TaskEntity(UUID.randomUUID(), "Title", null, Status.PENDING, LocalDateTime.now(), LocalDateTime.now());
+		when(repository.findById(entity.getId())).thenReturn(Optional.of(entity));
+		TaskService service = guarded(new TaskService(repository, new TaskMapperImpl(), Optional.empty(), Optional.empty(), Optional.empty()));
+		LastKnownGoodTasks.withoutRemembering(() -> service.getById(entity.getId()));
+		assertFalse(LastKnownGoodTasks.isSuspended());
+
+		when(repository.findById(any())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+		//failure is not answered from last-known-good store
+		assertThrows(DataAccessResourceFailureException.class, () -> service.getById(entity.getId()));
+	}
+
+	private TaskService guarded(TaskService service) {
+		LastKnownGoodTasks lastKnownGood = new LastKnownGoodTasks(100, Duration.ofMinutes(1).toNanos(), () -> now[0]);
+		AspectJProxyFactory factory = new AspectJProxyFactory(service);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(new TaskStoreCircuitBreakerAspect(breaker, lastKnownGood, meterRegistry));
+		return factory.getProxy();
+	}
+
+	private void open() {
+		for (int i = 0; i < 5; i++) {
+			breaker.record(breaker.acquire(), 1_000, true);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	private static CircuitBreakerProperties properties() {
+		CircuitBreakerProperties properties = new CircuitBreakerProperties();
+		properties.setSlidingWindowSize(10);
+		properties.setMinimumCalls(5);
+		properties.setFailureRateThreshold(50);
+		properties.setSlowCallDuration(Duration.ofSeconds(1));
+		properties.setSlowCallRateThreshold(80);
+		properties.setOpenDuration(Duration.ofSeconds(10));
+		properties.setHalfOpenCalls(2);
+		return properties;
+	}
+}
@@ -0,0 +1,241 @@
+package org.tech.technnicaltask.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.history.TaskChange;
+import org.tech.technnicaltask.utils.Status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+	private static final UUID REPORT = UUID.fromString("00000000-0000-7000-8000-000000000001");
+
+	private static final UUID REVIEW = UUID.fromString("00000000-0000-7000-8000-000000000002");
+
+	private static final UUID DEPLOY = UUID.fromString("00000000-0000-7000-8000-000000000003");
+
+	private SearchProperties properties;
+
+	private TaskSearchIndex index;
+
+	@BeforeEach
+	public void init() {
+		properties = new SearchProperties();
+		index = new TaskSearchIndex(properties);
+		index.put(REPORT, "Write quarterly report", "Numbers for the finance team", Status.PENDING, 1);
+		index.put(REVIEW, "Review pull request", "Check the report generator code", Status.IN_PROGRESS, 1);
+		index.put(DEPLOY, "Deploy to production", "After review is approved", Status.COMPLETED, 1);
+	}
+
+	@Test
+	public void tokenize_LowerCaseLettersAndDigits() {
+		assertEquals(List.of("fix", "bug", "42", "in", "ünïcode", "parser"), Tokenizer.tokenize("Fix bug #42 in Ünïcode-parser!"));
+		assertEquals(Tokenizer.MAX_TOKEN_LENGTH, Tokenizer.tokenize("a".repeat(100)).get(0).length());
+		assertTrue(Tokenizer.tokenize(" -- ").isEmpty());
+	}
+
+	@Test
+	public void postingList_RoundTripsGapsAndFrequencies() {
+		PostingList postings = new PostingList();
+		postings.add(3, 1);
+		postings.add(200, 7);
+		postings.add(1_000_000, 300);
+		StringBuilder visited = new StringBuilder();
+		postings.forEach((doc, frequency) -> visited.append(doc).append(':').append(frequency).append(' '));
+
+		assertEquals("3:1 200:7 1000000:300 ", visited.toString());
+		assertEquals(3, postings.docs());
+		assertThrows(IllegalArgumentException.class, () -> postings.add(200, 1));
+	}
+
+	@Test
+	public void search_TitleMatchRanksHigherThanDescription() {
+		List<TaskSearchIndex.Hit> hits = index.search("report", null, 10);
+
+		assertEquals(List.of(REPORT, REVIEW), ids(hits));
+		assertTrue(hits.get(0).score() > hits.get(1).score());
+		assertEquals("Write quarterly report", hits.get(0).title());
+	}
+
+	@Test
+	public void search_AllWordsMustMatch_PrefixesExpand() {
+		assertEquals(List.of(REVIEW), ids(index.search("REVIEW generator", null, 10)));
+		assertEquals(List.of(REPORT), ids(index.search("quart rep", null, 10)));
+		//single character is matched as a whole word only
+		assertTrue(index.search("q", null, 10).isEmpty());
+		assertTrue(index.search("report unknown", null, 10).isEmpty());
+	}
+
+	@Test
+	public void search_FiltersByStatusAndLimit() {
+		assertEquals(List.of(DEPLOY), ids(index.search("review", Status.COMPLETED, 10)));
+		assertEquals(1, index.search("review", null, 1).size());
+	}
+
+	@Test
+	public void putAndRemove_ReplacePreviousVersion() {
+		index.put(REPORT, "Write annual summary", null, Status.COMPLETED, 2);
+		index.remove(DEPLOY);
+
+		assertEquals(List.of(REVIEW), ids(index.search("report", null, 10)));
+		assertEquals(List.of(REPORT), ids(index.search("annual", Status.COMPLETED, 10)));
+		assertTrue(index.search("production", null, 10).isEmpty());
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	public void compact_DropsOldVersionsAndKeepsResults() {
+		for (int i = 0; i < 10; i++) {
+			index.put(REVIEW, "Review pull request " + i, "Check the report generator code", Status.IN_PROGRESS, i);
+		}
+		index.remove(DEPLOY);
+		assertFalse(index.compactIfNeeded(0.99));
+		List<TaskSearchIndex.Hit> before = index.search("report", null, 10);
+
+		assertTrue(index.compactIfNeeded(0.3));
+		assertEquals(before, index.search("report", null, 10));
+		assertTrue(index.search("production", null, 10).isEmpty());
+		assertEquals(List.of(REVIEW), ids(index.search("9", null, 10)));
+	}
+
+	@Test
+	public void search_OldVersionsDoNotCountInDocumentFrequency() {
+		for (int i = 0; i < 20; i++) {
+			index.put(DEPLOY, "Deploy to production " + i, "After review is approved", Status.COMPLETED, i);
+		}
+		TaskSearchIndex fresh = new TaskSearchIndex(properties);
+		fresh.put(REPORT, "Write quarterly report", "Numbers for the finance team", Status.PENDING, 1);
+		fresh.put(REVIEW, "Review pull request", "Check the report generator code", Status.IN_PROGRESS, 1);
+		fresh.put(DEPLOY, "Deploy to production 19", "After review is approved", Status.COMPLETED, 19);
+
+		assertEquals(fresh.search("review", null, 10), index.search("review", null, 10));
+		assertEquals(fresh.search("production", null, 10), index.search("production", null, 10));
+	}
+
+	@Test
+	public void snapshot_RoundTripAndCorruptionDetected(@TempDir Path directory) throws IOException {
+		index.remove(DEPLOY);
+		Path file = directory.resolve("search.idx");
+		index.write(file);
+
+		TaskSearchIndex loaded = TaskSearchIndex.read(file, properties);
+		assertEquals(index.search("report", null, 10), loaded.search("report", null, 10));
+		assertEquals(2, loaded.size());
+		//changes after load keep working on the loaded index
+		loaded.put(DEPLOY, "Deploy again", null, Status.PENDING, 2);
+		assertEquals(List.of(DEPLOY), ids(loaded.search("deploy", null, 10)));
+
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(file, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+		assertThrows(IOException.class, () -> TaskSearchIndex.read(file, properties));
+	}
+
+	@Test
+	public void build_RowsReadFromDatabaseDoNotOverwriteChangesOfRequests() {
+		int buildStart = index.startBuild();
+		index.put(REPORT, "Write annual summary", null, Status.PENDING, TaskSearchIndex.UNKNOWN_VERSION);
+		index.putIfUntouched(REPORT, "Write quarterly report", null, Status.PENDING, 1);
+		BitSet seen = new BitSet();
+		assertTrue(index.markSeen(REVIEW, 1, seen));
+		assertEquals(1, index.removeUnseen(seen, buildStart)); //DEPLOY was not seen, REPORT was changed by request
+		index.finishBuild();
+
+		assertEquals(List.of(REPORT), ids(index.search("annual", null, 10)));
+		assertTrue(index.search("deploy", null, 10).isEmpty());
+	}
+
+	@Test
+	public void indexer_ReconcilesSnapshotWithTasksTable(@TempDir Path directory) throws Exception {
+		LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+		index.put(REVIEW, "Review pull request", null, Status.PENDING, updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000);
+		properties.setSnapshotFile(directory.resolve("search.idx").toString());
+		index.write(Path.of(properties.getSnapshotFile()));
+		FakeTaskSource source = new FakeTaskSource();
+		//REVIEW is unchanged, REPORT was changed and DEPLOY deleted by another node, new task was added
+		source.add(task(REVIEW, "Review pull request", updatedAt));
+		source.add(task(REPORT, "Write annual summary", updatedAt));
+		UUID added = UUID.fromString("00000000-0000-7000-8000-000000000004");
+		source.add(task(added, "Plan sprint", updatedAt));
+
+		TaskSearchIndexer indexer = new TaskSearchIndexer(properties, source, new SimpleMeterRegistry());
+		assertTrue(indexer.isReady()); //searches are served from snapshot while it is reconciled
+		indexer.maintainSafely();
+		indexer.shutdown();
+
+		TaskSearchIndex reconciled = TaskSearchIndex.read(Path.of(properties.getSnapshotFile()), properties);
+		assertEquals(List.of(REPORT), ids(reconciled.search("annual", null, 10)));
+		assertEquals(List.of(added), ids(reconciled.search("sprint", null, 10)));
+		assertTrue(reconciled.search("deploy", null, 10).isEmpty());
+		assertEquals(3, reconciled.size());
+		assertEquals(2, source.fetched); //only changed and new tasks were read in full
+	}
+
+	@Test
+	public void indexer_AppliesChangesOutsideTransactionImmediately() {
+		TaskSearchIndexer indexer = new TaskSearchIndexer(properties, new FakeTaskSource(), new SimpleMeterRegistry());
+		indexer.record(TaskChange.created(REPORT, new TaskChange.Values("Write report", null, Status.PENDING)));
+		indexer.record(TaskChange.updated(REPORT, new TaskChange.Values("Write report", null, Status.PENDING),
+				new TaskChange.Values("Write report", null, Status.COMPLETED)));
+
+		assertFalse(indexer.isReady());
+		assertEquals(List.of(REPORT), ids(indexer.getIndex().search("report", Status.COMPLETED, 10)));
+		indexer.record(TaskChange.deleted(REPORT, new TaskChange.Values("Write report", null, Status.COMPLETED)));
+		assertEquals(0, indexer.getIndex().size());
+	}
+
+	private static List<UUID> ids(List<TaskSearchIndex.Hit> hits) {
+		return hits.stream().map(TaskSearchIndex.Hit::id).toList();
+	}
+
+	private static TaskEntity task(UUID id, String title, LocalDateTime updatedAt) {
+		return TaskEntity.builder().id(id).title(title).status(Status.PENDING).updatedAt(updatedAt).build();
+	}
+
+	private static class FakeTaskSource implements TaskSource {
+
+		private final Map<UUID, TaskEntity> tasks = new LinkedHashMap<>();
+
+		private int fetched;
+
+		private void add(TaskEntity task) {
+			tasks.put(task.getId(), task);
+		}
+
+		@Override
+		public void scan(Consumer<TaskEntity> consumer) {
+			tasks.values().forEach(consumer);
+		}
+
+		@Override
+		public void scanVersions(BiConsumer<UUID, LocalDateTime> consumer) {
+			tasks.values().forEach(task -> consumer.accept(task.getId(), task.getUpdatedAt()));
+		}
+
+		@Override
+		public List<TaskEntity> findAllById(Collection<UUID> ids) {
+			List<TaskEntity> found = ids.stream().filter(tasks::containsKey).map(tasks::get).toList();
+			fetched += found.size();
+			return found;
+		}
+	}
+}
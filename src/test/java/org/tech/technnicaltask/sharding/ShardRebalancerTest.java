@@ -0,0 +1,94 @@
+package org.tech.technnicaltask.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+public class ShardRebalancerTest {
+
+	private static final UUID KEPT = UUID.fromString("00000000-0000-7000-8000-000000000001");
+
+	private static final UUID DELETED = UUID.fromString("00000000-0000-7000-8000-000000000002");
+
+	@Test
+	public void plan_NewShard_GetsEvenShareFromExistingOnes() {
+		ShardMap map = new ShardMap(mock(JdbcTemplate.class), 3);
+		map.assign(IntStream.range(512, 1024).boxed().toList(), 1); //two shards, 512 slots each
+
+		List<ShardRebalancer.Move> moves = ShardRebalancer.plan(map, 3);
+
+		assertEquals(2, moves.size());
+		moves.forEach(move -> {
+			assertEquals(2, move.target());
+			map.assign(move.slots(), move.target());
+		});
+		assertArrayEquals(new int[]{342, 341, 341}, map.distribution());
+	}
+
+	@Test
+	public void plan_BalancedShards_NothingToMove() {
+		ShardMap map = new ShardMap(mock(JdbcTemplate.class), 2);
+		map.assign(IntStream.range(0, 512).boxed().toList(), 1);
+
+		assertTrue(ShardRebalancer.plan(map, 2).isEmpty());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void rebalance_DeleteOnSourceDuringGracePeriod_IsAppliedToTarget() throws Exception {
+		JdbcTemplate source = mock(JdbcTemplate.class);
+		JdbcTemplate target = mock(JdbcTemplate.class);
+		//both rows are on source and target at switch, then other instance with old slot map deletes one on source
+		when(source.queryForList(anyString(), eq(UUID.class), any())).thenReturn(List.of(KEPT, DELETED), List.of(KEPT));
+		when(target.queryForList(anyString(), eq(UUID.class), any())).thenReturn(List.of(KEPT, DELETED));
+		ShardRouter router = router(source, target);
+		ShardingProperties properties = new ShardingProperties();
+		properties.setMapRefreshInterval(Duration.ZERO);
+		ShardRebalancer rebalancer = new ShardRebalancer(router, properties);
+
+		rebalancer.rebalance();
+
+		assertEquals("Completed 1 moves", rebalancer.getLastResult());
+		ArgumentCaptor<List<Object[]>> deleted = ArgumentCaptor.forClass(List.class);
+		verify(target, times(1)).batchUpdate(eq("DELETE FROM tasks WHERE id = ?"), deleted.capture());
+		assertEquals(1, deleted.getValue().size());
+		assertEquals(DELETED, deleted.getValue().get(0)[0]);
+		verify(source).update(startsWith("DELETE FROM tasks WHERE"), any(Object.class));
+		assertArrayEquals(new int[]{512, 512}, router.getMap().distribution());
+	}
+
+	//Two shards, all slots on shard 0, copies find no rows changed
+	private static ShardRouter router(JdbcTemplate source, JdbcTemplate target) throws Exception {
+		ResultSet rows = mock(ResultSet.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(statement.executeQuery()).thenReturn(rows);
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.shardCount()).thenReturn(2);
+		when(router.getMap()).thenReturn(new ShardMap(mock(JdbcTemplate.class), 2));
+		when(router.dataSource(anyInt())).thenReturn(dataSource);
+		when(router.jdbcTemplate(0)).thenReturn(source);
+		when(router.jdbcTemplate(1)).thenReturn(target);
+		return router;
+	}
+}
@@ -0,0 +1,114 @@
+package org.tech.technnicaltask.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.entity.TaskEntity;
+import org.tech.technnicaltask.exceptions.TaskNotFoundException;
+import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.utils.UuidV7Generator;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+public class ShardedTaskRepositoryTest {
+
+	private final LocalDateTime time = LocalDateTime.of(2025, 6, 19, 20, 0);
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+	private ShardedTaskRepository repository;
+
+	@AfterEach
+	public void close() {
+		if (repository != null) repository.shutdown();
+	}
+
+	@Test
+	public void merge_SortedShardResults_AreInterleaved() {
+		TaskEntity first = task("00000000-0000-7000-8000-000000000001", time);
+		TaskEntity second = task("00000000-0000-7000-8000-000000000002", time.plusSeconds(1));
+		TaskEntity third = task("00000000-0000-7000-8000-000000000003", time.plusSeconds(2));
+		TaskEntity fourth = task("00000000-0000-7000-8000-000000000004", time.plusSeconds(3));
+
+		List<TaskEntity> merged = ShardedTaskRepository.merge(List.of(List.of(first, third), List.of(), List.of(second, fourth)));
+
+		assertEquals(List.of(first, second, third, fourth), merged);
+	}
+
+	@Test
+	public void merge_SameCreationTime_OrdersIdsAsUnsigned() {
+		TaskEntity low = task("7fffffff-0000-4000-8000-000000000000", time);
+		TaskEntity high = task("80000000-0000-4000-8000-000000000000", time); //negative most significant bits
+
+		List<TaskEntity> merged = ShardedTaskRepository.merge(List.of(List.of(high), List.of(low)));
+
+		assertEquals(List.of(low, high), merged);
+	}
+
+	@Test
+	public void save_NewTask_IsInserted() {
+		ShardRouter router = router();
+		when(router.newId()).thenReturn(UUID.fromString("00000000-0000-7000-8000-000000000001"));
+		when(jdbcTemplate.update(startsWith("INSERT"), any(Object[].class))).thenReturn(1);
+
+		TaskEntity saved = repository(router).save(new TaskEntity(null, "title", null, Status.PENDING, null, null));
+
+		assertNotNull(saved.getCreatedAt());
+		verify(jdbcTemplate).update(startsWith("INSERT"), any(Object[].class));
+		verify(jdbcTemplate, never()).update(startsWith("UPDATE"), any(Object[].class));
+	}
+
+	@Test
+	public void save_TaskDeletedMeanwhile_ThrowsTaskNotFoundAndDoesNotInsert() {
+		ShardRouter router = router();
+		when(jdbcTemplate.update(startsWith("UPDATE"), any(Object[].class))).thenReturn(0);
+		TaskEntity task = task("00000000-0000-7000-8000-000000000001", time);
+
+		assertThrows(TaskNotFoundException.class, () -> repository(router).save(task));
+		verify(jdbcTemplate, never()).update(startsWith("INSERT"), any(Object[].class));
+	}
+
+	@Test
+	public void withSlot_TimeOrderedId_KeepsTimePartAndSetsSlot() {
+		UUID id = UuidV7Generator.generate();
+
+		UUID slotted = ShardSlots.withSlot(id, 1000);
+
+		assertEquals(1000, ShardSlots.slotOf(slotted));
+		assertEquals(id.getMostSignificantBits(), slotted.getMostSignificantBits());
+		assertEquals(7, slotted.version());
+		assertEquals(2, slotted.variant());
+	}
+
+	@Test
+	public void slotOf_AnyId_UsesLastHexDigits() {
+		//same as SQL_SLOT: last 3 hex digits masked with 1023
+		assertEquals(0xABC & 1023, ShardSlots.slotOf(UUID.fromString("f4befda1-dbe2-425d-a52e-939d70d25abc")));
+	}
+
+	//Single shard router over mocked JdbcTemplate
+	private ShardRouter router() {
+		ShardRouter router = mock(ShardRouter.class);
+		when(router.shardCount()).thenReturn(1);
+		when(router.jdbcTemplate(0)).thenReturn(jdbcTemplate);
+		when(router.onShardOf(any(), any())).thenAnswer(invocation -> invocation.<IntFunction<Object>>getArgument(1).apply(0));
+		return router;
+	}
+
+	private ShardedTaskRepository repository(ShardRouter router) {
+		repository = new ShardedTaskRepository(router);
+		return repository;
+	}
+
+	private TaskEntity task(String id, LocalDateTime createdAt) {
+		return new TaskEntity(UUID.fromString(id), "title", null, Status.PENDING, createdAt, createdAt);
+	}
+}
@@ -0,0 +1,60 @@
+package org.tech.technnicaltask.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.dto.TaskUpdateDto;
+import org.tech.technnicaltask.exceptions.BadRequestException;
+import org.tech.technnicaltask.mapper.StringToUUIDConverter;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestParsingTest {
+
+	private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+	@Test
+	public void statusParse_IgnoresCaseAndReturnsNullForUnknown() {
+		assertEquals(Status.PENDING, Status.parse("pending"));
+		assertEquals(Status.IN_PROGRESS, Status.parse("In_Progress"));
+		assertEquals(Status.COMPLETED, Status.parse("COMPLETED"));
+		assertEquals(Status.COMPLETED, Status.parse("xcompletedx".toCharArray(), 1, 9));
+		assertNull(Status.parse("DONE"));
+		assertNull(Status.parse("PENDING "));
+		assertNull(Status.parse(""));
+		assertNull(Status.parse((CharSequence) null));
+	}
+
+	@Test
+	public void uuidParse_MatchesUuidFromStringAndRejectsWithoutException() {
+		for (int i = 0; i < 1000; i++) {
+			UUID uuid = i % 2 == 0 ? UUID.randomUUID() : UuidV7Generator.generate();
+			assertEquals(uuid, UuidParser.parse(uuid.toString()));
+			assertEquals(uuid, UuidParser.parse(uuid.toString().toUpperCase()));
+		}
+		assertNull(UuidParser.parse("f4befda1-dbe2-425d-a52e-939d70d259b")); //too short
+		assertNull(UuidParser.parse("f4befda1-dbe2-425d-a52e-939d70d259bg")); //not a hex digit
+		assertNull(UuidParser.parse("f4befda1+dbe2-425d-a52e-939d70d259ba")); //wrong separator
+		assertNull(UuidParser.parse("f4befda1-dbe2-425d-a52e-939d70d259b١")); //non-ASCII digit
+		assertThrows(BadRequestException.class, () -> new StringToUUIDConverter().convert("not-a-uuid"));
+	}
+
+	@Test
+	public void deserializers_ParseDtosAndRejectInvalidValuesWithMessage() throws Exception {
+		TaskDto dto = mapper.readValue("{\"id\":\"f4befda1-dbe2-425d-a52e-939d70d259ba\",\"title\":\"T\",\"status\":\"in_progress\"}", TaskDto.class);
+		assertEquals(UUID.fromString("f4befda1-dbe2-425d-a52e-939d70d259ba"), dto.getId());
+		assertEquals(Status.IN_PROGRESS, dto.getStatus());
+		assertEquals("{\"status\":\"COMPLETED\"}", mapper.writeValueAsString(new TaskUpdateDto(null, null, Status.COMPLETED)));
+		assertNull(mapper.readValue("{\"status\":null}", TaskUpdateDto.class).status());
+
+		InvalidFormatException status = assertThrows(InvalidFormatException.class,
+				() -> mapper.readValue("{\"status\":\"done\"}", TaskUpdateDto.class));
+		assertEquals(ErrorCode.INVALID_STATUS.getFormattedMessage("done", "[PENDING, IN_PROGRESS, COMPLETED]"), status.getOriginalMessage());
+		InvalidFormatException id = assertThrows(InvalidFormatException.class,
+				() -> mapper.readValue("{\"id\":\"42\",\"title\":\"T\",\"status\":\"PENDING\"}", TaskDto.class));
+		assertEquals(ErrorCode.INVALID_UUID.getFormattedMessage("42"), id.getOriginalMessage());
+	}
+}
@@ -0,0 +1,68 @@
+package org.tech.technnicaltask.utils;
+
+import org.junit.jupiter.api.Test;
+import org.tech.technnicaltask.mapper.StringToUUIDConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7GeneratorTest {
+
+	@Test
+	public void generate_ReturnsVersion7WithRfcVariantAndCurrentTimestamp() {
+		long before = System.currentTimeMillis();
+		UUID uuid = UuidV7Generator.generate();
+
+		assertEquals(7, uuid.version());
+		assertEquals(2, uuid.variant());
+		assertTrue(UuidV7Generator.timestampOf(uuid) >= before);
+		assertTrue(UuidV7Generator.timestampOf(uuid) <= System.currentTimeMillis() + 1);
+	}
+
+	@Test
+	public void generate_FromManyThreads_ReturnsUniqueMonotonicIds() throws Exception {
+		int threads = 8;
+		int perThread = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Callable<List<UUID>>> tasks = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				tasks.add(() -> {
+					List<UUID> ids = new ArrayList<>(perThread);
+					for (int j = 0; j < perThread; j++) ids.add(UuidV7Generator.generate());
+					return ids;
+				});
+			}
+			List<UUID> all = new ArrayList<>();
+			for (Future<List<UUID>> future : executor.invokeAll(tasks)) {
+				List<UUID> ids = future.get();
+				//Ids from one thread are strictly increasing (compared as unsigned, the way PostgreSQL orders uuid)
+				for (int j = 1; j < ids.size(); j++) {
+					assertTrue(Long.compareUnsigned(ids.get(j - 1).getMostSignificantBits(), ids.get(j).getMostSignificantBits()) < 0);
+				}
+				all.addAll(ids);
+			}
+			assertEquals(threads * perThread, all.stream().distinct().count());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void stringToUUIDConverter_AcceptsV7AndV4Ids() {
+		StringToUUIDConverter converter = new StringToUUIDConverter();
+		UUID v7 = UuidV7Generator.generate();
+		UUID v4 = UUID.randomUUID();
+
+		assertEquals(v7, converter.convert(v7.toString()));
+		assertEquals(v4, converter.convert(v4.toString()));
+		assertEquals(v7, converter.convert(v7.toString().toUpperCase()));
+	}
+}
@@ -0,0 +1,150 @@
+package org.tech.technnicaltask.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.resilience.LastKnownGoodTasks;
+import org.tech.technnicaltask.search.TaskSource;
+import org.tech.technnicaltask.service.TaskService;
+import org.tech.technnicaltask.sharding.ShardRouter;
+import org.tech.technnicaltask.utils.Status;
+import org.tech.technnicaltask.writebehind.TaskWriteBehindBuffer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class TaskWarmUpTest {
+
+	private static final UUID FIRST = UUID.fromString("00000000-0000-7000-8000-000000000001");
+
+	private static final UUID SECOND = UUID.fromString("00000000-0000-7000-8000-000000000002");
+
+	private static final UUID THIRD = UUID.fromString("00000000-0000-7000-8000-000000000003");
+
+	private WarmUpProperties properties;
+
+	private TaskService taskService;
+
+	private TaskSource taskSource;
+
+	private PlatformTransactionManager transactionManager;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private TaskWarmUp warmUp;
+
+	@BeforeEach
+	public void init() {
+		properties = new WarmUpProperties();
+		properties.setIterations(20);
+		properties.setWriteIterations(5);
+		taskService = mock(TaskService.class);
+		when(taskService.getById(any())).thenAnswer(invocation -> new TaskDto(invocation.getArgument(0), "Task", null, Status.PENDING, null, null));
+		when(taskService.save(any())).thenReturn(new TaskDto(THIRD, "Warm-up task", null, Status.PENDING, null, null));
+		taskSource = mock(TaskSource.class);
+		when(taskSource.findRecentlyUpdated(properties.getPreloadTasks())).thenReturn(List.of(FIRST, SECOND));
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+		meterRegistry = new SimpleMeterRegistry();
+		warmUp = warmUp(null, null);
+	}
+
+	@Test
+	public void warmUp_ReadsHotTasksAndRollsBackSyntheticWrites() {
+		TaskWarmUp.Report report = warmUp.warmUp();
+
+		assertEquals(List.of("read", "request-body", "write"), List.copyOf(report.latencies().keySet()));
+		assertEquals(2, report.preloadedTasks());
+		verify(taskService, times(10)).getById(FIRST);
+		verify(taskService, times(10)).getById(SECOND);
+		verify(taskService, times(5)).updateTask(eq(THIRD), any());
+		verify(taskService, times(5)).deleteById(THIRD);
+		verify(transactionManager, times(5)).rollback(any());
+		verify(transactionManager, never()).commit(any());
+		report.latencies().values().forEach(latency -> assertTrue(latency.firstNanos() > 0 && latency.warmNanos() > 0));
+	}
+
+	@Test
+	public void warmUp_SkipsWritesThatCantBeRolledBackAndFailedSteps() {
+		warmUp = warmUp(mock(ShardRouter.class), null);
+		when(taskSource.findRecentlyUpdated(anyInt())).thenThrow(new IllegalStateException("database is down"));
+
+		TaskWarmUp.Report report = warmUp.warmUp();
+
+		assertEquals(List.of("request-body"), List.copyOf(report.latencies().keySet()));
+		verify(taskService, never()).save(any());
+		verify(transactionManager, never()).getTransaction(any());
+	}
+
+	@Test
+	public void warmUp_WriteBehindMode_SkipsSyntheticWrites() {
+		warmUp = warmUp(null, mock(TaskWriteBehindBuffer.class));
+
+		TaskWarmUp.Report report = warmUp.warmUp();
+
+		assertEquals(List.of("read", "request-body"), List.copyOf(report.latencies().keySet()));
+		verify(taskService, never()).save(any());
+		verify(transactionManager, never()).getTransaction(any());
+	}
+
+	@Test
+	public void warmUp_SyntheticWrites_AreNotRememberedAsLastKnownGood() {
+		when(taskService.save(any())).thenAnswer(invocation -> {
+			assertTrue(LastKnownGoodTasks.isSuspended());
+			return new TaskDto(THIRD, "Warm-up task", null, Status.PENDING, null, null);
+		});
+		when(taskService.getById(any())).thenAnswer(invocation -> {
+			assertFalse(LastKnownGoodTasks.isSuspended()); //hot tasks are real, they fill the store
+			return new TaskDto(invocation.getArgument(0), "Task", null, Status.PENDING, null, null);
+		});
+
+		assertTrue(warmUp.warmUp().latencies().containsKey("write"));
+		verify(taskService, times(5)).save(any());
+	}
+
+	@Test
+	public void run_LatencyGaugesSurviveGarbageCollection() {
+		warmUp.run(null);
+		System.gc();
+
+		assertTrue(meterRegistry.get("tasks.warmup.duration").timeGauge().value() > 0);
+		meterRegistry.get("tasks.warmup.latency").timeGauges().forEach(gauge -> assertFalse(Double.isNaN(gauge.value())));
+		assertEquals(6, meterRegistry.get("tasks.warmup.latency").timeGauges().size());
+	}
+
+	@Test
+	public void taskSource_RecentlyUpdatedNewestFirst() {
+		TaskSource source = mock(TaskSource.class);
+		LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+		doAnswer(invocation -> {
+			BiConsumer<UUID, LocalDateTime> consumer = invocation.getArgument(0);
+			consumer.accept(FIRST, now.minusDays(1));
+			consumer.accept(SECOND, null);
+			consumer.accept(THIRD, now);
+			return null;
+		}).when(source).scanVersions(any());
+		when(source.findRecentlyUpdated(anyInt())).thenCallRealMethod();
+
+		assertEquals(List.of(THIRD, FIRST), source.findRecentlyUpdated(2));
+		assertEquals(List.of(THIRD, FIRST, SECOND), source.findRecentlyUpdated(10));
+		assertTrue(source.findRecentlyUpdated(0).isEmpty());
+	}
+
+	private TaskWarmUp warmUp(ShardRouter shardRouter, TaskWriteBehindBuffer writeBehindBuffer) {
+		return new TaskWarmUp(properties, taskService, taskSource, new ObjectMapper().findAndRegisterModules(),
+				Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry,
+				transactionManager, null, shardRouter, writeBehindBuffer, null, null, null);
+	}
+}
@@ -0,0 +1,146 @@
+package org.tech.technnicaltask.writebehind;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tech.technnicaltask.dto.TaskDto;
+import org.tech.technnicaltask.utils.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskWriteBehindBufferTest {
+
+	private static final UUID ID = UUID.fromString("f4befda1-dbe2-425d-a52e-939d70d259ba");
+
+	private static final UUID OTHER_ID = UUID.fromString("0b5c2a6e-8f41-4a55-9d2f-1f0f6b1f2d11");
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	private TaskWriteBehindBuffer buffer;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private final LocalDateTime time = LocalDateTime.of(2025, 6, 19, 20, 0);
+
+	@BeforeEach
+	public void init() {
+		WriteBehindProperties properties = new WriteBehindProperties();
+		properties.setFlushInterval(Duration.ofHours(1)); //flushes are called by test
+		properties.setShutdownTimeout(Duration.ofMillis(100));
+		properties.setMaxAttempts(2);
+		meterRegistry = new SimpleMeterRegistry();
+		buffer = new TaskWriteBehindBuffer(jdbcTemplate, properties, meterRegistry);
+	}
+
+	@AfterEach
+	public void shutdown() throws InterruptedException {
+		buffer.shutdown();
+	}
+
+	@Test
+	public void enqueue_SeveralUpdatesOfOneTask_AreMergedLastWriterWins() {
+		buffer.enqueue(ID, new PendingTaskUpdate("First", "Description", Status.IN_PROGRESS, time));
+		buffer.enqueue(ID, new PendingTaskUpdate(null, null, Status.COMPLETED, time.plusSeconds(1)));
+		buffer.enqueue(ID, new PendingTaskUpdate("Second", null, null, time.plusSeconds(2)));
+
+		TaskDto dto = TaskDto.builder().id(ID).title("Old").description("Old").status(Status.PENDING).build();
+		buffer.applyPending(dto);
+
+		assertEquals(1, buffer.size());
+		assertEquals("Second", dto.getTitle());
+		assertEquals("Description", dto.getDescription());
+		assertEquals(Status.COMPLETED, dto.getStatus());
+		assertEquals(time.plusSeconds(2), dto.getUpdatedAt());
+	}
+
+	@Test
+	public void flush_WritesAllTasksWithOneStatement() {
+		when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2);
+		buffer.enqueue(ID, new PendingTaskUpdate("Title", null, null, time));
+		buffer.enqueue(OTHER_ID, new PendingTaskUpdate(null, null, Status.COMPLETED, time));
+
+		buffer.flush();
+
+		ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate, times(1)).update(anyString(), args.capture());
+		assertEquals(10, args.getValue().length);
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	public void flush_WhenDatabaseFails_KeepsUpdatesAndMergesNewerOnes() {
+		when(jdbcTemplate.update(anyString(), any(Object[].class)))
+				.thenAnswer(invocation -> {
+					//update that comes while batch is being written
+					buffer.enqueue(ID, new PendingTaskUpdate(null, null, Status.COMPLETED, time.plusSeconds(1)));
+					throw new QueryTimeoutException("timeout");
+				});
+		buffer.enqueue(ID, new PendingTaskUpdate("Title", null, Status.IN_PROGRESS, time));
+
+		assertThrows(QueryTimeoutException.class, () -> buffer.flush());
+
+		TaskDto dto = TaskDto.builder().id(ID).title("Old").status(Status.PENDING).build();
+		buffer.applyPending(dto);
+		assertEquals(1, buffer.size());
+		assertEquals("Title", dto.getTitle());
+		assertEquals(Status.COMPLETED, dto.getStatus());
+	}
+
+	@Test
+	public void applyPending_RowReadBeforeFlushCommitted_StillSeesWrittenUpdate() {
+		when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+		buffer.enqueue(ID, new PendingTaskUpdate("Title", null, Status.COMPLETED, time));
+		TaskDto staleRow = TaskDto.builder().id(ID).title("Old").status(Status.PENDING).updatedAt(time.minusMinutes(1)).build();
+
+		buffer.flush(); //commits between the read of the row and applyPending
+
+		buffer.applyPending(staleRow);
+		assertEquals("Title", staleRow.getTitle());
+		assertEquals(Status.COMPLETED, staleRow.getStatus());
+
+		TaskDto freshRow = TaskDto.builder().id(ID).title("Newer").status(Status.PENDING).updatedAt(time).build();
+		buffer.applyPending(freshRow);
+		assertEquals("Newer", freshRow.getTitle()); //row is at least as new as the written update
+	}
+
+	@Test
+	public void flush_AlwaysFailingUpdate_IsDeadLetteredAfterMaxAttempts() {
+		when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new QueryTimeoutException("timeout"));
+		buffer.enqueue(ID, new PendingTaskUpdate("Title", null, null, time));
+
+		assertThrows(QueryTimeoutException.class, () -> buffer.flush());
+		assertEquals(1, buffer.size());
+		assertThrows(QueryTimeoutException.class, () -> buffer.flush());
+
+		assertEquals(0, buffer.size());
+		verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class)); //last attempt alone
+		assertEquals(1.0, meterRegistry.get("tasks.writebehind.dead-lettered").counter().count());
+	}
+
+	@Test
+	public void shutdown_FlushesBufferedUpdates() throws InterruptedException {
+		when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+		buffer.enqueue(ID, new PendingTaskUpdate("Title", null, null, time));
+
+		buffer.shutdown();
+
+		verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+		assertEquals(0, buffer.size());
+	}
+}